@@ -0,0 +1,81 @@
+package com.ilsmp.base;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.ilsmp.base.AutoValueHandlerBenchmark.SampleEntity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+ * Author: zhangjiahao04
+ * Description: AutoValueHandler批量保存时填充字段的吞吐量,parallelThreshold为0时串行填充,否则按1000条分块并行
+ * Date: 2026/10/18 22:00
+ **/
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AutoValueBatchBenchmark {
+
+    @Param({"10000", "100000"})
+    private int size;
+    @Param({"0", "1000"})
+    private int parallelThreshold;
+
+    private AutoValueHandler handler;
+    private Method fillAll;
+    private List<SampleEntity> entities;
+
+    @Setup
+    public void setup() throws Exception {
+        handler = new AutoValueHandler();
+        setField("parallelSaveThreshold", parallelThreshold);
+        setField("parallelSaveChunk", 1000);
+        fillAll = AutoValueHandler.class.getDeclaredMethod("fillAll", List.class, long.class, Boolean.class);
+        fillAll.setAccessible(true);
+        entities = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            SampleEntity entity = new SampleEntity();
+            entity.setName("benchmark-" + i);
+            entities.add(entity);
+        }
+    }
+
+    /**
+     * 每次保存前清空code,保证每次都重新计算
+     */
+    @Setup(Level.Invocation)
+    public void reset() {
+        for (SampleEntity entity : entities) {
+            entity.setCode(null);
+        }
+    }
+
+    @Benchmark
+    public List<SampleEntity> saveAll() throws Exception {
+        fillAll.invoke(handler, entities, System.currentTimeMillis(), Boolean.TRUE);
+        return entities;
+    }
+
+    private void setField(String name, Object value) throws Exception {
+        Field field = AutoValueHandler.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(handler, value);
+    }
+}
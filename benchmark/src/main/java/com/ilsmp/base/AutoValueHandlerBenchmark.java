@@ -0,0 +1,71 @@
+package com.ilsmp.base;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+ * Author: zhangjiahao04
+ * Description: AutoValueHandler保存时按注解反射填充字段的耗时(单个实体)
+ * Date: 2026/10/18 20:30
+ **/
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AutoValueHandlerBenchmark {
+
+    private AutoValueHandler handler;
+    private Method fill;
+    private SampleEntity entity;
+
+    @Setup
+    public void setup() throws Exception {
+        handler = new AutoValueHandler();
+        fill = AutoValueHandler.class.getDeclaredMethod("getAnnotation", Object.class, long.class, Boolean.class);
+        fill.setAccessible(true);
+        entity = new SampleEntity();
+        entity.setName("benchmark");
+    }
+
+    @Benchmark
+    public SampleEntity save() throws Exception {
+        entity.setCode(null);
+        fill.invoke(handler, entity, System.currentTimeMillis(), Boolean.TRUE);
+        return entity;
+    }
+
+    public static class SampleEntity extends BaseEntityVersion {
+        @AutoValue("code")
+        private String name;
+        private Long code;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public Long getCode() {
+            return code;
+        }
+
+        public void setCode(Long code) {
+            this.code = code;
+        }
+    }
+}
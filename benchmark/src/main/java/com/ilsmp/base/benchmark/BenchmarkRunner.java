@@ -0,0 +1,112 @@
+package com.ilsmp.base.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/*
+ * Author: zhangjiahao04
+ * Description: 运行基准测试并输出JSON结果,用于在版本之间比较。
+ * java -cp target/benchmarks.jar com.ilsmp.base.benchmark.BenchmarkRunner [包含的正则] [结果文件] [基线结果文件]
+ * 结果文件默认target/benchmark-${base.version}.json,版本取-Dbase.version,未指定时取打包时写入的被测版本;指定基线文件时,打印与基线相比变慢超过regression.threshold(默认10%)的用例,有退化时以状态码1退出
+ * Date: 2026/10/18 19:55
+ **/
+public final class BenchmarkRunner {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String include = args.length > 0 ? args[0] : "com.ilsmp.base.*";
+        String result = args.length > 1 ? args[1] : "target/benchmark-" + version() + ".json";
+        File resultFile = new File(result);
+        if (resultFile.getParentFile() != null) {
+            resultFile.getParentFile().mkdirs();
+        }
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .include(include)
+                .resultFormat(ResultFormatType.JSON)
+                .result(resultFile.getPath());
+        new Runner(options.build()).run();
+        System.out.println("Benchmark results written to " + resultFile.getAbsolutePath());
+        if (args.length > 2) {
+            double threshold = Double.parseDouble(System.getProperty("regression.threshold", "0.1"));
+            if (compare(new File(args[2]), resultFile, threshold) > 0) {
+                System.exit(1);
+            }
+        }
+    }
+
+    /*
+     * Description: 按用例名+参数比较得分,AverageTime/SampleTime越小越好,Throughput越大越好
+     **/
+    static int compare(File baseline, File current, double threshold) throws Exception {
+        Map<String, JsonNode> previous = index(MAPPER.readTree(baseline));
+        int regressions = 0;
+        for (Map.Entry<String, JsonNode> entry : index(MAPPER.readTree(current)).entrySet()) {
+            JsonNode before = previous.get(entry.getKey());
+            if (before == null) {
+                continue;
+            }
+            double old = before.path("primaryMetric").path("score").asDouble();
+            double now = entry.getValue().path("primaryMetric").path("score").asDouble();
+            if (old == 0) {
+                continue;
+            }
+            boolean higherIsBetter = "thrpt".equals(entry.getValue().path("mode").asText());
+            double change = higherIsBetter ? (old - now) / old : (now - old) / old;
+            String unit = entry.getValue().path("primaryMetric").path("scoreUnit").asText();
+            if (change > threshold) {
+                regressions++;
+                System.out.printf("REGRESSION %s: %.3f -> %.3f %s (%+.1f%%)%n", entry.getKey(), old, now, unit,
+                        change * 100);
+            } else if (change < -threshold) {
+                System.out.printf("improved   %s: %.3f -> %.3f %s (%+.1f%%)%n", entry.getKey(), old, now, unit,
+                        change * 100);
+            }
+        }
+        System.out.println(regressions + " regression(s) against " + baseline.getPath());
+        return regressions;
+    }
+
+    private static Map<String, JsonNode> index(JsonNode results) {
+        Map<String, JsonNode> map = new HashMap<>();
+        for (JsonNode result : results) {
+            StringBuilder key = new StringBuilder(result.path("benchmark").asText());
+            result.path("params").fields().forEachRemaining(param -> key.append(' ').append(param.getKey())
+                    .append('=').append(param.getValue().asText()));
+            map.put(key.toString(), result);
+        }
+        return map;
+    }
+
+    private static String version() throws IOException {
+        String version = System.getProperty("base.version");
+        if (version != null && !version.isEmpty()) {
+            return version;
+        }
+        Properties properties = new Properties();
+        try (InputStream in = BenchmarkRunner.class.getResourceAsStream("/base-benchmark.properties")) {
+            if (in != null) {
+                properties.load(in);
+            }
+        }
+        version = properties.getProperty("base.version");
+        if (version == null || version.isEmpty() || version.startsWith("${")) {
+            throw new IllegalStateException("base.version is unknown, pass -Dbase.version or specify the result file");
+        }
+        return version;
+    }
+}
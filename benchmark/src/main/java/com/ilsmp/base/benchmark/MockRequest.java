@@ -0,0 +1,107 @@
+package com.ilsmp.base.benchmark;
+
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import java.io.ByteArrayInputStream;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/*
+ * Author: zhangjiahao04
+ * Description: 基准测试用的最小HttpServletRequest,只实现请求路径、属性、请求体相关方法,其余方法抛出异常
+ * Date: 2026/10/18 19:50
+ **/
+public final class MockRequest {
+
+    private MockRequest() {
+    }
+
+    public static HttpServletRequest of(String uri, Map<String, Object> attributes) {
+        return of(uri, attributes, null, null);
+    }
+
+    /**
+     * @param body 请求体,为null表示没有请求体
+     * @param contentType 请求体类型
+     */
+    public static HttpServletRequest of(String uri, Map<String, Object> attributes, byte[] body, String contentType) {
+        Map<String, Object> attrs = attributes == null ? new HashMap<>() : attributes;
+        byte[] content = body == null ? new byte[0] : body;
+        return (HttpServletRequest) Proxy.newProxyInstance(HttpServletRequest.class.getClassLoader(),
+                new Class<?>[]{HttpServletRequest.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getRequestURI":
+                            return uri;
+                        case "getMethod":
+                            return body == null ? "GET" : "POST";
+                        case "getAttribute":
+                            return attrs.get((String) args[0]);
+                        case "setAttribute":
+                            attrs.put((String) args[0], args[1]);
+                            return null;
+                        case "removeAttribute":
+                            attrs.remove((String) args[0]);
+                            return null;
+                        case "getContentType":
+                            return contentType;
+                        case "getCharacterEncoding":
+                            return "UTF-8";
+                        case "getContentLength":
+                            return content.length;
+                        case "getContentLengthLong":
+                            return (long) content.length;
+                        case "getInputStream":
+                            return inputStream(content);
+                        case "getHeader":
+                            return null;
+                        case "getHeaderNames":
+                            return Collections.emptyEnumeration();
+                        case "getParameterMap":
+                            return Collections.emptyMap();
+                        case "getParameterValues":
+                            return null;
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        case "toString":
+                            return "MockRequest " + uri;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    private static ServletInputStream inputStream(byte[] content) {
+        ByteArrayInputStream in = new ByteArrayInputStream(content);
+        return new ServletInputStream() {
+            @Override
+            public int read() {
+                return in.read();
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) {
+                return in.read(b, off, len);
+            }
+
+            @Override
+            public boolean isFinished() {
+                return in.available() == 0;
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setReadListener(ReadListener readListener) {
+                throw new UnsupportedOperationException("setReadListener");
+            }
+        };
+    }
+}
@@ -0,0 +1,81 @@
+package com.ilsmp.base.config;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.ilsmp.base.benchmark.MockRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/*
+ * Author: zhangjiahao04
+ * Description: 一次请求对candidates个版本化映射做版本匹配的耗时,对比原来每个候选都跑一次正则与按请求缓存解析结果
+ * Date: 2026/10/18 19:30
+ **/
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ApiVersionConditionBenchmark {
+
+    private static final Pattern VERSION_PREFIX_PATTERN = Pattern.compile("v(\\d+)/");
+
+    @Param({"1", "10", "100"})
+    private int candidates;
+
+    private ApiVersionCondition[] conditions;
+    private Map<String, Object> attributes;
+    private HttpServletRequest request;
+
+    @Setup
+    public void setup() {
+        conditions = new ApiVersionCondition[candidates];
+        for (int i = 0; i < candidates; i++) {
+            conditions[i] = new ApiVersionCondition(i % 5 + 1);
+        }
+        attributes = new HashMap<>();
+        request = MockRequest.of("/api/v3/user/detail", attributes);
+    }
+
+    @Benchmark
+    public void regexPerCandidate(Blackhole blackhole) {
+        for (ApiVersionCondition condition : conditions) {
+            Matcher m = VERSION_PREFIX_PATTERN.matcher(request.getRequestURI());
+            blackhole.consume(m.find() && Integer.parseInt(m.group(1)) >= condition.getApiVersion()
+                    ? condition : null);
+        }
+    }
+
+    /**
+     * 每次调用模拟一个新请求:结束时移除缓存的解析结果。移除只是一次HashMap.remove,计入结果;
+     * 不用Level.Invocation,其每次调用的计时开销与被测代码同一量级
+     */
+    @Benchmark
+    public void cachedPerRequest(Blackhole blackhole) {
+        for (ApiVersionCondition condition : conditions) {
+            blackhole.consume(condition.getMatchingCondition(request));
+        }
+        attributes.remove(ApiVersionCondition.VERSION_ATTRIBUTE);
+    }
+
+    @Benchmark
+    public int parseOnly() {
+        return ApiVersionCondition.parseVersion(request.getRequestURI());
+    }
+}
@@ -0,0 +1,78 @@
+package com.ilsmp.base.database.geo;
+
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.ilsmp.base.database.geo.jts.GeometrySerializer;
+import com.ilsmp.base.database.geo.jts.JtsTool;
+import com.ilsmp.base.database.geo.parsers.GenericGeometryParser;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+ * Author: zhangjiahao04
+ * Description: GeoJSON多边形序列化(GeometrySerializer)与解析(GenericGeometryParser)的耗时,vertices为顶点数
+ * Date: 2026/10/18 20:25
+ **/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GeoJsonBenchmark {
+
+    @Param({"8", "1024"})
+    private int vertices;
+
+    private ObjectMapper mapper;
+    private GenericGeometryParser parser;
+    private Geometry polygon;
+    private String json;
+    private JsonNode node;
+
+    @Setup
+    public void setup() throws Exception {
+        SimpleModule module = new SimpleModule();
+        module.addSerializer(Geometry.class, new GeometrySerializer());
+        mapper = new ObjectMapper().registerModule(module);
+        parser = new GenericGeometryParser(JtsTool.geometryFactory);
+        Coordinate[] ring = new Coordinate[vertices + 1];
+        for (int i = 0; i < vertices; i++) {
+            double angle = 2 * Math.PI * i / vertices;
+            ring[i] = new Coordinate(116.40 + 0.1 * Math.cos(angle), 39.90 + 0.1 * Math.sin(angle));
+        }
+        ring[vertices] = ring[0];
+        polygon = JtsTool.geometryFactory.createPolygon(ring);
+        json = mapper.writeValueAsString(polygon);
+        node = mapper.readTree(json);
+    }
+
+    @Benchmark
+    public String serialize() throws Exception {
+        return mapper.writeValueAsString(polygon);
+    }
+
+    @Benchmark
+    public Geometry parseNode() throws Exception {
+        return parser.geometryFromJson(node);
+    }
+
+    @Benchmark
+    public Geometry readAndParse() throws Exception {
+        return parser.geometryFromJson(mapper.readTree(json));
+    }
+}
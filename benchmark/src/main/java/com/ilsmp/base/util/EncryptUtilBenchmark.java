@@ -0,0 +1,67 @@
+package com.ilsmp.base.util;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+ * Author: zhangjiahao04
+ * Description: EncryptUtil摘要、crc32分桶、pbkdf2口令哈希与雪花id的耗时
+ * Date: 2026/10/18 20:10
+ **/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EncryptUtilBenchmark {
+
+    private static final String VALUE = "tenant-10001/project-20002/user-30003";
+
+    private String passwordHash;
+
+    @Setup
+    public void setup() throws Exception {
+        passwordHash = EncryptUtil.hashFrom("p@ssw0rd");
+    }
+
+    @Benchmark
+    public String md5() {
+        return EncryptUtil.md5FromString(VALUE);
+    }
+
+    @Benchmark
+    public Long crc32() {
+        return EncryptUtil.crc32FromStr(VALUE);
+    }
+
+    @Benchmark
+    public Integer crc32Bucket() {
+        return EncryptUtil.crc32ToBucketId(VALUE);
+    }
+
+    @Benchmark
+    public String pbkdf2Hash() throws Exception {
+        return EncryptUtil.hashFrom("p@ssw0rd");
+    }
+
+    @Benchmark
+    public boolean pbkdf2Validate() throws Exception {
+        return EncryptUtil.hashValidate("p@ssw0rd", passwordHash);
+    }
+
+    @Benchmark
+    public Long snowflake() {
+        return EncryptUtil.snowflakeGenerator();
+    }
+}
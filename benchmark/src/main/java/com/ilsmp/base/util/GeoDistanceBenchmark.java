@@ -0,0 +1,62 @@
+package com.ilsmp.base.util;
+
+import java.awt.geom.Point2D;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+ * Author: zhangjiahao04
+ * Description: StringUtil经纬度距离与点在多边形内判断的耗时,vertices为多边形顶点数
+ * Date: 2026/10/18 20:20
+ **/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GeoDistanceBenchmark {
+
+    @Param({"8", "256"})
+    private int vertices;
+
+    private List<Point2D.Double> polygon;
+    private final Point2D.Double inside = new Point2D.Double(116.40, 39.90);
+
+    @Setup
+    public void setup() {
+        polygon = new ArrayList<>();
+        for (int i = 0; i < vertices; i++) {
+            double angle = 2 * Math.PI * i / vertices;
+            polygon.add(new Point2D.Double(116.40 + 0.1 * Math.cos(angle), 39.90 + 0.1 * Math.sin(angle)));
+        }
+    }
+
+    @Benchmark
+    public double distance() {
+        return StringUtil.getDistance(116.397128, 39.916527, 121.473701, 31.230416);
+    }
+
+    @Benchmark
+    public double distanceFromString() {
+        return StringUtil.getDistance("116.397128,39.916527", "121.473701,31.230416");
+    }
+
+    @Benchmark
+    public boolean pointInPolygon() {
+        return StringUtil.IsPtInPoly(polygon, inside);
+    }
+}
@@ -0,0 +1,66 @@
+package com.ilsmp.base.util;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+ * Author: zhangjiahao04
+ * Description: JsonUtil读写map的耗时,items为列表元素个数
+ * Date: 2026/10/18 20:00
+ **/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonUtilBenchmark {
+
+    @Param({"1", "100"})
+    private int items;
+
+    private Map<String, Object> value;
+    private String json;
+
+    @Setup
+    public void setup() throws Exception {
+        value = new LinkedHashMap<>();
+        List<Map<String, Object>> list = new ArrayList<>();
+        for (int i = 0; i < items; i++) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("id", i);
+            item.put("name", "item-" + i);
+            item.put("price", i * 1.5);
+            item.put("enabled", i % 2 == 0);
+            list.add(item);
+        }
+        value.put("tenantId", 10001);
+        value.put("items", list);
+        json = JsonUtil.writeJsonStr(value);
+    }
+
+    @Benchmark
+    public String write() throws Exception {
+        return JsonUtil.writeJsonStr(value);
+    }
+
+    @Benchmark
+    public Map read() throws Exception {
+        return JsonUtil.readValue(json, Map.class);
+    }
+}
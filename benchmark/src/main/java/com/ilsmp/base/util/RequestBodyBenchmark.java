@@ -0,0 +1,75 @@
+package com.ilsmp.base.util;
+
+import javax.servlet.http.HttpServletRequest;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+import com.ilsmp.base.benchmark.MockRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+ * Author: zhangjiahao04
+ * Description: 请求体经RequestWrapper缓存后由ServletUtil取原文和解析结果的耗时,包含包装、读取、解码、解析和归还缓冲区
+ * Date: 2026/10/18 20:05
+ **/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequestBodyBenchmark {
+
+    @Param({"256", "16384"})
+    private int bodySize;
+
+    private byte[] body;
+
+    @Setup
+    public void setup() {
+        StringBuilder builder = new StringBuilder("{\"items\":[");
+        int i = 0;
+        while (builder.length() < bodySize - 40) {
+            builder.append(i == 0 ? "" : ",").append("{\"id\":").append(i).append(",\"name\":\"n").append(i)
+                    .append("\"}");
+            i++;
+        }
+        builder.append("]}");
+        body = builder.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public String bodyString() throws Exception {
+        RequestWrapper wrapper = new RequestWrapper(request());
+        try {
+            return ServletUtil.getRequestBodyString(wrapper);
+        } finally {
+            wrapper.release();
+        }
+    }
+
+    @Benchmark
+    public Object parsedBody() throws Exception {
+        RequestWrapper wrapper = new RequestWrapper(request());
+        try {
+            return ServletUtil.getRequestBody(wrapper);
+        } finally {
+            wrapper.release();
+        }
+    }
+
+    private HttpServletRequest request() {
+        return MockRequest.of("/api/v1/items", new HashMap<>(), body, "application/json");
+    }
+}
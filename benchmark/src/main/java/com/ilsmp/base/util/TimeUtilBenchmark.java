@@ -0,0 +1,61 @@
+package com.ilsmp.base.util;
+
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+ * Author: zhangjiahao04
+ * Description: TimeUtil常用格式化与解析的耗时
+ * Date: 2026/10/18 20:15
+ **/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TimeUtilBenchmark {
+
+    private final Timestamp timestamp = new Timestamp(1760000000000L);
+
+    @Benchmark
+    public String currentTime() {
+        return TimeUtil.obtainCurrentTime();
+    }
+
+    @Benchmark
+    public String currentTimeNum() {
+        return TimeUtil.obtainCurrentTimeNum();
+    }
+
+    @Benchmark
+    public String timestampToString() {
+        return TimeUtil.timestamp2str(timestamp);
+    }
+
+    @Benchmark
+    public Date parseDateTime() {
+        return TimeUtil.stringToDateTime("2025-10-09 17:33:20");
+    }
+
+    @Benchmark
+    public Date parseDate() {
+        return TimeUtil.stringToDate("2025-10-09");
+    }
+
+    @Benchmark
+    public Timestamp parseTimestamp() {
+        return TimeUtil.str2timestamp("2025-10-09 17:33:20.123");
+    }
+}
@@ -1,16 +1,26 @@
 package com.ilsmp.base;
 
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.ilsmp.base.util.CachedClock;
 import com.ilsmp.base.util.EncryptUtil;
+import com.ilsmp.base.util.ExecutorUtil;
 import com.ilsmp.base.util.JsonUtil;
 import com.ilsmp.base.util.ServletUtil;
-import com.ilsmp.base.util.TimeUtil;
-import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
@@ -29,19 +39,30 @@ import org.springframework.data.annotation.LastModifiedDate;
 @Slf4j
 public class AutoValueHandler {
 
-    private static volatile ThreadLocal<Integer> tryNum = new ThreadLocal<>();
+    private static final String EXECUTOR_NAME = "auto-value";
+    private static final ThreadLocal<Integer> tryNum = ThreadLocal.withInitial(() -> 0);
+    private static final ClassValue<Metadata> METADATA = new ClassValue<Metadata>() {
+        @Override
+        protected Metadata computeValue(Class<?> type) {
+            return new Metadata(type);
+        }
+    };
 
     @Value("${spring.base.user-id:user-id}")
     private String userId;
+    @Value("${spring.base.repository-log:false}")
+    private Boolean repositoryLog;
+    @Value("${spring.base.repository-log-limit:2048}")
+    private Integer repositoryLogLimit;
+    @Value("${spring.base.parallel-save-threshold:0}")
+    private Integer parallelSaveThreshold;
+    @Value("${spring.base.parallel-save-chunk:1000}")
+    private Integer parallelSaveChunk;
 
     @Around("execution(* org.springframework.data.repository.Repository+.update*(..))")
     public Object invoked(ProceedingJoinPoint joinPoint) throws Throwable {
         List<Object> list = Arrays.asList(joinPoint.getArgs());
-        try {
-            log.info("入库update拦截参数：{}", JsonUtil.writeJsonStr(list));
-        } catch (JsonProcessingException e) {
-            log.error("入库update拦截参数", e);
-        }
+        logArgs("update", list);
         return activeAutoValue(joinPoint, list, false);
     }
 
@@ -52,30 +73,75 @@ public class AutoValueHandler {
     @Around("execution(* org.springframework.data.repository.Repository+.save*(..))")
     private Object autoValue(ProceedingJoinPoint joinPoint) {
         List<Object> list = Arrays.asList(joinPoint.getArgs());
+        logArgs("save", list);
+        return activeAutoValue(joinPoint, list, true);
+    }
+
+    /*
+     * Author: zhangjiahao04
+     * Description: 打印入库拦截参数,默认关闭;开启后逐个序列化参数(集合逐个元素),
+     * 超过repositoryLogLimit个字符后不再序列化剩余参数,只记录剩余条数
+     * Date: 2026/10/18 21:40
+     * Param: [type, list]
+     * return: void
+     **/
+    private void logArgs(String type, List<Object> list) {
+        if (!Boolean.TRUE.equals(repositoryLog) || !log.isInfoEnabled()) {
+            return;
+        }
+        int limit = repositoryLogLimit == null ? 2048 : repositoryLogLimit;
+        StringBuilder builder = new StringBuilder(Math.min(limit, 256) + 32);
+        int skipped = 0;
+        for (Object arg : list) {
+            if (arg instanceof Collection) {
+                Collection<?> items = (Collection<?>) arg;
+                builder.append("[size=").append(items.size()).append(' ');
+                for (Object item : items) {
+                    if (builder.length() < limit) {
+                        appendJson(builder, item);
+                        builder.append(',');
+                    } else {
+                        skipped++;
+                    }
+                }
+                builder.append("] ");
+            } else if (builder.length() < limit) {
+                appendJson(builder, arg);
+                builder.append(' ');
+            } else {
+                skipped++;
+            }
+        }
+        if (builder.length() > limit) {
+            builder.setLength(limit);
+            builder.append("...");
+        }
+        if (skipped > 0) {
+            builder.append(" 省略").append(skipped).append("项");
+        }
+        log.info("入库{}拦截参数：{}", type, builder);
+    }
+
+    private static void appendJson(StringBuilder builder, Object value) {
         try {
-            log.info("入库save拦截参数：{}", JsonUtil.writeJsonStr(list));
+            builder.append(JsonUtil.writeJsonStr(value));
         } catch (JsonProcessingException e) {
-            log.error("入库save拦截参数", e);
+            builder.append(value == null ? null : value.getClass().getName());
         }
-        return activeAutoValue(joinPoint, list, true);
     }
 
     private Object activeAutoValue(ProceedingJoinPoint joinPoint, List<Object> list, Boolean isSave) {
         list.forEach(arg -> {
             if (arg instanceof List && ((List) arg).size() > 0) {
-                long updateVersion = System.currentTimeMillis();
-                ((List) arg).forEach(item -> {
-                    if (item instanceof BaseEntityVersion) {
-                        getAnnotation(item, updateVersion, isSave);
-                    }
-                });
+                fillAll((List<?>) arg, CachedClock.millis(), isSave);
             } else if (arg instanceof BaseEntityVersion) {
-                getAnnotation(arg, System.currentTimeMillis(), isSave);
+                getAnnotation(arg, CachedClock.millis(), isSave);
             }
         });
         Object obj = null;
         try {
             obj = joinPoint.proceed();
+            tryNum.set(0);
         } catch (Throwable throwable) {
             if (tryNum.get() > 2) {
                 tryNum.set(0);
@@ -89,81 +155,281 @@ public class AutoValueHandler {
         return obj;
     }
 
-    @SneakyThrows
+    /*
+     * Author: zhangjiahao04
+     * Description: 批量填充,同一批实体使用同一个updateVersion和修改时间;
+     * 数量达到parallelSaveThreshold(大于0时)且支持随机访问的列表按parallelSaveChunk分块并行填充,调用线程处理第一块
+     * Date: 2026/10/18 22:00
+     * Param: [items, updateVersion, isSave]
+     * return: void
+     **/
+    private void fillAll(List<?> items, long updateVersion, Boolean isSave) {
+        Stamp stamp = new Stamp(updateVersion, isSave);
+        int size = items.size();
+        int threshold = parallelSaveThreshold == null ? 0 : parallelSaveThreshold;
+        if (threshold <= 0 || size < threshold || !(items instanceof RandomAccess)) {
+            fillRange(items, 0, size, stamp);
+            return;
+        }
+        // 修改人只能在请求线程上获取,分发前先取好
+        stamp.resolve(items);
+        int chunk = Math.max(1, parallelSaveChunk == null ? 1000 : parallelSaveChunk);
+        ForkJoinPool pool = ExecutorUtil.getInstance().getForkJoinPool(EXECUTOR_NAME);
+        List<ForkJoinTask<?>> tasks = new ArrayList<>(size / chunk);
+        for (int start = chunk; start < size; start += chunk) {
+            int from = start;
+            int to = Math.min(size, start + chunk);
+            tasks.add(pool.submit(() -> fillRange(items, from, to, stamp)));
+        }
+        fillRange(items, 0, Math.min(size, chunk), stamp);
+        for (ForkJoinTask<?> task : tasks) {
+            task.join();
+        }
+    }
+
+    private void fillRange(List<?> items, int from, int to, Stamp stamp) {
+        for (int i = from; i < to; i++) {
+            Object item = items.get(i);
+            if (item instanceof BaseEntityVersion) {
+                fill(item, stamp);
+            }
+        }
+    }
+
     private void getAnnotation(Object bean, long updateVersion, Boolean isSave) {
+        fill(bean, new Stamp(updateVersion, isSave));
+    }
+
+    private void fill(Object bean, Stamp stamp) {
+        Metadata metadata = METADATA.get(bean.getClass());
+        if (!stamp.isSave) {
+            // 更新
+            if (!metadata.lastModifiedDate.isEmpty()) {
+                long millis = stamp.millis();
+                for (FieldAccessor accessor : metadata.lastModifiedDate) {
+                    // Timestamp可变,每个字段单独一份
+                    accessor.set(bean, new Timestamp(millis));
+                }
+            }
+            if (!metadata.lastModifiedBy.isEmpty() && stamp.resolveUser()) {
+                for (FieldAccessor accessor : metadata.lastModifiedBy) {
+                    accessor.set(bean, stamp.user);
+                }
+            }
+            return;
+        }
+        long updateVersion = stamp.updateVersion;
+        for (FieldAccessor accessor : metadata.versions) {
+            // 设置AutoValue注解字段值
+            accessor.set(bean, updateVersion);
+        }
+        for (FieldAccessor[] pair : metadata.codes) {
+            // 设置AutoValue注解的field的值的crc32编码设置AutoValue注解的value的值对应的field字段值
+            try {
+                Object property = pair[0].get(bean);
+                if (property == null) {
+                    continue;
+                }
+                Object targetValue = pair[1].get(bean);
+                if (targetValue != null && !stamp.overwrite) {
+                    continue;
+                }
+                EncryptUtil.Crc32Hasher hasher = EncryptUtil.crc32Hasher();
+                putJson(hasher, property);
+                if (targetValue != null) {
+                    putJson(hasher, targetValue);
+                }
+                pair[1].set(bean, hasher.getValue());
+            } catch (Throwable e) {
+                log.error("AutoValue注解生成code失败！", e);
+            }
+        }
+    }
+
+    /*
+     * Author: zhangjiahao04
+     * Description: 一次save/update调用共用的填充值,修改时间和修改人在第一次用到时获取
+     * Date: 2026/10/18 22:00
+     **/
+    private final class Stamp {
+        private final long updateVersion;
+        private final boolean isSave;
         /**
-         * 利用Java反射机制注入属性
+         * 重试时覆盖已有的code
          */
-        Class<?> aClass = bean.getClass();
-        List<Field> fields = new ArrayList<>(Arrays.asList(aClass.getDeclaredFields()));
-        while (!BaseEntityVersion.class.equals(aClass)) {
-            aClass = aClass.getSuperclass();
-            fields.addAll(Arrays.asList(aClass.getDeclaredFields()));
-        }
-        for (Field field : fields) {
-            field.setAccessible(true);
-            if (!isSave) {
-                // 更新
-                LastModifiedDate lastModifiedDate = field.getAnnotation(LastModifiedDate.class);
-                if (lastModifiedDate != null) {
-                    fieldSet(field, bean, TimeUtil.obtainCurrentTimestamp());
-                }
-                LastModifiedBy lastModifiedBy = field.getAnnotation(LastModifiedBy.class);
-                if (lastModifiedBy != null) {
-                    fieldSet(field, bean, ServletUtil.getRequestObject(userId));
-                }
-                field.setAccessible(false);
-            } else {
+        private final boolean overwrite = tryNum.get() >= 2;
+        private long millis;
+        private Object user;
+        private boolean userResolved;
+        private boolean userFailed;
+
+        private Stamp(long updateVersion, Boolean isSave) {
+            this.updateVersion = updateVersion;
+            this.isSave = Boolean.TRUE.equals(isSave);
+        }
+
+        private long millis() {
+            if (millis == 0) {
+                millis = CachedClock.millis();
+            }
+            return millis;
+        }
+
+        private boolean resolveUser() {
+            if (!userResolved) {
+                try {
+                    user = ServletUtil.getRequestObject(userId);
+                } catch (IOException e) {
+                    log.error("AutoValue获取当前用户失败！", e);
+                    userFailed = true;
+                }
+                userResolved = true;
+            }
+            return !userFailed;
+        }
+
+        /**
+         * 并行填充前在调用线程上取好修改时间和修改人
+         */
+        private void resolve(List<?> items) {
+            if (isSave) {
+                return;
+            }
+            millis();
+            for (Object item : items) {
+                if (item instanceof BaseEntityVersion && !METADATA.get(item.getClass()).lastModifiedBy.isEmpty()) {
+                    resolveUser();
+                    return;
+                }
+            }
+        }
+    }
+
+    /*
+     * Author: zhangjiahao04
+     * Description: 按值的json字符串写入crc32,与之前crc32FromStr(json拼接)生成的code保持一致;
+     * 字符串、整数、布尔直接写入,需要转义的字符串和其他类型仍走json序列化
+     * Date: 2026/10/18 21:40
+     * Param: [hasher, value]
+     * return: void
+     **/
+    private static void putJson(EncryptUtil.Crc32Hasher hasher, Object value) throws JsonProcessingException {
+        if (value instanceof String && !needsEscape((String) value)) {
+            hasher.putChar('"').putString((String) value).putChar('"');
+        } else if (value instanceof Long || value instanceof Integer || value instanceof Short
+                || value instanceof Byte) {
+            hasher.putDecimal(((Number) value).longValue());
+        } else if (value instanceof Boolean) {
+            hasher.putString(value.toString());
+        } else {
+            hasher.putString(JsonUtil.writeJsonStr(value));
+        }
+    }
+
+    private static boolean needsEscape(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x20 || c == '"' || c == '\\') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /*
+     * Author: zhangjiahao04
+     * Description: 实体类的自动赋值字段,每个类只在第一次保存时反射解析一次,之后按缓存的MethodHandle直接读写字段
+     * Date: 2026/10/18 21:20
+     **/
+    private static final class Metadata {
+        private final List<FieldAccessor> lastModifiedDate = new ArrayList<>();
+        private final List<FieldAccessor> lastModifiedBy = new ArrayList<>();
+        private final List<FieldAccessor> versions = new ArrayList<>();
+        /**
+         * [AutoValue注解字段, value指定的目标字段]
+         */
+        private final List<FieldAccessor[]> codes = new ArrayList<>();
+
+        private Metadata(Class<?> type) {
+            /**
+             * 利用Java反射机制注入属性
+             */
+            List<Field> fields = new ArrayList<>(Arrays.asList(type.getDeclaredFields()));
+            Class<?> aClass = type;
+            while (aClass != null && !BaseEntityVersion.class.equals(aClass)) {
+                aClass = aClass.getSuperclass();
+                if (aClass != null) {
+                    fields.addAll(Arrays.asList(aClass.getDeclaredFields()));
+                }
+            }
+            for (Field field : fields) {
+                if (Modifier.isStatic(field.getModifiers())) {
+                    continue;
+                }
+                if (field.isAnnotationPresent(LastModifiedDate.class)) {
+                    lastModifiedDate.add(new FieldAccessor(field));
+                }
+                if (field.isAnnotationPresent(LastModifiedBy.class)) {
+                    lastModifiedBy.add(new FieldAccessor(field));
+                }
                 AutoValue annotation = field.getAnnotation(AutoValue.class);
-                if (annotation != null) {
-                    String fieldName = annotation.value();
-                    String property;
-                    if ("".equals(fieldName)) {
-                        // 设置AutoValue注解字段值
-                        fieldSet(field, bean, updateVersion);
-                    } else {
-                        // 设置AutoValue注解的field的值的crc32编码设置AutoValue注解的value的值对应的field字段值
-                        try {
-                            property = JsonUtil.writeJsonStr(field.get(bean));
-                            if (property == null || property.equals("null")) {
-                                return;
-                            }
-                            Field targetField = bean.getClass().getDeclaredField(fieldName);
-                            targetField.setAccessible(true);
-                            String targetValue = JsonUtil.writeJsonStr(targetField.get(bean));
-                            if (targetValue != null && !"null".equals(targetValue) && tryNum.get() < 2) {
-                                return;
-                            } else {
-                                if (targetValue == null || targetValue.equals("null")) {
-                                    targetValue = "";
-                                }
-                            }
-                            long fieldCode = EncryptUtil.crc32FromStr(property + targetValue);
-                            field.setAccessible(false);
-                            field = targetField;
-                            // 设置值
-                            fieldSet(field, bean, fieldCode);
-                        } catch (Exception e) {
-                            log.error("AutoValue注解生成code失败！", e);
-                        }
-                    }
+                if (annotation == null) {
+                    continue;
+                }
+                if ("".equals(annotation.value())) {
+                    versions.add(new FieldAccessor(field));
+                    continue;
+                }
+                Field target = findField(fields, annotation.value());
+                if (target == null) {
+                    log.error("AutoValue注解字段{}.{}指定的字段{}不存在", type.getName(), field.getName(),
+                            annotation.value());
+                } else {
+                    codes.add(new FieldAccessor[]{new FieldAccessor(field), new FieldAccessor(target)});
                 }
             }
+        }
 
+        private static Field findField(List<Field> fields, String name) {
+            for (Field field : fields) {
+                if (field.getName().equals(name)) {
+                    return field;
+                }
+            }
+            return null;
         }
     }
 
-    private void fieldSet(Field field, Object bean, Object fieldValue) {
-        try {
-            if (field.getType().equals(String.class)) {
-                field.set(bean, String.valueOf(fieldValue));
-            } else {
-                field.set(bean, fieldValue);
+    private static final class FieldAccessor {
+        private final Field field;
+        private final boolean string;
+        private final MethodHandle getter;
+        private final MethodHandle setter;
+
+        private FieldAccessor(Field field) {
+            this.field = field;
+            this.string = field.getType().equals(String.class);
+            try {
+                field.setAccessible(true);
+                MethodHandles.Lookup lookup = MethodHandles.lookup();
+                this.getter = lookup.unreflectGetter(field).asType(MethodType.methodType(Object.class, Object.class));
+                this.setter = lookup.unreflectSetter(field)
+                        .asType(MethodType.methodType(void.class, Object.class, Object.class));
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException("AutoValue无法访问字段" + field, e);
+            }
+        }
+
+        private Object get(Object bean) throws Throwable {
+            return getter.invokeExact(bean);
+        }
+
+        private void set(Object bean, Object fieldValue) {
+            try {
+                setter.invokeExact(bean, string ? (Object) String.valueOf(fieldValue) : fieldValue);
+            } catch (Throwable e) {
+                log.error("AutoValue设置属性值失败！{}", field, e);
             }
-        } catch (IllegalAccessException e) {
-            log.error("AutoValue设置属性值失败！", e);
-        } finally {
-            field.setAccessible(false);
         }
     }
 
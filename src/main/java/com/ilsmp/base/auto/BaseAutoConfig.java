@@ -1,7 +1,13 @@
 package com.ilsmp.base.auto;
 
+import javax.annotation.PostConstruct;
 import javax.annotation.Resource;
 
+import com.ilsmp.base.util.AccessLogger;
+import com.ilsmp.base.util.AsyncRestTemplateUtil;
+import com.ilsmp.base.util.CachedClock;
+import com.ilsmp.base.util.ExecutorUtil;
+import com.ilsmp.base.util.RestTemplateUtil;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.FilterType;
@@ -17,4 +23,13 @@ import org.springframework.stereotype.Component;
 public class BaseAutoConfig {
     @Resource
     private BaseProperties baseProperties;
+
+    @PostConstruct
+    public void init() {
+        ExecutorUtil.getInstance().configure(baseProperties.getExecutor(), baseProperties.getExecutors());
+        RestTemplateUtil.configure(baseProperties.getHttp());
+        AsyncRestTemplateUtil.configure(baseProperties.getHttp());
+        AccessLogger.configure(baseProperties.getAccessLog());
+        CachedClock.configure(baseProperties.getClock());
+    }
 }
@@ -1,5 +1,12 @@
 package com.ilsmp.base.auto;
 
+import java.util.HashMap;
+import java.util.Map;
+
+import com.ilsmp.base.util.AccessLogger;
+import com.ilsmp.base.util.CachedClock;
+import com.ilsmp.base.util.ExecutorUtil;
+import com.ilsmp.base.util.RestTemplateUtil;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
@@ -116,4 +123,94 @@ public class BaseProperties {
      * return:
      **/
     private Boolean multiDb;
+
+    /*
+     * Author: zhangjiahao04
+     * Description: 请求体最大缓存字节数,超过后请求体直通读取不缓存
+     * Date: 2026/10/18 16:40
+     * Param:
+     * return:
+     **/
+    private Integer bodyCacheLimit;
+
+    /*
+     * Author: zhangjiahao04
+     * Description: ExecutorUtil线程池默认配置(线程数、队列容量、拒绝策略)
+     * Date: 2026/10/18 10:30
+     * Param:
+     * return:
+     **/
+    private ExecutorUtil.PoolConfig executor = new ExecutorUtil.PoolConfig();
+
+    /*
+     * Author: zhangjiahao04
+     * Description: ExecutorUtil按线程池名称的单独配置,未配置项使用executor默认配置
+     * Date: 2026/10/18 10:30
+     * Param:
+     * return:
+     **/
+    private Map<String, ExecutorUtil.PoolConfig> executors = new HashMap<>();
+
+    /*
+     * Author: zhangjiahao04
+     * Description: RestTemplateUtil的http客户端配置(连接池、超时时间)
+     * Date: 2026/10/18 13:20
+     * Param:
+     * return:
+     **/
+    private RestTemplateUtil.HttpConfig http = new RestTemplateUtil.HttpConfig();
+
+    /*
+     * Author: zhangjiahao04
+     * Description: 访问日志配置(采样、路径过滤、请求体截断、请求头脱敏)
+     * Date: 2026/10/18 17:40
+     * Param:
+     * return:
+     **/
+    private AccessLogger.AccessLogConfig accessLog = new AccessLogger.AccessLogConfig();
+
+    /*
+     * Author: zhangjiahao04
+     * Description: 缓存时钟配置,启用后TimeUtil、AutoValueHandler和jpa审计时间取自后台刷新的时钟
+     * Date: 2026/10/18 21:00
+     * Param:
+     * return:
+     **/
+    private CachedClock.ClockConfig clock = new CachedClock.ClockConfig();
+
+    /*
+     * Author: zhangjiahao04
+     * Description: 是否打印repository save/update拦截的入库参数
+     * Date: 2026/10/18 21:40
+     * Param:
+     * return:
+     **/
+    private Boolean repositoryLog;
+
+    /*
+     * Author: zhangjiahao04
+     * Description: 入库参数日志最大字符数,超过后剩余参数不再序列化
+     * Date: 2026/10/18 21:40
+     * Param:
+     * return:
+     **/
+    private Integer repositoryLogLimit;
+
+    /*
+     * Author: zhangjiahao04
+     * Description: save/update列表数量达到该值时分块并行填充AutoValue和审计字段,0为不并行
+     * Date: 2026/10/18 22:00
+     * Param:
+     * return:
+     **/
+    private Integer parallelSaveThreshold;
+
+    /*
+     * Author: zhangjiahao04
+     * Description: 并行填充时每块的实体数量
+     * Date: 2026/10/18 22:00
+     * Param:
+     * return:
+     **/
+    private Integer parallelSaveChunk;
 }
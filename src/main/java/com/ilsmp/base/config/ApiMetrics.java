@@ -0,0 +1,138 @@
+package com.ilsmp.base.config;
+
+import javax.servlet.http.HttpServletRequest;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.web.method.HandlerMethod;
+
+/*
+ * Author: zhangjiahao04
+ * Description: 按处理方法和接口版本(@WebApiVersion,方法上的优先于类上的)统计请求数、错误数、处理中请求数和耗时分布。
+ * 计数使用LongAdder分段累加,请求线程上只有一次map查找和几次累加;指标同时注册到Metrics全局注册表
+ * Date: 2026/10/18 18:50
+ **/
+public final class ApiMetrics {
+
+    public static final String METRIC_PREFIX = "api.handler";
+    private static final String STATS_ATTRIBUTE = ApiMetrics.class.getName() + ".STATS";
+    private static final Map<Method, Stats> STATS = new ConcurrentHashMap<>();
+
+    private ApiMetrics() {
+    }
+
+    /**
+     * 请求开始,handler不是HandlerMethod(如静态资源)时不统计
+     */
+    public static void start(HttpServletRequest request, Object handler) {
+        if (!(handler instanceof HandlerMethod) || request.getAttribute(STATS_ATTRIBUTE) != null) {
+            return;
+        }
+        HandlerMethod handlerMethod = (HandlerMethod) handler;
+        Stats stats = STATS.get(handlerMethod.getMethod());
+        if (stats == null) {
+            stats = STATS.computeIfAbsent(handlerMethod.getMethod(), method -> new Stats(handlerMethod));
+        }
+        stats.inFlight.increment();
+        request.setAttribute(STATS_ATTRIBUTE, stats);
+    }
+
+    /**
+     * 请求结束,5xx或处理异常计为错误
+     */
+    public static void stop(HttpServletRequest request, int status, long durationNanos, Exception ex) {
+        Object stats = request.getAttribute(STATS_ATTRIBUTE);
+        if (stats instanceof Stats) {
+            request.removeAttribute(STATS_ATTRIBUTE);
+            ((Stats) stats).record(durationNanos, ex != null || status >= 500);
+        }
+    }
+
+    /**
+     * 全部已统计的处理方法
+     */
+    public static Map<Method, Stats> getStats() {
+        return Collections.unmodifiableMap(STATS);
+    }
+
+    public static final class Stats {
+        private final String handler;
+        private final String version;
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder inFlight = new LongAdder();
+        private final Timer timer;
+
+        private Stats(HandlerMethod handlerMethod) {
+            Method method = handlerMethod.getMethod();
+            this.handler = handlerMethod.getBeanType().getSimpleName() + "#" + method.getName();
+            WebApiVersion apiVersion = AnnotatedElementUtils.findMergedAnnotation(method, WebApiVersion.class);
+            if (apiVersion == null) {
+                apiVersion = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getBeanType(),
+                        WebApiVersion.class);
+            }
+            this.version = apiVersion == null ? "none" : "v" + apiVersion.value();
+            Tags tags = Tags.of("handler", handler, "version", version);
+            this.timer = Timer.builder(METRIC_PREFIX + ".latency")
+                    .description("处理方法耗时")
+                    .tags(tags)
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(Metrics.globalRegistry);
+            FunctionCounter.builder(METRIC_PREFIX + ".requests", requests, LongAdder::sum)
+                    .description("处理方法请求数")
+                    .tags(tags)
+                    .register(Metrics.globalRegistry);
+            FunctionCounter.builder(METRIC_PREFIX + ".errors", errors, LongAdder::sum)
+                    .description("处理方法错误数(5xx或异常)")
+                    .tags(tags)
+                    .register(Metrics.globalRegistry);
+            Gauge.builder(METRIC_PREFIX + ".inflight", inFlight, LongAdder::sum)
+                    .description("处理方法正在处理的请求数")
+                    .tags(tags)
+                    .register(Metrics.globalRegistry);
+        }
+
+        private void record(long durationNanos, boolean error) {
+            inFlight.decrement();
+            requests.increment();
+            if (error) {
+                errors.increment();
+            }
+            timer.record(durationNanos, TimeUnit.NANOSECONDS);
+        }
+
+        public String getHandler() {
+            return handler;
+        }
+
+        public String getVersion() {
+            return version;
+        }
+
+        public long getRequests() {
+            return requests.sum();
+        }
+
+        public long getErrors() {
+            return errors.sum();
+        }
+
+        public long getInFlight() {
+            return inFlight.sum();
+        }
+
+        public Timer getTimer() {
+            return timer;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.ilsmp.base.config;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+/*
+ * Author: zhangjiahao04
+ * Description: 接口统计端点 /actuator/apis,按处理方法和接口版本输出请求数、错误数、处理中请求数和耗时分位值,
+ * 需在management.endpoints.web.exposure.include中开放apis
+ * Date: 2026/10/18 19:00
+ **/
+@Component
+@Endpoint(id = "apis")
+public class ApiMetricsEndpoint {
+
+    @ReadOperation
+    public Map<String, Map<String, Object>> apis() {
+        Map<String, Map<String, Object>> result = new TreeMap<>();
+        ApiMetrics.getStats().values().forEach(stats -> result.put(key(stats), snapshot(stats)));
+        return result;
+    }
+
+    @ReadOperation
+    public Map<String, Map<String, Object>> api(@Selector String handler) {
+        Map<String, Map<String, Object>> result = new TreeMap<>();
+        ApiMetrics.getStats().values().stream()
+                .filter(stats -> stats.getHandler().equals(handler) || key(stats).equals(handler))
+                .forEach(stats -> result.put(key(stats), snapshot(stats)));
+        return result;
+    }
+
+    private static String key(ApiMetrics.Stats stats) {
+        return stats.getHandler() + "@" + stats.getVersion();
+    }
+
+    private Map<String, Object> snapshot(ApiMetrics.Stats stats) {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        long requests = stats.getRequests();
+        long errors = stats.getErrors();
+        snapshot.put("handler", stats.getHandler());
+        snapshot.put("version", stats.getVersion());
+        snapshot.put("requests", requests);
+        snapshot.put("errors", errors);
+        snapshot.put("errorRate", requests == 0 ? 0.0 : (double) errors / requests);
+        snapshot.put("inFlight", stats.getInFlight());
+        HistogramSnapshot histogram = stats.getTimer().takeSnapshot();
+        Map<String, Object> latency = new LinkedHashMap<>();
+        latency.put("count", histogram.count());
+        latency.put("meanMs", histogram.mean(TimeUnit.MILLISECONDS));
+        latency.put("maxMs", histogram.max(TimeUnit.MILLISECONDS));
+        for (ValueAtPercentile percentile : histogram.percentileValues()) {
+            latency.put("p" + Math.round(percentile.percentile() * 100) + "Ms",
+                    percentile.value(TimeUnit.MILLISECONDS));
+        }
+        snapshot.put("latency", latency);
+        return snapshot;
+    }
+}
@@ -0,0 +1,108 @@
+package com.ilsmp.base.config;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import com.ilsmp.base.util.ExecutorUtil;
+import com.ilsmp.base.util.MonitoredThreadPoolExecutor;
+import com.ilsmp.base.util.VirtualThreadExecutor;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+/*
+ * Author: zhangjiahao04
+ * Description: ExecutorUtil线程池监控端点 /actuator/executors,
+ * 需在management.endpoints.web.exposure.include中开放executors
+ * Date: 2026/10/18 10:40
+ **/
+@Component
+@Endpoint(id = "executors")
+public class ExecutorEndpoint {
+
+    @ReadOperation
+    public Map<String, Map<String, Object>> executors() {
+        Map<String, Map<String, Object>> result = new LinkedHashMap<>();
+        ExecutorUtil.getInstance().getExecutors().forEach((name, executor) -> result.put(name, snapshot(executor)));
+        ExecutorUtil.getInstance().getVirtualExecutors().forEach((name, executor) -> result.put(name, snapshot(executor)));
+        ExecutorUtil.getInstance().getForkJoinPools().forEach((name, pool) -> result.put(name, snapshot(pool)));
+        return result;
+    }
+
+    @ReadOperation
+    public Map<String, Object> executor(@Selector String name) {
+        VirtualThreadExecutor virtualExecutor = ExecutorUtil.getInstance().getVirtualExecutors().get(name);
+        if (virtualExecutor != null) {
+            return snapshot(virtualExecutor);
+        }
+        ForkJoinPool forkJoinPool = ExecutorUtil.getInstance().getForkJoinPools().get(name);
+        if (forkJoinPool != null) {
+            return snapshot(forkJoinPool);
+        }
+        ThreadPoolExecutor executor = ExecutorUtil.getInstance().getExecutors().get(name);
+        return executor == null ? null : snapshot(executor);
+    }
+
+    private Map<String, Object> snapshot(ThreadPoolExecutor executor) {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("type", executor.getClass().getSimpleName());
+        snapshot.put("corePoolSize", executor.getCorePoolSize());
+        snapshot.put("maxPoolSize", executor.getMaximumPoolSize());
+        snapshot.put("poolSize", executor.getPoolSize());
+        snapshot.put("largestPoolSize", executor.getLargestPoolSize());
+        snapshot.put("activeThreads", executor.getActiveCount());
+        snapshot.put("queueSize", executor.getQueue().size());
+        snapshot.put("queueRemaining", executor.getQueue().remainingCapacity());
+        snapshot.put("completedTasks", executor.getCompletedTaskCount());
+        snapshot.put("shutdown", executor.isShutdown());
+        if (executor instanceof MonitoredThreadPoolExecutor) {
+            MonitoredThreadPoolExecutor monitored = (MonitoredThreadPoolExecutor) executor;
+            snapshot.put("rejectedTasks", monitored.getRejectedCount());
+            snapshot.put("taskWait", timer(monitored.getWaitTimer()));
+            snapshot.put("taskRun", timer(monitored.getRunTimer()));
+        }
+        return snapshot;
+    }
+
+    private Map<String, Object> snapshot(VirtualThreadExecutor executor) {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("type", executor.getClass().getSimpleName());
+        snapshot.put("concurrency", executor.getConcurrency());
+        snapshot.put("activeTasks", executor.getActiveCount());
+        snapshot.put("waitingTasks", executor.getWaitingCount());
+        snapshot.put("submittedTasks", executor.getSubmittedCount());
+        snapshot.put("completedTasks", executor.getCompletedCount());
+        snapshot.put("shutdown", executor.isShutdown());
+        snapshot.put("taskWait", timer(executor.getWaitTimer()));
+        snapshot.put("taskRun", timer(executor.getRunTimer()));
+        return snapshot;
+    }
+
+    private Map<String, Object> snapshot(ForkJoinPool pool) {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("type", pool.getClass().getSimpleName());
+        snapshot.put("parallelism", pool.getParallelism());
+        snapshot.put("poolSize", pool.getPoolSize());
+        snapshot.put("activeThreads", pool.getActiveThreadCount());
+        snapshot.put("runningThreads", pool.getRunningThreadCount());
+        snapshot.put("queuedTasks", pool.getQueuedTaskCount());
+        snapshot.put("queuedSubmissions", pool.getQueuedSubmissionCount());
+        snapshot.put("stealCount", pool.getStealCount());
+        snapshot.put("shutdown", pool.isShutdown());
+        return snapshot;
+    }
+
+    private Map<String, Object> timer(Timer timer) {
+        Map<String, Object> value = new LinkedHashMap<>();
+        value.put("count", timer.count());
+        value.put("meanMs", timer.mean(TimeUnit.MILLISECONDS));
+        value.put("maxMs", timer.max(TimeUnit.MILLISECONDS));
+        value.put("totalMs", timer.totalTime(TimeUnit.MILLISECONDS));
+        return value;
+    }
+}
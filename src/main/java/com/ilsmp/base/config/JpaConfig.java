@@ -31,6 +31,7 @@ import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.module.SimpleDeserializers;
 import com.fasterxml.jackson.databind.module.SimpleSerializers;
 import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.ilsmp.base.util.CachedClock;
 import com.ilsmp.base.util.JsonUtil;
 import com.ilsmp.base.util.ServletUtil;
 import io.swagger.annotations.ApiModel;
@@ -50,6 +51,7 @@ import org.springframework.core.convert.TypeDescriptor;
 import org.springframework.core.convert.converter.GenericConverter;
 import org.springframework.core.convert.support.DefaultConversionService;
 import org.springframework.core.convert.support.GenericConversionService;
+import org.springframework.data.auditing.DateTimeProvider;
 import org.springframework.data.domain.AuditorAware;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -65,7 +67,7 @@ import springfox.documentation.schema.AlternateTypeRuleConvention;
  */
 @Slf4j
 @Configuration
-@EnableJpaAuditing
+@EnableJpaAuditing(dateTimeProviderRef = "auditingDateTimeProvider")
 @EntityScan(basePackages = {"${spring.base.entity-scan:com.*.*}"})
 @SuppressWarnings("SpringJavaAutowiringInspection")
 public class JpaConfig implements AuditorAware<Object> {
@@ -84,6 +86,16 @@ public class JpaConfig implements AuditorAware<Object> {
         return Optional.of(ServletUtil.getRequestObject(userId));
     }
 
+    /**
+     * 审计时间取自CachedClock,启用后批量入库不再每行读取系统时钟
+     *
+     * @return DateTimeProvider
+     */
+    @Bean
+    public DateTimeProvider auditingDateTimeProvider() {
+        return () -> Optional.of(CachedClock.localDateTime());
+    }
+
     /*
      * Author: zhangjiahao04
      * Description: 处理nativeQuery等于true时只能使用接口类的get方法接收参数，使用实体类接收异常问题
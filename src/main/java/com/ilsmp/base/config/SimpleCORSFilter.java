@@ -39,6 +39,8 @@ public class SimpleCORSFilter implements Filter {
     private List<String> allowedHeaders;
     @Value("#{'${spring.base.allow-origin:*}'.split(',')}")
     private List<String> allowOrigins;
+    @Value("${spring.base.body-cache-limit:1048576}")
+    private Integer bodyCacheLimit;
 
     private static final String FORM_MULTIPART_TYPE = "multipart/form-data";
     private static final String FORM_WWW_TYPE = "application/x-www-form-urlencoded";
@@ -63,8 +65,14 @@ public class SimpleCORSFilter implements Filter {
                         (contentType.contains(FORM_MULTIPART_TYPE) || contentType.contains(FORM_WWW_TYPE))) {
                     filterChain.doFilter(request, response);
                 } else {
-                    RequestWrapper requestWrapper = new RequestWrapper(request);
-                    filterChain.doFilter(requestWrapper, response);
+                    RequestWrapper requestWrapper = new RequestWrapper(request, bodyCacheLimit);
+                    try {
+                        filterChain.doFilter(requestWrapper, response);
+                    } finally {
+                        if (!request.isAsyncStarted()) {
+                            requestWrapper.release();
+                        }
+                    }
                 }
             }
         } else {
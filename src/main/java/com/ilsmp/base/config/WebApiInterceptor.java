@@ -3,16 +3,15 @@ package com.ilsmp.base.config;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
-import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
 
-import com.ilsmp.base.util.ServletUtil;
-import com.ilsmp.base.util.TimeUtil;
+import com.ilsmp.base.util.AccessLogger;
+import com.ilsmp.base.util.RequestIdGenerator;
 import com.sun.istack.NotNull;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.MDC;
 import org.springframework.web.servlet.HandlerInterceptor;
 import org.springframework.web.servlet.ModelAndView;
-import org.springframework.web.util.ContentCachingRequestWrapper;
 
 /**
  * 我们在提供 API 的时候，经常需要对 API 进行统一的拦截，比如进行接口的安全性校验。创建一个拦截器类：WebApiInterceptor，并实现 HandlerInterceptor 接口
@@ -20,6 +19,17 @@ import org.springframework.web.util.ContentCachingRequestWrapper;
 @Slf4j
 public class WebApiInterceptor implements HandlerInterceptor {
 
+    /**
+     * 请求开始时间(System.nanoTime)的request属性
+     */
+    public static final String START_ATTRIBUTE = WebApiInterceptor.class.getName() + ".START";
+    /**
+     * 请求id的request属性
+     */
+    public static final String REQUEST_ID_ATTRIBUTE = WebApiInterceptor.class.getName() + ".REQUEST_ID";
+    public static final String REQUEST_ID_HEADER = "request-id";
+    private static final int MAX_REQUEST_ID_LENGTH = 64;
+
     /**
      * 请求之前
      *
@@ -34,32 +44,51 @@ public class WebApiInterceptor implements HandlerInterceptor {
     @Override
     public boolean preHandle(HttpServletRequest httpServletRequest, HttpServletResponse httpServletResponse,
                              @NotNull Object o) throws Exception {
-        System.out.println("进入拦截器,请求之前");
-        long start = System.currentTimeMillis();
-
-        // 打印参数
-        printHeaderAndBody(httpServletRequest, httpServletResponse);
+        httpServletRequest.setAttribute(START_ATTRIBUTE, System.nanoTime());
+        addRequestId(httpServletRequest, httpServletResponse);
+        // 采样判断在请求开始时完成,日志内容在请求完成后异步写出
+        AccessLogger.isSampled(httpServletRequest);
+        ApiMetrics.start(httpServletRequest, o);
         return true;
     }
 
-    private void printHeaderAndBody(HttpServletRequest httpServletRequest, HttpServletResponse httpServletResponse) throws Exception {
-        // 添加请求id
-        String requestId = TimeUtil.obtainCurrentTimeNum() + "_"
-                + httpServletRequest.getRemoteAddr() + "_"
-                + httpServletRequest.getRemoteUser() + "_"
-                + httpServletRequest.getMethod() + "_"
-                + httpServletRequest.getRequestURI() + "_"
-                + UUID.randomUUID();
-        httpServletResponse.addHeader("request-id", requestId);
-        MDC.put("request-id", requestId);
+    private void addRequestId(HttpServletRequest httpServletRequest, HttpServletResponse httpServletResponse) {
+        // 添加请求id,上游已传递且格式合法时沿用,便于跨服务追踪
+        String requestId = httpServletRequest.getHeader(REQUEST_ID_HEADER);
+        if (!isValidRequestId(requestId)) {
+            requestId = nextRequestId();
+        }
+        httpServletResponse.addHeader(REQUEST_ID_HEADER, requestId);
+        httpServletRequest.setAttribute(REQUEST_ID_ATTRIBUTE, requestId);
+        MDC.put(REQUEST_ID_HEADER, requestId);
+    }
 
-        // 打印参数
-        if (httpServletRequest instanceof ContentCachingRequestWrapper) {
-            ContentCachingRequestWrapper requestWrapper = (ContentCachingRequestWrapper) httpServletRequest;
-            log.info("\n===header:" + ServletUtil.getRequestHeaderString(requestWrapper)
-                    + "\n===param:" + ServletUtil.getRequestParamString(requestWrapper)
-                    + "\n===body:" + ServletUtil.getRequestBodyString(requestWrapper));
+    /**
+     * 时钟回拨超过雪花算法容忍范围时nextId抛出IllegalStateException,改用随机id,避免请求全部失败
+     */
+    private static String nextRequestId() {
+        try {
+            return RequestIdGenerator.nextIdString();
+        } catch (IllegalStateException e) {
+            log.warn("生成请求id失败,使用随机id: {}", e.getMessage());
+            return String.format("%016x", ThreadLocalRandom.current().nextLong());
+        }
+    }
+
+    /**
+     * 只接受字母、数字、下划线和中划线,防止换行等字符写入响应头和日志
+     */
+    private static boolean isValidRequestId(String requestId) {
+        if (requestId == null || requestId.isEmpty() || requestId.length() > MAX_REQUEST_ID_LENGTH) {
+            return false;
         }
+        for (int i = 0; i < requestId.length(); i++) {
+            char c = requestId.charAt(i);
+            if (!(c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9' || c == '_' || c == '-')) {
+                return false;
+            }
+        }
+        return true;
     }
 
     /**
@@ -77,7 +106,6 @@ public class WebApiInterceptor implements HandlerInterceptor {
     @Override
     public void postHandle(@NotNull HttpServletRequest httpServletRequest, @NotNull HttpServletResponse
             httpServletResponse, @NotNull Object o, ModelAndView modelAndView) {
-        System.out.println("进入拦截器,请求时");
     }
 
     /**
@@ -95,11 +123,15 @@ public class WebApiInterceptor implements HandlerInterceptor {
     @Override
     public void afterCompletion(@NotNull HttpServletRequest httpServletRequest, @NotNull HttpServletResponse
             httpServletResponse, @NotNull Object o, Exception e) {
-        System.out.println("进入拦截器,请求完成");
-        String requestId = ServletUtil.getRequestHeader("request-id");
-        if (!requestId.isEmpty()) {
-            long time = Long.parseLong(TimeUtil.obtainCurrentTimeNum()) - Long.parseLong(requestId.split("_")[0]);
-            System.out.println("耗时:" + time + "s");
+        Object start = httpServletRequest.getAttribute(START_ATTRIBUTE);
+        long duration = start instanceof Long ? System.nanoTime() - (Long) start : 0;
+        int status = httpServletResponse.getStatus();
+        if (start instanceof Long) {
+            // 接口耗时统计见ApiMetrics,按路径的耗时由spring boot的http.server.requests统计
+            ApiMetrics.stop(httpServletRequest, status, duration, e);
         }
+        Object requestId = httpServletRequest.getAttribute(REQUEST_ID_ATTRIBUTE);
+        AccessLogger.log(httpServletRequest, status, duration, requestId == null ? null : requestId.toString(), e);
+        MDC.remove(REQUEST_ID_HEADER);
     }
 }
@@ -8,12 +8,20 @@ import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 import java.lang.reflect.Method;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.springframework.core.annotation.AnnotationUtils;
 import org.springframework.web.bind.annotation.Mapping;
+import org.springframework.web.cors.CorsUtils;
+import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.servlet.mvc.condition.RequestCondition;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
 import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
 
 @Target({ElementType.METHOD, ElementType.TYPE})
@@ -33,8 +41,8 @@ public @interface WebApiVersion {
 }
 
 class ApiVersionCondition implements RequestCondition<ApiVersionCondition> {
-    // 路径中版本的前缀， 这里用 /v[1-9]/的形式
-    private static final Pattern VERSION_PREFIX_PATTERN = Pattern.compile("v(\\d+)/");
+    static final String VERSION_ATTRIBUTE = ApiVersionCondition.class.getName() + ".VERSION";
+    static final int NO_VERSION = -1;
     private final int apiVersion;
 
     public ApiVersionCondition(int apiVersion) {
@@ -49,16 +57,53 @@ class ApiVersionCondition implements RequestCondition<ApiVersionCondition> {
 
     @Override
     public ApiVersionCondition getMatchingCondition(HttpServletRequest request) {
-        Matcher m = VERSION_PREFIX_PATTERN.matcher(request.getRequestURI());
-        if (m.find()) {
-            int version = Integer.parseInt(m.group(1));
-            if (version >= this.apiVersion) {
-                return this;
-            }
+        int version = resolveVersion(request);
+        if (version != NO_VERSION && version >= this.apiVersion) {
+            return this;
         }
         return null;
     }
 
+    /**
+     * 请求路径中的版本号,每个请求只解析一次,结果按路径缓存在request属性中(forward后路径变化会重新解析)
+     */
+    static int resolveVersion(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        Object cached = request.getAttribute(VERSION_ATTRIBUTE);
+        if (cached instanceof ParsedVersion && ((ParsedVersion) cached).uri.equals(uri)) {
+            return ((ParsedVersion) cached).version;
+        }
+        int version = parseVersion(uri);
+        request.setAttribute(VERSION_ATTRIBUTE, new ParsedVersion(uri, version));
+        return version;
+    }
+
+    /**
+     * 与 v(\d+)/ 的查找结果一致:取第一个 v+数字+/ 中的数字,超出int范围时取最大值,没有时返回NO_VERSION
+     */
+    static int parseVersion(String uri) {
+        if (uri == null) {
+            return NO_VERSION;
+        }
+        int length = uri.length();
+        for (int i = uri.indexOf('v'); i >= 0; i = uri.indexOf('v', i + 1)) {
+            int j = i + 1;
+            long version = 0;
+            while (j < length) {
+                char c = uri.charAt(j);
+                if (c < '0' || c > '9') {
+                    break;
+                }
+                version = Math.min(version * 10 + (c - '0'), Integer.MAX_VALUE);
+                j++;
+            }
+            if (j > i + 1 && j < length && uri.charAt(j) == '/') {
+                return (int) version;
+            }
+        }
+        return NO_VERSION;
+    }
+
     @Override
     public int compareTo(ApiVersionCondition other, HttpServletRequest request) {
         // 优先匹配最新的版本号
@@ -69,8 +114,168 @@ class ApiVersionCondition implements RequestCondition<ApiVersionCondition> {
         return apiVersion;
     }
 
+    private static final class ParsedVersion {
+        private final String uri;
+        private final int version;
+
+        private ParsedVersion(String uri, int version) {
+            this.uri = uri;
+            this.version = version;
+        }
+    }
+
+    /*
+     * Author: zhangjiahao04
+     * Description: 带版本的映射只能写成路径模式(一个映射服务不低于其版本的所有vN/),不会进入Spring的直接路径索引,
+     * 每个请求都要对全部映射逐个匹配。这里按去掉版本段后的路径建立(路径, 版本) -> 处理方法的索引:
+     * 版本段写成{变量}或v{变量}且其余段都是字面量的映射入索引,请求路径把vN段替换后查索引,只在命中的少数映射中匹配;
+     * 未命中或结果有歧义时交给Spring按原流程匹配
+     * Date: 2026/10/18 19:30
+     **/
     static class CustomRequestMappingHandlerMapping extends RequestMappingHandlerMapping {
 
+        private static final String VERSION_SEGMENT = "{}";
+        /**
+         * 去掉版本段的路径 -> 该路径下各版本、各请求方法的映射
+         */
+        private final Map<String, List<Indexed>> versionIndex = new ConcurrentHashMap<>();
+        /**
+         * 所有映射的字面量路径,请求路径与之相同时字面量映射优先,交给Spring匹配
+         */
+        private final Set<String> directPaths = ConcurrentHashMap.newKeySet();
+
+        @Override
+        protected void registerHandlerMethod(Object handler, Method method, RequestMappingInfo mapping) {
+            super.registerHandlerMethod(handler, method, mapping);
+            directPaths.addAll(mapping.getDirectPaths());
+            if (!(mapping.getCustomCondition() instanceof ApiVersionCondition)) {
+                return;
+            }
+            HandlerMethod handlerMethod = createHandlerMethod(handler, method);
+            for (String pattern : mapping.getPatternValues()) {
+                String key = patternKey(pattern);
+                if (key != null) {
+                    versionIndex.computeIfAbsent(key, k -> new CopyOnWriteArrayList<>())
+                            .add(new Indexed(mapping, handlerMethod));
+                }
+            }
+        }
+
+        @Override
+        public void unregisterMapping(RequestMappingInfo mapping) {
+            super.unregisterMapping(mapping);
+            versionIndex.values().forEach(list -> list.removeIf(indexed -> indexed.mapping.equals(mapping)));
+        }
+
+        @Override
+        protected HandlerMethod lookupHandlerMethod(String lookupPath, HttpServletRequest request) throws Exception {
+            List<Indexed> candidates = null;
+            if (!versionIndex.isEmpty() && !CorsUtils.isPreFlightRequest(request)
+                    && resolveVersion(request) != NO_VERSION && !directPaths.contains(lookupPath)) {
+                String key = lookupKey(lookupPath);
+                candidates = key == null ? null : versionIndex.get(key);
+            }
+            if (candidates == null) {
+                return super.lookupHandlerMethod(lookupPath, request);
+            }
+            List<RequestMappingInfo> matches = new ArrayList<>(2);
+            List<HandlerMethod> handlers = new ArrayList<>(2);
+            for (Indexed indexed : candidates) {
+                RequestMappingInfo match = getMatchingMapping(indexed.mapping, request);
+                if (match != null) {
+                    matches.add(match);
+                    handlers.add(indexed.handlerMethod);
+                }
+            }
+            if (matches.isEmpty()) {
+                return super.lookupHandlerMethod(lookupPath, request);
+            }
+            Comparator<RequestMappingInfo> comparator = getMappingComparator(request);
+            int best = 0;
+            boolean ambiguous = false;
+            for (int i = 1; i < matches.size(); i++) {
+                int compare = comparator.compare(matches.get(i), matches.get(best));
+                if (compare < 0) {
+                    best = i;
+                    ambiguous = false;
+                } else if (compare == 0) {
+                    ambiguous = true;
+                }
+            }
+            if (ambiguous) {
+                // 由Spring抛出带详细信息的歧义异常
+                return super.lookupHandlerMethod(lookupPath, request);
+            }
+            HandlerMethod handlerMethod = handlers.get(best);
+            request.setAttribute(BEST_MATCHING_HANDLER_ATTRIBUTE, handlerMethod);
+            handleMatch(matches.get(best), lookupPath, request);
+            return handlerMethod;
+        }
+
+        /**
+         * 映射路径的索引键:恰好一个段为{变量}或v{变量},其余段均为字面量,否则返回null不入索引
+         */
+        static String patternKey(String pattern) {
+            String[] segments = pattern.split("/", -1);
+            int position = -1;
+            for (int i = 0; i < segments.length; i++) {
+                String segment = segments[i];
+                boolean variable = segment.startsWith("{") || segment.startsWith("v{");
+                if (variable && segment.endsWith("}") && segment.indexOf('{', segment.indexOf('{') + 1) < 0) {
+                    if (position >= 0) {
+                        return null;
+                    }
+                    position = i;
+                } else if (segment.indexOf('{') >= 0 || segment.indexOf('*') >= 0 || segment.indexOf('?') >= 0) {
+                    return null;
+                }
+            }
+            if (position < 0 || position == segments.length - 1) {
+                return null;
+            }
+            segments[position] = VERSION_SEGMENT;
+            return String.join("/", segments);
+        }
+
+        /**
+         * 请求路径的索引键:第一个vN段替换为版本占位,没有版本段时返回null
+         */
+        static String lookupKey(String lookupPath) {
+            int start = 0;
+            int length = lookupPath.length();
+            while (start < length) {
+                int end = lookupPath.indexOf('/', start);
+                if (end < 0) {
+                    return null;
+                }
+                if (end - start > 1 && lookupPath.charAt(start) == 'v' && isDigits(lookupPath, start + 1, end)) {
+                    return lookupPath.substring(0, start) + VERSION_SEGMENT + lookupPath.substring(end);
+                }
+                start = end + 1;
+            }
+            return null;
+        }
+
+        private static boolean isDigits(String value, int from, int to) {
+            for (int i = from; i < to; i++) {
+                char c = value.charAt(i);
+                if (c < '0' || c > '9') {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static final class Indexed {
+            private final RequestMappingInfo mapping;
+            private final HandlerMethod handlerMethod;
+
+            private Indexed(RequestMappingInfo mapping, HandlerMethod handlerMethod) {
+                this.mapping = mapping;
+                this.handlerMethod = handlerMethod;
+            }
+        }
+
         @Override
         protected RequestCondition<ApiVersionCondition> getCustomTypeCondition(Class<?> handlerType) {
             WebApiVersion apiVersion = AnnotationUtils.findAnnotation(handlerType, WebApiVersion.class);
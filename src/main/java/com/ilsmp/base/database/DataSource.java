@@ -18,4 +18,16 @@ import java.lang.annotation.Target;
 @Retention(RetentionPolicy.RUNTIME)
 public @interface DataSource {
     String value() default MyCallBack.FIRST;
+
+    /**
+     * 是否只读,数据源配置了读库时从读库获取连接;为false时沿用外层@DataSource、@Transactional(readOnly = true)或当前事务的只读状态。
+     * 开启读写事务的@Transactional(包括其中调用的repository.save等)始终使用主库
+     */
+    boolean readOnly() default false;
+
+    /**
+     * 分片键SpEL表达式,以#参数名引用方法参数,如 "#tenantId"(整数按abs(id)分桶)或 "#tenantId + '_' + #projectId"(字符串按crc32分桶);
+     * 不为空时按spring.base.datasource-shard配置计算数据源,结果为null或未匹配到分片时使用value
+     */
+    String shardKey() default "";
 }
@@ -1,6 +1,8 @@
 package com.ilsmp.base.database;
 
 import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.ilsmp.base.util.StringUtil;
 import org.aspectj.lang.ProceedingJoinPoint;
@@ -10,10 +12,25 @@ import org.aspectj.lang.annotation.Pointcut;
 import org.aspectj.lang.reflect.MethodSignature;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.expression.MethodBasedEvaluationContext;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.MethodClassKey;
 import org.springframework.core.Ordered;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.Expression;
+import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.AnnotationTransactionAttributeSource;
+import org.springframework.transaction.interceptor.TransactionAttribute;
+import org.springframework.transaction.interceptor.TransactionAttributeSource;
 
 /**
  * Author: zhangjiahao04 Title: DataSourceAspect Package: com.data.export.tool.database Description: 多数据源AOP切面配置 Date:
@@ -25,29 +42,181 @@ import org.springframework.stereotype.Component;
 public class DataSourceAspect implements Ordered {
 
     private final Logger log = LoggerFactory.getLogger(getClass());
+    private static final ExpressionParser PARSER = new SpelExpressionParser();
+    private static final ParameterNameDiscoverer PARAMETER_NAME_DISCOVERER = new DefaultParameterNameDiscoverer();
+    /**
+     * (方法, 目标类) -> 解析好的路由,没有@DataSource时为NO_ROUTE
+     */
+    private static final Map<MethodClassKey, Route> ROUTES = new ConcurrentHashMap<>();
+    private static final Route NO_ROUTE = new Route(null, false, null, null);
+    /**
+     * 解析方法、类和接口上的@Transactional,自带缓存
+     */
+    private static final TransactionAttributeSource TRANSACTION_ATTRIBUTES =
+            new AnnotationTransactionAttributeSource();
+
+    @Autowired(required = false)
+    private ShardRouter shardRouter;
 
-    @Pointcut("@annotation(com.ilsmp.base.database.DataSource)")
+    /**
+     * 方法上、类上或接口上的@DataSource
+     */
+    @Pointcut("@annotation(com.ilsmp.base.database.DataSource)"
+            + " || execution(* (@com.ilsmp.base.database.DataSource *+).*(..))")
     public void dataSourcePointCut() {
     }
 
     @Around("dataSourcePointCut()")
     public Object around(ProceedingJoinPoint point) throws Throwable {
-        MethodSignature signature = (MethodSignature) point.getSignature();
-        Method method = signature.getMethod();
-        DataSource ds = method.getDeclaredAnnotation(DataSource.class);
-        if (StringUtil.isEmpty(ds.value())) {
-            DynamicDataSource.setDataSource(MyCallBack.FIRST);
-            log.debug("===datasource is===" + MyCallBack.FIRST);
-        } else {
-            DynamicDataSource.setDataSource(ds.value());
-            log.debug("===datasource is===" + ds.value());
+        Method method = ((MethodSignature) point.getSignature()).getMethod();
+        Object target = point.getTarget();
+        Class<?> targetClass = target == null ? method.getDeclaringClass() : AopUtils.getTargetClass(target);
+        MethodClassKey cacheKey = new MethodClassKey(method, targetClass);
+        Route route = ROUTES.get(cacheKey);
+        if (route == null) {
+            route = ROUTES.computeIfAbsent(cacheKey, key -> resolve(method, targetClass));
+        }
+        if (route == NO_ROUTE) {
+            return point.proceed();
+        }
+        String key = route.key;
+        if (route.shardKey != null && shardRouter != null) {
+            String shard = route(point, route);
+            if (shard != null) {
+                key = shard;
+            }
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("===datasource is==={}", key);
+        }
+        Boolean readOnly = DynamicDataSource.getReadOnly();
+        DynamicDataSource.push(key);
+        if (route.readOnly && !Boolean.FALSE.equals(transactionReadOnly(method, targetClass))) {
+            // 未声明只读时沿用外层和当前事务的只读状态;同一方法开启读写事务时以事务为准
+            DynamicDataSource.setReadOnly(true);
+        }
+        try {
+            return point.proceed();
+        } finally {
+            // 只退出本层,外层调用的数据源保持不变
+            DynamicDataSource.pop();
+            DynamicDataSource.setReadOnly(readOnly);
+        }
+    }
+
+    /*
+     * Author: zhangjiahao04
+     * Description: 查找生效的@DataSource:实现方法 > 接口方法 > 实现类 > 接口,只在每个(方法, 目标类)第一次调用时执行
+     * Date: 2026/10/18 23:20
+     * Param: [method, targetClass]
+     * return: com.ilsmp.base.database.DataSourceAspect.Route
+     **/
+    private static Route resolve(Method method, Class<?> targetClass) {
+        Method specific = AopUtils.getMostSpecificMethod(method, targetClass);
+        DataSource ds = AnnotatedElementUtils.findMergedAnnotation(specific, DataSource.class);
+        if (ds == null && specific != method) {
+            ds = AnnotatedElementUtils.findMergedAnnotation(method, DataSource.class);
+        }
+        if (ds == null) {
+            ds = AnnotatedElementUtils.findMergedAnnotation(targetClass, DataSource.class);
         }
+        if (ds == null) {
+            ds = AnnotatedElementUtils.findMergedAnnotation(method.getDeclaringClass(), DataSource.class);
+        }
+        if (ds == null) {
+            return NO_ROUTE;
+        }
+        String key = StringUtil.isEmpty(ds.value()) ? MyCallBack.FIRST : ds.value();
+        Expression shardKey = ds.shardKey().isEmpty() ? null : PARSER.parseExpression(ds.shardKey());
+        return new Route(key, ds.readOnly(), shardKey, specific);
+    }
+
+    /*
+     * Author: zhangjiahao04
+     * Description: 按shardKey表达式计算分片数据源
+     * Date: 2026/10/18 23:00
+     * Param: [point, route]
+     * return: java.lang.String
+     **/
+    private String route(ProceedingJoinPoint point, Route route) {
+        EvaluationContext context = new MethodBasedEvaluationContext(point.getTarget(), route.method,
+                point.getArgs(), PARAMETER_NAME_DISCOVERER);
+        Object shardKey = route.shardKey.getValue(context);
+        return shardKey == null ? null : shardRouter.route(shardKey);
+    }
+
+    private static final class Route {
+        private final String key;
+        private final boolean readOnly;
+        private final Expression shardKey;
+        /**
+         * 解析shardKey参数名使用的方法
+         */
+        private final Method method;
+
+        private Route(String key, boolean readOnly, Expression shardKey, Method method) {
+            this.key = key;
+            this.readOnly = readOnly;
+            this.shardKey = shardKey;
+            this.method = method;
+        }
+    }
+
+    /*
+     * Author: zhangjiahao04
+     * Description: 方法或类上的@Transactional在事务开始获取连接之前设置只读标记:
+     * readOnly = true时标记只读,事务开始时即可选择读库;会开启读写事务时(REQUIRED、REQUIRES_NEW、NESTED、MANDATORY)
+     * 强制清除外层@DataSource(readOnly = true)或只读事务留下的标记,写操作始终使用主库
+     * Date: 2026/10/18 22:40
+     * Param: [point]
+     * return: java.lang.Object
+     **/
+    @Around("@annotation(org.springframework.transaction.annotation.Transactional)"
+            + " || @within(org.springframework.transaction.annotation.Transactional)")
+    public Object readOnly(ProceedingJoinPoint point) throws Throwable {
+        Method method = ((MethodSignature) point.getSignature()).getMethod();
+        Object target = point.getTarget();
+        Class<?> targetClass = target == null ? method.getDeclaringClass() : AopUtils.getTargetClass(target);
+        Boolean readOnly = transactionReadOnly(method, targetClass);
+        if (readOnly == null) {
+            return point.proceed();
+        }
+        Boolean previous = DynamicDataSource.getReadOnly();
+        if (readOnly.equals(previous)) {
+            return point.proceed();
+        }
+        DynamicDataSource.setReadOnly(readOnly);
         try {
             return point.proceed();
         } finally {
-            DynamicDataSource.clearDataSource();
-            log.debug("clean datasource");
+            DynamicDataSource.setReadOnly(previous);
+        }
+    }
+
+    /*
+     * Author: zhangjiahao04
+     * Description: 方法生效的@Transactional对应的只读标记:只读事务为true,开启读写事务为false(不能沿用外层的只读标记),
+     * 没有@Transactional或传播方式不开启事务时为null
+     * Date: 2026/10/18 22:40
+     * Param: [method, targetClass]
+     * return: java.lang.Boolean
+     **/
+    private static Boolean transactionReadOnly(Method method, Class<?> targetClass) {
+        TransactionAttribute attribute = TRANSACTION_ATTRIBUTES.getTransactionAttribute(method, targetClass);
+        if (attribute == null) {
+            return null;
+        }
+        if (attribute.isReadOnly()) {
+            return Boolean.TRUE;
         }
+        return startsTransaction(attribute.getPropagationBehavior()) ? Boolean.FALSE : null;
+    }
+
+    private static boolean startsTransaction(int propagation) {
+        return propagation == TransactionDefinition.PROPAGATION_REQUIRED
+                || propagation == TransactionDefinition.PROPAGATION_REQUIRES_NEW
+                || propagation == TransactionDefinition.PROPAGATION_NESTED
+                || propagation == TransactionDefinition.PROPAGATION_MANDATORY;
     }
 
     /**
@@ -0,0 +1,109 @@
+package com.ilsmp.base.database;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.druid.pool.DruidDataSource;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+/*
+ * Author: zhangjiahao04
+ * Description: 数据源统计端点 /actuator/datasources,按数据源输出连接池状态、获取连接耗时、sql耗时分位值、最慢的sql和读库健康状态,
+ * 需在management.endpoints.web.exposure.include中开放datasources
+ * Date: 2026/10/18 23:40
+ **/
+@Component
+@Endpoint(id = "datasources")
+public class DataSourceEndpoint {
+
+    private final ObjectProvider<DynamicDataSource> dynamicDataSource;
+
+    public DataSourceEndpoint(ObjectProvider<DynamicDataSource> dynamicDataSource) {
+        this.dynamicDataSource = dynamicDataSource;
+    }
+
+    @ReadOperation
+    public Map<String, Map<String, Object>> datasources() {
+        int top = DataSourceMetrics.getConfig().getTopSlowSql();
+        Map<String, Map<String, Object>> result = new TreeMap<>();
+        DataSourceMetrics.getPools().forEach((name, stats) -> result.put(name, snapshot(stats, top)));
+        return result;
+    }
+
+    @ReadOperation
+    public Map<String, Object> datasource(@Selector String name) {
+        DataSourceMetrics.PoolStats stats = DataSourceMetrics.getPools().get(name);
+        return stats == null ? null : snapshot(stats, DataSourceMetrics.getConfig().getSlowSqlCapacity());
+    }
+
+    private Map<String, Object> snapshot(DataSourceMetrics.PoolStats stats, int top) {
+        DruidDataSource dataSource = stats.getDataSource();
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("name", stats.getName());
+        snapshot.put("url", dataSource.getUrl());
+        Map<String, Object> connections = new LinkedHashMap<>();
+        connections.put("active", dataSource.getActiveCount());
+        connections.put("activePeak", dataSource.getActivePeak());
+        connections.put("idle", dataSource.getPoolingCount());
+        connections.put("max", dataSource.getMaxActive());
+        connections.put("pending", dataSource.getWaitThreadCount());
+        connections.put("waitCount", dataSource.getNotEmptyWaitCount());
+        connections.put("waitMillis", dataSource.getNotEmptyWaitMillis());
+        connections.put("timeouts", stats.getAcquireTimeouts());
+        connections.put("acquire", latency(stats.getAcquireTimer()));
+        snapshot.put("connections", connections);
+        Map<String, Object> sql = new TreeMap<>();
+        stats.getSqlTimers().forEach((type, timer) -> sql.put(type, latency(timer)));
+        snapshot.put("sql", sql);
+        snapshot.put("slowCount", stats.getSlowCount());
+        snapshot.put("slowSql", stats.topSlowSql(top));
+        List<Map<String, Object>> replicas = replicas(stats.getName());
+        if (!replicas.isEmpty()) {
+            snapshot.put("replicas", replicas);
+        }
+        return snapshot;
+    }
+
+    private List<Map<String, Object>> replicas(String name) {
+        List<Map<String, Object>> result = new ArrayList<>();
+        DynamicDataSource dynamic = dynamicDataSource.getIfAvailable();
+        ReplicaGroup group = dynamic == null ? null : dynamic.getReplicaGroups().get(name);
+        if (group == null) {
+            return result;
+        }
+        for (ReplicaGroup.Replica replica : group.getReplicas()) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("name", replica.getName());
+            item.put("healthy", replica.isHealthy());
+            item.put("latencyMicros", replica.getLatencyMicros());
+            item.put("active", replica.getActiveCount());
+            item.put("lastError", replica.getLastError());
+            result.add(item);
+        }
+        return result;
+    }
+
+    private static Map<String, Object> latency(Timer timer) {
+        HistogramSnapshot histogram = timer.takeSnapshot();
+        Map<String, Object> latency = new LinkedHashMap<>();
+        latency.put("count", histogram.count());
+        latency.put("meanMs", histogram.mean(TimeUnit.MILLISECONDS));
+        latency.put("maxMs", histogram.max(TimeUnit.MILLISECONDS));
+        for (ValueAtPercentile percentile : histogram.percentileValues()) {
+            latency.put("p" + Math.round(percentile.percentile() * 100) + "Ms",
+                    percentile.value(TimeUnit.MILLISECONDS));
+        }
+        return latency;
+    }
+}
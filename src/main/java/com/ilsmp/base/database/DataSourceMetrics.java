@@ -0,0 +1,398 @@
+package com.ilsmp.base.database;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.alibaba.druid.filter.FilterChain;
+import com.alibaba.druid.filter.FilterEventAdapter;
+import com.alibaba.druid.pool.DruidDataSource;
+import com.alibaba.druid.pool.DruidPooledConnection;
+import com.alibaba.druid.pool.GetConnectionTimeoutException;
+import com.alibaba.druid.proxy.jdbc.PreparedStatementProxy;
+import com.alibaba.druid.proxy.jdbc.ResultSetProxy;
+import com.alibaba.druid.proxy.jdbc.StatementProxy;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.Data;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/*
+ * Author: zhangjiahao04
+ * Description: druid连接池和sql统计,默认关闭。每个数据源注册连接数、等待、获取超时、sql耗时分布等指标到Metrics全局注册表,
+ * 超过慢sql阈值的sql写入slow-sql日志并按sql汇总,供/actuator/datasources查看耗时最长的sql
+ * Date: 2026/10/18 23:40
+ **/
+public final class DataSourceMetrics {
+
+    public static final String METRIC_PREFIX = "datasource";
+    private static final Logger SLOW_LOG = LoggerFactory.getLogger("slow-sql");
+    private static final Map<String, PoolStats> POOLS = new ConcurrentHashMap<>();
+    private static volatile SqlMetricsConfig config = new SqlMetricsConfig();
+
+    private DataSourceMetrics() {
+    }
+
+    public static void configure(SqlMetricsConfig sqlMetricsConfig) {
+        if (sqlMetricsConfig != null) {
+            config = sqlMetricsConfig;
+        }
+    }
+
+    public static SqlMetricsConfig getConfig() {
+        return config;
+    }
+
+    /*
+     * Author: zhangjiahao04
+     * Description: 注册数据源指标,druid数据源同时加入sql统计过滤器;须在连接池初始化之前调用,否则已创建的连接不经过过滤器
+     * Date: 2026/10/18 23:40
+     * Param: [name, dataSource]
+     * return: void
+     **/
+    public static void bind(String name, DataSource dataSource) {
+        if (!Boolean.TRUE.equals(config.getEnabled()) || !(dataSource instanceof DruidDataSource)) {
+            return;
+        }
+        DruidDataSource druid = (DruidDataSource) dataSource;
+        PoolStats old = POOLS.get(name);
+        if (old != null && old.dataSource == druid) {
+            return;
+        }
+        unbind(name);
+        if (druid.isInited()) {
+            LoggerFactory.getLogger(DataSourceMetrics.class).warn("数据源{}已初始化,已有连接不统计sql", name);
+        }
+        PoolStats stats = new PoolStats(name, druid);
+        druid.getProxyFilters().add(stats.filter);
+        POOLS.put(name, stats);
+    }
+
+    /**
+     * 移除数据源指标
+     */
+    public static void unbind(String name) {
+        PoolStats stats = POOLS.remove(name);
+        if (stats == null) {
+            return;
+        }
+        stats.dataSource.getProxyFilters().remove(stats.filter);
+        MeterRegistry registry = Metrics.globalRegistry;
+        for (Meter meter : registry.getMeters()) {
+            Meter.Id id = meter.getId();
+            if (id.getName().startsWith(METRIC_PREFIX + ".") && name.equals(id.getTag("name"))) {
+                registry.remove(meter);
+            }
+        }
+    }
+
+    public static Map<String, PoolStats> getPools() {
+        return Collections.unmodifiableMap(POOLS);
+    }
+
+    private static String truncate(String sql) {
+        int max = config.getMaxSqlLength();
+        return sql == null || sql.length() <= max ? sql : sql.substring(0, max) + "...";
+    }
+
+    /*
+     * Author: zhangjiahao04
+     * Description: 单个数据源的统计
+     * Date: 2026/10/18 23:40
+     **/
+    public static final class PoolStats {
+        private final String name;
+        private final DruidDataSource dataSource;
+        private final SqlMetricsFilter filter = new SqlMetricsFilter(this);
+        private final Timer acquireTimer;
+        private final LongAdder acquireTimeouts = new LongAdder();
+        private final Map<String, Timer> sqlTimers = new ConcurrentHashMap<>();
+        private final LongAdder slowCount = new LongAdder();
+        private final Map<String, SlowSql> slowSqls = new ConcurrentHashMap<>();
+
+        private PoolStats(String name, DruidDataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+            MeterRegistry registry = Metrics.globalRegistry;
+            Tags tags = Tags.of("name", name);
+            Gauge.builder(METRIC_PREFIX + ".connections.active", dataSource, DruidDataSource::getActiveCount)
+                    .description("正在使用的连接数").tags(tags).register(registry);
+            Gauge.builder(METRIC_PREFIX + ".connections.idle", dataSource, DruidDataSource::getPoolingCount)
+                    .description("池中空闲连接数").tags(tags).register(registry);
+            Gauge.builder(METRIC_PREFIX + ".connections.max", dataSource, DruidDataSource::getMaxActive)
+                    .description("最大连接数").tags(tags).register(registry);
+            Gauge.builder(METRIC_PREFIX + ".connections.pending", dataSource, DruidDataSource::getWaitThreadCount)
+                    .description("等待获取连接的线程数").tags(tags).register(registry);
+            FunctionCounter.builder(METRIC_PREFIX + ".connections.wait.time", dataSource,
+                            DruidDataSource::getNotEmptyWaitMillis)
+                    .description("池空时等待连接的累计时间ms").tags(tags).register(registry);
+            FunctionCounter.builder(METRIC_PREFIX + ".connections.timeout", acquireTimeouts, LongAdder::sum)
+                    .description("获取连接超时次数").tags(tags).register(registry);
+            FunctionCounter.builder(METRIC_PREFIX + ".sql.slow", slowCount, LongAdder::sum)
+                    .description("慢sql次数").tags(tags).register(registry);
+            this.acquireTimer = Timer.builder(METRIC_PREFIX + ".connections.acquire")
+                    .description("获取连接耗时")
+                    .tags(tags)
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(registry);
+        }
+
+        private Timer sqlTimer(String type) {
+            Timer timer = sqlTimers.get(type);
+            if (timer == null) {
+                timer = sqlTimers.computeIfAbsent(type, key -> Timer.builder(METRIC_PREFIX + ".sql")
+                        .description("sql执行耗时")
+                        .tags("name", name, "type", key)
+                        .publishPercentiles(0.5, 0.95, 0.99)
+                        .register(Metrics.globalRegistry));
+            }
+            return timer;
+        }
+
+        private void record(String type, String sql, long nanos, Throwable error) {
+            sqlTimer(error == null ? type : "error").record(nanos, TimeUnit.NANOSECONDS);
+            long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+            SqlMetricsConfig current = config;
+            if (millis < current.getSlowSqlMillis()) {
+                return;
+            }
+            slowCount.increment();
+            String text = truncate(sql);
+            SLOW_LOG.warn("slow sql datasource={} {}ms type={} sql={}", name, millis, type, text);
+            if (text == null) {
+                return;
+            }
+            SlowSql slowSql = slowSqls.get(text);
+            if (slowSql == null) {
+                if (slowSqls.size() >= current.getSlowSqlCapacity()) {
+                    // 汇总的sql条数已满,只保留更慢的
+                    evictFastest(millis);
+                    if (slowSqls.size() >= current.getSlowSqlCapacity()) {
+                        return;
+                    }
+                }
+                slowSql = slowSqls.computeIfAbsent(text, SlowSql::new);
+            }
+            slowSql.record(millis);
+        }
+
+        private void evictFastest(long millis) {
+            SlowSql fastest = null;
+            for (SlowSql slowSql : slowSqls.values()) {
+                if (fastest == null || slowSql.getMaxMillis() < fastest.getMaxMillis()) {
+                    fastest = slowSql;
+                }
+            }
+            if (fastest != null && fastest.getMaxMillis() < millis) {
+                slowSqls.remove(fastest.sql, fastest);
+            }
+        }
+
+        /**
+         * 最慢的n条sql,按最大耗时倒序
+         */
+        public List<SlowSql> topSlowSql(int n) {
+            List<SlowSql> list = new ArrayList<>(slowSqls.values());
+            list.sort(Comparator.comparingLong(SlowSql::getMaxMillis).reversed());
+            return list.size() > n ? list.subList(0, n) : list;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public DruidDataSource getDataSource() {
+            return dataSource;
+        }
+
+        public Timer getAcquireTimer() {
+            return acquireTimer;
+        }
+
+        public long getAcquireTimeouts() {
+            return acquireTimeouts.sum();
+        }
+
+        public long getSlowCount() {
+            return slowCount.sum();
+        }
+
+        public Map<String, Timer> getSqlTimers() {
+            return Collections.unmodifiableMap(sqlTimers);
+        }
+    }
+
+    /*
+     * Author: zhangjiahao04
+     * Description: 同一条慢sql的汇总
+     * Date: 2026/10/18 23:40
+     **/
+    public static final class SlowSql {
+        private final String sql;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalMillis = new LongAdder();
+        private final AtomicLong maxMillis = new AtomicLong();
+        private volatile long lastTime;
+
+        private SlowSql(String sql) {
+            this.sql = sql;
+        }
+
+        private void record(long millis) {
+            count.increment();
+            totalMillis.add(millis);
+            maxMillis.accumulateAndGet(millis, Math::max);
+            lastTime = System.currentTimeMillis();
+        }
+
+        public String getSql() {
+            return sql;
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public long getTotalMillis() {
+            return totalMillis.sum();
+        }
+
+        public long getMaxMillis() {
+            return maxMillis.get();
+        }
+
+        public long getLastTime() {
+            return lastTime;
+        }
+    }
+
+    /*
+     * Author: zhangjiahao04
+     * Description: druid过滤器,记录获取连接和sql执行耗时;sql在同一线程上执行,开始时间存于线程变量
+     * Date: 2026/10/18 23:40
+     **/
+    private static final class SqlMetricsFilter extends FilterEventAdapter {
+        private static final ThreadLocal<long[]> START = ThreadLocal.withInitial(() -> new long[1]);
+        private final PoolStats stats;
+
+        private SqlMetricsFilter(PoolStats stats) {
+            this.stats = stats;
+        }
+
+        @Override
+        public DruidPooledConnection dataSource_getConnection(FilterChain chain, DruidDataSource dataSource,
+                                                              long maxWaitMillis) throws SQLException {
+            long start = System.nanoTime();
+            try {
+                return super.dataSource_getConnection(chain, dataSource, maxWaitMillis);
+            } catch (GetConnectionTimeoutException e) {
+                stats.acquireTimeouts.increment();
+                throw e;
+            } finally {
+                stats.acquireTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        @Override
+        protected void statementExecuteBefore(StatementProxy statement, String sql) {
+            start();
+        }
+
+        @Override
+        protected void statementExecuteAfter(StatementProxy statement, String sql, boolean result) {
+            stop("execute", sql, null);
+        }
+
+        @Override
+        protected void statementExecuteQueryBefore(StatementProxy statement, String sql) {
+            start();
+        }
+
+        @Override
+        protected void statementExecuteQueryAfter(StatementProxy statement, String sql, ResultSetProxy resultSet) {
+            stop("query", sql, null);
+        }
+
+        @Override
+        protected void statementExecuteUpdateBefore(StatementProxy statement, String sql) {
+            start();
+        }
+
+        @Override
+        protected void statementExecuteUpdateAfter(StatementProxy statement, String sql, int updateCount) {
+            stop("update", sql, null);
+        }
+
+        @Override
+        protected void statementExecuteBatchBefore(StatementProxy statement) {
+            start();
+        }
+
+        @Override
+        protected void statementExecuteBatchAfter(StatementProxy statement, int[] result) {
+            stop("batch", statement instanceof PreparedStatementProxy
+                    ? ((PreparedStatementProxy) statement).getSql() : null, null);
+        }
+
+        @Override
+        protected void statement_executeErrorAfter(StatementProxy statement, String sql, Throwable error) {
+            stop("error", sql, error);
+        }
+
+        private static void start() {
+            START.get()[0] = System.nanoTime();
+        }
+
+        private void stop(String type, String sql, Throwable error) {
+            long[] start = START.get();
+            if (start[0] == 0) {
+                return;
+            }
+            long nanos = System.nanoTime() - start[0];
+            start[0] = 0;
+            stats.record(type, sql, nanos, error);
+        }
+    }
+
+    /*
+     * Description: 连接池和sql统计配置
+     **/
+    @Data
+    public static class SqlMetricsConfig {
+        /**
+         * 是否统计druid数据源,默认关闭;开启后每个druid数据源加入sql统计过滤器,
+         * 配置spring.base.datasource-metrics.enabled=true开启
+         */
+        private Boolean enabled = false;
+        /**
+         * 慢sql阈值ms
+         */
+        private Long slowSqlMillis = 1000L;
+        /**
+         * 每个数据源汇总的慢sql最大条数,超过后只保留更慢的
+         */
+        private Integer slowSqlCapacity = 200;
+        /**
+         * 端点默认输出的慢sql条数
+         */
+        private Integer topSlowSql = 20;
+        /**
+         * 慢sql日志和汇总中sql的最大长度
+         */
+        private Integer maxSqlLength = 1024;
+    }
+}
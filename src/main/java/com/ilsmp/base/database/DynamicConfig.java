@@ -1,16 +1,24 @@
 package com.ilsmp.base.database;
 
 import javax.sql.DataSource;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
+import com.alibaba.druid.pool.DruidDataSource;
 import com.alibaba.druid.spring.boot.autoconfigure.DruidDataSourceBuilder;
+import com.ilsmp.base.util.ExecutorUtil;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
 
 /**
  * Author: zhangjiahao04 Title: DynamicConfig Package: com.data.export.tool.database Description: 动态数据库配置 Date: 2022/4/6
@@ -22,6 +30,14 @@ import org.springframework.context.annotation.Primary;
 @ConditionalOnExpression("${spring.base.multi-db:true}")
 public class DynamicConfig {
 
+    public static final String DATASOURCES_PREFIX = "spring.base.datasources";
+    public static final String DRAIN_TIMEOUT = "spring.base.datasource-drain-timeout";
+    public static final String REPLICAS_PREFIX = "spring.base.datasource-replicas";
+    public static final String BALANCE = "spring.base.datasource-balance";
+    public static final String HEALTH_INTERVAL = "spring.base.datasource-health-interval";
+    public static final String SHARD_PREFIX = "spring.base.datasource-shard";
+    public static final String METRICS_PREFIX = "spring.base.datasource-metrics";
+
     @Bean(name = MyCallBack.FIRST)
     @ConfigurationProperties(MyCallBack.FIRST_PREFIX)
     public DataSource firstDataSource() {
@@ -38,11 +54,53 @@ public class DynamicConfig {
     @Primary
     public DynamicDataSource dataSource(
             @Qualifier(MyCallBack.FIRST) DataSource firstDataSource,
-            @Qualifier(MyCallBack.SECOND) DataSource secondDataSource) {
+            @Qualifier(MyCallBack.SECOND) DataSource secondDataSource, Environment environment) {
+        DataSourceMetrics.configure(Binder.get(environment)
+                .bind(METRICS_PREFIX, DataSourceMetrics.SqlMetricsConfig.class)
+                .orElseGet(DataSourceMetrics.SqlMetricsConfig::new));
         Map<Object, Object> targetDataSources = new HashMap<>();
         targetDataSources.put(MyCallBack.FIRST, firstDataSource);
         targetDataSources.put(MyCallBack.SECOND, secondDataSource);
-        return new DynamicDataSource(firstDataSource, targetDataSources);
+        targetDataSources.putAll(namedDataSources(environment));
+        DynamicDataSource dynamicDataSource = new DynamicDataSource(firstDataSource, targetDataSources);
+        dynamicDataSource.setDrainTimeout(environment.getProperty(DRAIN_TIMEOUT, Long.class, 30000L));
+        // 第一个读库组创建时开始健康检查,包括运行时通过setReplicas添加的读库
+        dynamicDataSource.setHealthCheckInterval(environment.getProperty(HEALTH_INTERVAL, Long.class, 5000L));
+        Binder.get(environment).bind(REPLICAS_PREFIX, Bindable.mapOf(String.class, String[].class))
+                .ifBound(replicas -> replicas.forEach((primary, names) ->
+                        dynamicDataSource.setReplicas(primary, Arrays.asList(names))));
+        dynamicDataSource.setBalancer(environment.getProperty(BALANCE, ReplicaBalance.class,
+                ReplicaBalance.ROUND_ROBIN));
+        ExecutorUtil.addTaskDecorator(DynamicDataSource.TASK_DECORATOR);
+        return dynamicDataSource;
+    }
+
+    @Bean
+    public ShardRouter shardRouter(Environment environment, DynamicDataSource dynamicDataSource) {
+        ShardRouter.ShardConfig config = Binder.get(environment)
+                .bind(SHARD_PREFIX, ShardRouter.ShardConfig.class)
+                .orElseGet(ShardRouter.ShardConfig::new);
+        return new ShardRouter(config, dynamicDataSource);
+    }
+
+    /*
+     * Author: zhangjiahao04
+     * Description: spring.base.datasources.<name>下配置的任意数量数据源,配置项与spring.datasource相同
+     * Date: 2026/10/18 22:20
+     * Param: [environment]
+     * return: java.util.Map<java.lang.Object,java.lang.Object>
+     **/
+    private static Map<Object, Object> namedDataSources(Environment environment) {
+        Binder binder = Binder.get(environment);
+        Map<String, Object> names = binder.bind(DATASOURCES_PREFIX, Bindable.mapOf(String.class, Object.class))
+                .orElse(Collections.emptyMap());
+        Map<Object, Object> dataSources = new LinkedHashMap<>();
+        for (String name : names.keySet()) {
+            DruidDataSource dataSource = DruidDataSourceBuilder.create().build();
+            binder.bind(DATASOURCES_PREFIX + "." + name, Bindable.ofInstance(dataSource));
+            dataSources.put(name, dataSource);
+        }
+        return dataSources;
     }
 
 }
@@ -1,11 +1,31 @@
 package com.ilsmp.base.database;
 
 import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
+import com.alibaba.druid.pool.DruidDataSource;
+import com.alibaba.druid.spring.boot.autoconfigure.DruidDataSourceBuilder;
+import com.ilsmp.base.util.ExecutorUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.ConfigurationPropertyName;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+import org.springframework.core.task.TaskDecorator;
 import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 /**
  * Author: zhangjiahao04 Title: DynamicDataSource Package: com.data.export.tool.database Description: 动态数据库 Date:
@@ -15,9 +35,68 @@ public class DynamicDataSource extends AbstractRoutingDataSource {
 
     private final Logger log = LoggerFactory.getLogger(getClass());
 
-    private static final ThreadLocal<String> HOLDER = new ThreadLocal<>();
+    /**
+     * 嵌套调用的数据源栈,栈顶为当前数据源
+     */
+    private static final ThreadLocal<Deque<String>> HOLDER = new ThreadLocal<>();
+    /**
+     * 提交线程池任务时传递当前数据源和只读标记,由DynamicConfig注册到ExecutorUtil
+     */
+    public static final TaskDecorator TASK_DECORATOR = task -> {
+        String dataSource = getDataSource();
+        Boolean readOnly = getReadOnly();
+        if (dataSource == null && readOnly == null) {
+            return task;
+        }
+        return () -> {
+            Boolean previousReadOnly = getReadOnly();
+            push(dataSource);
+            setReadOnly(readOnly);
+            try {
+                task.run();
+            } finally {
+                pop();
+                setReadOnly(previousReadOnly);
+            }
+        };
+    };
+    /**
+     * ArrayDeque不能存null,默认数据源入栈时的占位
+     */
+    private static final String NONE = "";
+    private static final ThreadLocal<Boolean> READ_ONLY = new ThreadLocal<>();
+    private static final String HEALTH_EXECUTOR_NAME = "datasource-health";
+    private static final int HEALTH_CHECK_TIMEOUT = 3;
+    private static final String EXECUTOR_NAME = "datasource-drain";
+    private static final long DRAIN_CHECK_INTERVAL = 100L;
+
+    /**
+     * 运行时的数据源,支持增删,路由时直接查找该map
+     */
+    private final Map<String, DataSource> dataSources = new ConcurrentHashMap<>();
+    private final DataSource defaultDataSource;
+    /**
+     * 移除数据源时等待进行中连接归还的最长时间ms
+     */
+    private volatile long drainTimeout = 30000L;
+    /**
+     * 主库名称 -> 读库名称
+     */
+    private final Map<String, List<String>> replicaNames = new ConcurrentHashMap<>();
+    private final Map<String, ReplicaGroup> replicaGroups = new ConcurrentHashMap<>();
+    private volatile ReplicaBalancer balancer = ReplicaBalance.ROUND_ROBIN;
+    private volatile ScheduledFuture<?> healthCheck;
+    /**
+     * 读库健康检查间隔ms,小于等于0时不检查;有读库组时自动开始检查
+     */
+    private volatile long healthCheckInterval = 5000L;
 
     public DynamicDataSource(DataSource defaultTargetDataSource, Map<Object, Object> targetDataSources) {
+        this.defaultDataSource = defaultTargetDataSource;
+        targetDataSources.forEach((key, value) -> {
+            dataSources.put(key.toString(), (DataSource) value);
+            DataSourceMetrics.bind(key.toString(), (DataSource) value);
+        });
         super.setDefaultTargetDataSource(defaultTargetDataSource);
         super.setTargetDataSources(targetDataSources);
         super.afterPropertiesSet();
@@ -26,24 +105,423 @@ public class DynamicDataSource extends AbstractRoutingDataSource {
     @Override
     protected Object determineCurrentLookupKey() {
         String dataSource = getDataSource();
-        if (dataSource != null) {
-            log.debug("===DateBase:" + dataSource);
+        if (log.isDebugEnabled()) {
+            log.debug("===DateBase:{}", dataSource == null ? MyCallBack.FIRST : dataSource);
+        }
+        return dataSource;
+    }
+
+    /*
+     * Author: zhangjiahao04
+     * Description: 从运行时数据源中路由,未指定或不存在的数据源使用默认数据源
+     * Date: 2026/10/18 22:20
+     * Param: []
+     * return: javax.sql.DataSource
+     **/
+    @Override
+    protected DataSource determineTargetDataSource() {
+        Object lookupKey = determineCurrentLookupKey();
+        DataSource dataSource = lookupKey == null ? null : dataSources.get(lookupKey.toString());
+        if (dataSource == null) {
+            if (lookupKey != null) {
+                log.warn("数据源{}不存在,使用默认数据源", lookupKey);
+            }
+            dataSource = defaultDataSource;
+        }
+        return dataSource;
+    }
+
+    /*
+     * Author: zhangjiahao04
+     * Description: 只读请求优先从当前数据源的健康读库获取连接,读库获取失败时标记为不健康并回退到主库
+     * Date: 2026/10/18 22:40
+     * Param: []
+     * return: java.sql.Connection
+     **/
+    @Override
+    public Connection getConnection() throws SQLException {
+        ReplicaGroup.Replica replica = chooseReplica();
+        if (replica != null) {
+            try {
+                return replica.getDataSource().getConnection();
+            } catch (SQLException e) {
+                replicaFailed(replica, e);
+            }
+        }
+        return super.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        ReplicaGroup.Replica replica = chooseReplica();
+        if (replica != null) {
+            try {
+                return replica.getDataSource().getConnection(username, password);
+            } catch (SQLException e) {
+                replicaFailed(replica, e);
+            }
+        }
+        return super.getConnection(username, password);
+    }
+
+    private ReplicaGroup.Replica chooseReplica() {
+        if (replicaGroups.isEmpty() || !isReadOnly()) {
+            return null;
+        }
+        String key = getDataSource();
+        ReplicaGroup group = replicaGroups.get(key == null ? MyCallBack.FIRST : key);
+        if (group == null) {
+            return null;
+        }
+        List<ReplicaGroup.Replica> candidates = group.healthyReplicas();
+        if (candidates.isEmpty()) {
+            log.debug("数据源{}没有健康的读库,使用主库", group.getPrimary());
+            return null;
+        }
+        return balancer.choose(group, candidates);
+    }
+
+    private void replicaFailed(ReplicaGroup.Replica replica, SQLException e) {
+        replica.markDown(e.toString());
+        log.warn("读库{}获取连接失败,标记为不健康并回退到主库", replica.getName(), e);
+    }
+
+    /*
+     * Author: zhangjiahao04
+     * Description: 设置数据源的读库,读库须是已添加的数据源;replicas为空时取消读写分离
+     * Date: 2026/10/18 22:40
+     * Param: [primary, replicas]
+     * return: void
+     **/
+    public void setReplicas(String primary, List<String> replicas) {
+        if (replicas == null || replicas.isEmpty()) {
+            replicaNames.remove(primary);
+            replicaGroups.remove(primary);
+            return;
+        }
+        replicaNames.put(primary, new ArrayList<>(replicas));
+        rebuildGroup(primary);
+    }
+
+    public Map<String, ReplicaGroup> getReplicaGroups() {
+        return Collections.unmodifiableMap(replicaGroups);
+    }
+
+    public void setBalancer(ReplicaBalancer balancer) {
+        this.balancer = balancer == null ? ReplicaBalance.ROUND_ROBIN : balancer;
+    }
+
+    private void rebuildGroup(String primary) {
+        List<String> names = replicaNames.get(primary);
+        if (names == null) {
+            return;
+        }
+        if (!dataSources.containsKey(primary)) {
+            replicaGroups.remove(primary);
+            return;
+        }
+        List<ReplicaGroup.Replica> replicas = new ArrayList<>(names.size());
+        for (String name : names) {
+            DataSource dataSource = dataSources.get(name);
+            if (dataSource == null) {
+                log.warn("数据源{}的读库{}不存在", primary, name);
+            } else {
+                replicas.add(new ReplicaGroup.Replica(name, dataSource));
+            }
+        }
+        if (replicas.isEmpty()) {
+            replicaGroups.remove(primary);
         } else {
-            log.debug("===DateBase:" + MyCallBack.FIRST);
+            replicaGroups.put(primary, new ReplicaGroup(primary, replicas));
+            ensureHealthCheck();
+        }
+    }
+
+    /**
+     * 运行时添加的读库同样需要健康检查,否则获取连接失败被标记为不健康后不会再恢复
+     */
+    private synchronized void ensureHealthCheck() {
+        if (healthCheck == null && healthCheckInterval > 0) {
+            startHealthCheck(healthCheckInterval);
         }
+    }
+
+    public void setHealthCheckInterval(long healthCheckInterval) {
+        this.healthCheckInterval = healthCheckInterval;
+    }
+
+    private void rebuildGroups(String changed) {
+        replicaNames.forEach((primary, names) -> {
+            if (primary.equals(changed) || names.contains(changed)) {
+                rebuildGroup(primary);
+            }
+        });
+    }
+
+    /*
+     * Author: zhangjiahao04
+     * Description: 定时检查读库,恢复的读库重新参与负载均衡;interval小于等于0时停止检查,之后新增的读库也不再自动检查
+     * Date: 2026/10/18 22:40
+     * Param: [interval 检查间隔ms]
+     * return: void
+     **/
+    public synchronized void startHealthCheck(long interval) {
+        stopHealthCheck();
+        healthCheckInterval = interval;
+        if (interval <= 0) {
+            return;
+        }
+        healthCheck = ExecutorUtil.getInstance().getScheduledExecutor(1, HEALTH_EXECUTOR_NAME)
+                .scheduleWithFixedDelay(this::checkReplicas, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stopHealthCheck() {
+        ScheduledFuture<?> current = healthCheck;
+        healthCheck = null;
+        if (current != null) {
+            current.cancel(false);
+        }
+    }
+
+    private void checkReplicas() {
+        for (ReplicaGroup group : replicaGroups.values()) {
+            for (ReplicaGroup.Replica replica : group.getReplicas()) {
+                boolean before = replica.isHealthy();
+                boolean after = replica.check(HEALTH_CHECK_TIMEOUT);
+                if (before != after) {
+                    if (after) {
+                        log.info("读库{}恢复", replica.getName());
+                    } else {
+                        log.warn("读库{}不可用:{}", replica.getName(), replica.getLastError());
+                    }
+                }
+            }
+        }
+    }
+
+    /*
+     * Author: zhangjiahao04
+     * Description: 运行时添加数据源,同名数据源被替换后等待其进行中的连接归还再关闭
+     * Date: 2026/10/18 22:20
+     * Param: [name, dataSource]
+     * return: void
+     **/
+    public void addDataSource(String name, DataSource dataSource) {
+        DataSourceMetrics.bind(name, dataSource);
+        DataSource old = dataSources.put(name, dataSource);
+        log.info("添加数据源{}", name);
+        rebuildGroups(name);
+        if (old != null && old != dataSource) {
+            drain(name, old);
+        }
+    }
+
+    /*
+     * Author: zhangjiahao04
+     * Description: 运行时按druid配置(与spring.datasource下的配置项相同,如url、username、password、max-active)创建并添加数据源
+     * Date: 2026/10/18 22:20
+     * Param: [name, properties]
+     * return: com.alibaba.druid.pool.DruidDataSource
+     **/
+    public DruidDataSource addDataSource(String name, Map<String, ?> properties) {
+        DruidDataSource dataSource = buildDataSource(properties);
+        addDataSource(name, dataSource);
         return dataSource;
     }
 
+    /*
+     * Author: zhangjiahao04
+     * Description: 按druid配置创建数据源,绑定规则与@ConfigurationProperties相同
+     * Date: 2026/10/18 22:20
+     * Param: [properties]
+     * return: com.alibaba.druid.pool.DruidDataSource
+     **/
+    public static DruidDataSource buildDataSource(Map<String, ?> properties) {
+        DruidDataSource dataSource = DruidDataSourceBuilder.create().build();
+        new Binder(new MapConfigurationPropertySource(properties)).bind(ConfigurationPropertyName.EMPTY,
+                Bindable.ofInstance(dataSource));
+        return dataSource;
+    }
+
+    /*
+     * Author: zhangjiahao04
+     * Description: 运行时移除数据源,新请求不再路由到该数据源,等待进行中的连接归还(最长drainTimeout)后关闭;默认数据源不能移除
+     * Date: 2026/10/18 22:20
+     * Param: [name]
+     * return: boolean 是否移除
+     **/
+    public boolean removeDataSource(String name) {
+        DataSource dataSource = dataSources.get(name);
+        if (dataSource == null) {
+            return false;
+        }
+        if (dataSource == defaultDataSource) {
+            throw new IllegalArgumentException("默认数据源" + name + "不能移除");
+        }
+        if (!dataSources.remove(name, dataSource)) {
+            return false;
+        }
+        log.info("移除数据源{}", name);
+        DataSourceMetrics.unbind(name);
+        rebuildGroups(name);
+        drain(name, dataSource);
+        return true;
+    }
+
+    /**
+     * 当前所有数据源(只读视图)
+     */
+    public Map<String, DataSource> getDataSources() {
+        return Collections.unmodifiableMap(dataSources);
+    }
+
+    public DataSource getDataSource(String name) {
+        return dataSources.get(name);
+    }
+
+    public boolean containsDataSource(String name) {
+        return dataSources.containsKey(name);
+    }
+
+    /**
+     * 容器关闭时关闭全部数据源(@Bean默认以close为销毁方法),已关闭的druid数据源会跳过
+     */
+    public void close() {
+        stopHealthCheck();
+        dataSources.forEach(this::close);
+    }
+
+    public void setDrainTimeout(long drainTimeout) {
+        this.drainTimeout = drainTimeout;
+    }
+
+    private void drain(String name, DataSource dataSource) {
+        if (dataSources.containsValue(dataSource)) {
+            // 仍以其他名称注册,不能关闭
+            return;
+        }
+        long deadline = System.currentTimeMillis() + drainTimeout;
+        ScheduledExecutorService executor = ExecutorUtil.getInstance().getScheduledExecutor(1, EXECUTOR_NAME);
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                int active = activeCount(dataSource);
+                if (active > 0 && System.currentTimeMillis() < deadline) {
+                    executor.schedule(this, DRAIN_CHECK_INTERVAL, TimeUnit.MILLISECONDS);
+                    return;
+                }
+                if (active > 0) {
+                    log.warn("数据源{}等待{}ms后仍有{}个连接未归还,强制关闭", name, drainTimeout, active);
+                }
+                close(name, dataSource);
+            }
+        });
+    }
+
+    private static int activeCount(DataSource dataSource) {
+        if (dataSource instanceof DruidDataSource) {
+            return ((DruidDataSource) dataSource).getActiveCount();
+        }
+        return 0;
+    }
+
+    private void close(String name, DataSource dataSource) {
+        try {
+            if (dataSource instanceof DruidDataSource) {
+                DruidDataSource druid = (DruidDataSource) dataSource;
+                if (!druid.isClosed()) {
+                    druid.close();
+                }
+            } else if (dataSource instanceof AutoCloseable) {
+                ((AutoCloseable) dataSource).close();
+            }
+            log.info("数据源{}已关闭", name);
+        } catch (Exception e) {
+            log.error("关闭数据源{}失败", name, e);
+        }
+    }
+
+    /**
+     * 替换当前数据源,嵌套调用请使用push/pop
+     */
     public static void setDataSource(String dataSource) {
-        HOLDER.set(dataSource);
+        Deque<String> stack = HOLDER.get();
+        if (stack != null && !stack.isEmpty()) {
+            stack.pop();
+        }
+        push(dataSource);
     }
 
     public static String getDataSource() {
-        return HOLDER.get();
+        Deque<String> stack = HOLDER.get();
+        if (stack == null) {
+            return null;
+        }
+        String dataSource = stack.peek();
+        return NONE.equals(dataSource) ? null : dataSource;
+    }
+
+    /*
+     * Author: zhangjiahao04
+     * Description: 进入数据源,须与pop成对调用;null表示默认数据源
+     * Date: 2026/10/18 23:20
+     * Param: [dataSource]
+     * return: void
+     **/
+    public static void push(String dataSource) {
+        Deque<String> stack = HOLDER.get();
+        if (stack == null) {
+            stack = new ArrayDeque<>(4);
+            HOLDER.set(stack);
+        }
+        stack.push(dataSource == null ? NONE : dataSource);
     }
 
+    /**
+     * 退出数据源,恢复外层调用的数据源
+     */
+    public static void pop() {
+        Deque<String> stack = HOLDER.get();
+        if (stack == null) {
+            return;
+        }
+        stack.poll();
+        if (stack.isEmpty()) {
+            HOLDER.remove();
+        }
+    }
+
+    /**
+     * 清空当前线程的全部数据源
+     */
     public static void clearDataSource() {
         HOLDER.remove();
     }
 
+    /**
+     * 标记当前线程为只读,有读库时从读库获取连接
+     */
+    public static void setReadOnly(Boolean readOnly) {
+        if (readOnly == null) {
+            READ_ONLY.remove();
+        } else {
+            READ_ONLY.set(readOnly);
+        }
+    }
+
+    /**
+     * 是否只读:@DataSource(readOnly = true)、@Transactional(readOnly = true)或当前事务只读
+     */
+    public static boolean isReadOnly() {
+        Boolean readOnly = READ_ONLY.get();
+        if (readOnly != null) {
+            return readOnly;
+        }
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    public static Boolean getReadOnly() {
+        return READ_ONLY.get();
+    }
+
 }
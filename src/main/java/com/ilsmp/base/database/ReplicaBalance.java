@@ -0,0 +1,68 @@
+package com.ilsmp.base.database;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/*
+ * Author: zhangjiahao04
+ * Description: 内置读库负载均衡策略
+ * Date: 2026/10/18 22:40
+ **/
+public enum ReplicaBalance implements ReplicaBalancer {
+    /**
+     * 轮询
+     */
+    ROUND_ROBIN {
+        @Override
+        public ReplicaGroup.Replica choose(ReplicaGroup group, List<ReplicaGroup.Replica> candidates) {
+            return candidates.get(Math.floorMod(group.nextIndex(), candidates.size()));
+        }
+    },
+    /**
+     * 活跃连接最少,取druid连接池的活跃连接数,相同时轮询
+     */
+    LEAST_ACTIVE {
+        @Override
+        public ReplicaGroup.Replica choose(ReplicaGroup group, List<ReplicaGroup.Replica> candidates) {
+            int size = candidates.size();
+            int start = Math.floorMod(group.nextIndex(), size);
+            ReplicaGroup.Replica best = null;
+            int bestActive = Integer.MAX_VALUE;
+            for (int i = 0; i < size; i++) {
+                ReplicaGroup.Replica replica = candidates.get((start + i) % size);
+                int active = replica.getActiveCount();
+                if (active < bestActive) {
+                    best = replica;
+                    bestActive = active;
+                }
+            }
+            return best;
+        }
+    },
+    /**
+     * 按健康检查测得的延迟加权随机,延迟越低被选中的概率越大
+     */
+    LATENCY_WEIGHTED {
+        @Override
+        public ReplicaGroup.Replica choose(ReplicaGroup group, List<ReplicaGroup.Replica> candidates) {
+            int size = candidates.size();
+            if (size == 1) {
+                return candidates.get(0);
+            }
+            double total = 0;
+            double[] weights = new double[size];
+            for (int i = 0; i < size; i++) {
+                weights[i] = 1.0 / Math.max(1L, candidates.get(i).getLatencyMicros());
+                total += weights[i];
+            }
+            double random = ThreadLocalRandom.current().nextDouble(total);
+            for (int i = 0; i < size; i++) {
+                random -= weights[i];
+                if (random < 0) {
+                    return candidates.get(i);
+                }
+            }
+            return candidates.get(size - 1);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.ilsmp.base.database;
+
+import java.util.List;
+
+/*
+ * Author: zhangjiahao04
+ * Description: 读库负载均衡策略,内置实现见ReplicaBalance,可通过DynamicDataSource.setBalancer替换为自定义实现
+ * Date: 2026/10/18 22:40
+ **/
+public interface ReplicaBalancer {
+
+    /*
+     * Author: zhangjiahao04
+     * Description: 从健康的读库中选择一个
+     * Date: 2026/10/18 22:40
+     * Param: [group 读库所属分组, candidates 健康的读库,不为空]
+     * return: com.ilsmp.base.database.ReplicaGroup.Replica
+     **/
+    ReplicaGroup.Replica choose(ReplicaGroup group, List<ReplicaGroup.Replica> candidates);
+}
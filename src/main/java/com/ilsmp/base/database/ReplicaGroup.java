@@ -0,0 +1,137 @@
+package com.ilsmp.base.database;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.alibaba.druid.pool.DruidDataSource;
+
+/*
+ * Author: zhangjiahao04
+ * Description: 主库及其读库分组,读库的健康状态和延迟由健康检查和获取连接失败时更新
+ * Date: 2026/10/18 22:40
+ **/
+public class ReplicaGroup {
+
+    /**
+     * 延迟平滑系数
+     */
+    private static final double LATENCY_ALPHA = 0.3;
+
+    private final String primary;
+    private final List<Replica> replicas;
+    private final AtomicInteger counter = new AtomicInteger();
+
+    public ReplicaGroup(String primary, List<Replica> replicas) {
+        this.primary = primary;
+        this.replicas = Collections.unmodifiableList(new ArrayList<>(replicas));
+    }
+
+    public String getPrimary() {
+        return primary;
+    }
+
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    int nextIndex() {
+        return counter.getAndIncrement();
+    }
+
+    /**
+     * 当前健康的读库,全部正常时直接返回全部读库
+     */
+    List<Replica> healthyReplicas() {
+        for (int i = 0; i < replicas.size(); i++) {
+            if (!replicas.get(i).healthy) {
+                List<Replica> healthy = new ArrayList<>(replicas.size());
+                for (Replica replica : replicas) {
+                    if (replica.healthy) {
+                        healthy.add(replica);
+                    }
+                }
+                return healthy;
+            }
+        }
+        return replicas;
+    }
+
+    /*
+     * Author: zhangjiahao04
+     * Description: 单个读库
+     * Date: 2026/10/18 22:40
+     **/
+    public static class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        private volatile boolean healthy = true;
+        private volatile long latencyMicros = 1000L;
+        private volatile String lastError;
+
+        public Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public DataSource getDataSource() {
+            return dataSource;
+        }
+
+        public boolean isHealthy() {
+            return healthy;
+        }
+
+        public long getLatencyMicros() {
+            return latencyMicros;
+        }
+
+        public String getLastError() {
+            return lastError;
+        }
+
+        public int getActiveCount() {
+            if (dataSource instanceof DruidDataSource) {
+                return ((DruidDataSource) dataSource).getActiveCount();
+            }
+            return 0;
+        }
+
+        /*
+         * Author: zhangjiahao04
+         * Description: 获取连接并校验,记录延迟和健康状态
+         * Date: 2026/10/18 22:40
+         * Param: [timeoutSeconds]
+         * return: boolean 是否健康
+         **/
+        boolean check(int timeoutSeconds) {
+            long start = System.nanoTime();
+            try (Connection connection = dataSource.getConnection()) {
+                if (!connection.isValid(timeoutSeconds)) {
+                    markDown("connection is not valid");
+                    return false;
+                }
+                long micros = Math.max(1L, (System.nanoTime() - start) / 1000);
+                latencyMicros = (long) (LATENCY_ALPHA * micros + (1 - LATENCY_ALPHA) * latencyMicros);
+                healthy = true;
+                lastError = null;
+                return true;
+            } catch (Exception e) {
+                markDown(e.toString());
+                return false;
+            }
+        }
+
+        void markDown(String error) {
+            healthy = false;
+            lastError = error;
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package com.ilsmp.base.database;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import com.ilsmp.base.util.EncryptUtil;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+
+/*
+ * Author: zhangjiahao04
+ * Description: 按分片键(如租户id、项目id)选择数据源。
+ * BUCKET模式:整数分片键按abs(id) % buckets(与EncryptUtil.crc32ToBucketId(Long)相同),其他分片键按crc32(字符串) % buckets
+ * (与crc32ToBucketId(String)、crc32ToEsBucketId相同)得到桶号,再按bucketMap映射到数据源;
+ * CONSISTENT_HASH模式:分片键落在shards组成的一致性哈希环上,增加分片时只有相邻区间的数据迁移
+ * Date: 2026/10/18 23:00
+ **/
+@Slf4j
+public class ShardRouter {
+
+    private final ShardMode mode;
+    private final int buckets;
+    /**
+     * 桶号 -> 数据源,下标为桶号
+     */
+    private final String[] bucketTargets;
+    private volatile NavigableMap<Long, String> ring = Collections.emptyNavigableMap();
+    private volatile List<String> shards = Collections.emptyList();
+    private final int virtualNodes;
+    /**
+     * 校验分片数据源是否已注册,为null时不校验
+     */
+    private final DynamicDataSource dataSource;
+
+    public ShardRouter(ShardConfig config) {
+        this(config, null);
+    }
+
+    /*
+     * Author: zhangjiahao04
+     * Description: bucketMap和shards中的数据源必须已在dataSource中注册,否则启动失败
+     * Date: 2026/10/18 23:00
+     * Param: [config, dataSource]
+     **/
+    public ShardRouter(ShardConfig config, DynamicDataSource dataSource) {
+        this.dataSource = dataSource;
+        this.mode = config.getMode() == null ? ShardMode.BUCKET : config.getMode();
+        this.buckets = Math.max(1, config.getBuckets());
+        this.virtualNodes = Math.max(1, config.getVirtualNodes());
+        this.bucketTargets = new String[buckets];
+        config.getBucketMap().forEach((range, target) -> mapBuckets(range, target));
+        setShards(config.getShards());
+    }
+
+    /*
+     * Author: zhangjiahao04
+     * Description: 分片键对应的数据源,未配置时返回null;路由到的数据源已被移除时抛出异常,不能回退到默认数据源
+     * Date: 2026/10/18 23:00
+     * Param: [shardKey 整数、字符串或其他对象(按toString)]
+     * return: java.lang.String
+     **/
+    public String route(Object shardKey) {
+        if (shardKey == null) {
+            return null;
+        }
+        String target;
+        if (mode == ShardMode.CONSISTENT_HASH) {
+            NavigableMap<Long, String> current = ring;
+            if (current.isEmpty()) {
+                return null;
+            }
+            Map.Entry<Long, String> entry = current.ceilingEntry(mix(crc32(shardKey.toString())));
+            target = entry == null ? current.firstEntry().getValue() : entry.getValue();
+        } else {
+            target = bucketTargets[bucketOf(shardKey)];
+        }
+        if (target != null && dataSource != null && !dataSource.containsDataSource(target)) {
+            throw new IllegalStateException("分片键" + shardKey + "对应的数据源" + target + "不存在");
+        }
+        return target;
+    }
+
+    /**
+     * 分片键的桶号,整数键与已按crc32ToBucketId(Long)分桶的数据一致
+     */
+    public int bucketOf(Object shardKey) {
+        if (shardKey instanceof Long || shardKey instanceof Integer || shardKey instanceof Short
+                || shardKey instanceof Byte) {
+            return (int) Math.abs(((Number) shardKey).longValue() % buckets);
+        }
+        return (int) (crc32(shardKey.toString()) % buckets);
+    }
+
+    /*
+     * Author: zhangjiahao04
+     * Description: 替换一致性哈希的分片数据源,每个分片virtualNodes个虚拟节点
+     * Date: 2026/10/18 23:00
+     * Param: [shards]
+     * return: void
+     **/
+    public synchronized void setShards(List<String> shards) {
+        List<String> names = shards == null ? Collections.emptyList() : new ArrayList<>(shards);
+        names.forEach(this::checkTarget);
+        NavigableMap<Long, String> next = new TreeMap<>();
+        for (String shard : names) {
+            for (int i = 0; i < virtualNodes; i += 4) {
+                byte[] digest = md5(shard + "#" + i);
+                // ketama:每个md5摘要取4个32位位置
+                for (int h = 0; h < 4 && i + h < virtualNodes; h++) {
+                    long position = (long) (digest[3 + h * 4] & 0xFF) << 24
+                            | (long) (digest[2 + h * 4] & 0xFF) << 16
+                            | (long) (digest[1 + h * 4] & 0xFF) << 8
+                            | digest[h * 4] & 0xFF;
+                    next.putIfAbsent(position, shard);
+                }
+            }
+        }
+        this.shards = Collections.unmodifiableList(names);
+        this.ring = Collections.unmodifiableNavigableMap(next);
+    }
+
+    public List<String> getShards() {
+        return shards;
+    }
+
+    public ShardMode getMode() {
+        return mode;
+    }
+
+    private void mapBuckets(String range, String target) {
+        // 配置形如 0-49 或 7
+        String[] parts = range.trim().split("-");
+        int from = Integer.parseInt(parts[0].trim());
+        int to = parts.length > 1 ? Integer.parseInt(parts[1].trim()) : from;
+        if (from < 0 || to >= buckets || from > to) {
+            throw new IllegalArgumentException("分片桶范围" + range + "超出0-" + (buckets - 1));
+        }
+        checkTarget(target);
+        for (int i = from; i <= to; i++) {
+            bucketTargets[i] = target;
+        }
+    }
+
+    private void checkTarget(String target) {
+        if (dataSource != null && !dataSource.containsDataSource(target)) {
+            throw new IllegalArgumentException("分片数据源" + target + "未注册");
+        }
+    }
+
+    private static long crc32(String shardKey) {
+        return EncryptUtil.crc32Hasher().putString(shardKey).getValue();
+    }
+
+    /**
+     * crc32在相近的键上分布不均,落环前再做一次混合,结果仍为32位
+     */
+    private static long mix(long hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x85EBCA6BL;
+        hash ^= (hash & 0xFFFFFFFFL) >>> 13;
+        hash *= 0xC2B2AE35L;
+        hash ^= (hash & 0xFFFFFFFFL) >>> 16;
+        return hash & 0xFFFFFFFFL;
+    }
+
+    private static byte[] md5(String value) {
+        try {
+            return MessageDigest.getInstance("MD5").digest(value.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public enum ShardMode {
+        /**
+         * crc32取模分桶,按桶号映射数据源
+         */
+        BUCKET,
+        /**
+         * 一致性哈希
+         */
+        CONSISTENT_HASH
+    }
+
+    /*
+     * Description: 分片路由配置
+     **/
+    @Data
+    public static class ShardConfig {
+        /**
+         * 分片模式
+         */
+        private ShardMode mode = ShardMode.BUCKET;
+        /**
+         * BUCKET模式的桶数,默认与crc32ToBucketId相同
+         */
+        private Integer buckets = 100;
+        /**
+         * BUCKET模式桶号范围 -> 数据源,如 0-49: first
+         */
+        private Map<String, String> bucketMap = new LinkedHashMap<>();
+        /**
+         * CONSISTENT_HASH模式的分片数据源
+         */
+        private List<String> shards = new ArrayList<>();
+        /**
+         * CONSISTENT_HASH模式每个分片的虚拟节点数
+         */
+        private Integer virtualNodes = 160;
+    }
+}
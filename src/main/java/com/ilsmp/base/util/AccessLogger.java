@@ -0,0 +1,373 @@
+package com.ilsmp.base.util;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.util.WebUtils;
+
+/*
+ * Author: zhangjiahao04
+ * Description: 请求访问日志。请求线程只做采样判断和必要字段的采集,放入有界无锁环形队列后立即返回,
+ * 由后台线程序列化、脱敏后写入名为access-log的logger;队列满时丢弃并计数,请求线程不会因日志阻塞
+ * Date: 2026/10/18 17:40
+ **/
+@Slf4j
+public class AccessLogger {
+
+    public static final String LOGGER_NAME = "access-log";
+    /**
+     * 请求是否被采样的request属性
+     */
+    public static final String SAMPLED_ATTRIBUTE = AccessLogger.class.getName() + ".SAMPLED";
+    private static final String REDACTED = "******";
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+    private static final Logger ACCESS_LOG = LoggerFactory.getLogger(LOGGER_NAME);
+    /**
+     * 写线程空闲时的最长休眠时间,有新日志时由请求线程唤醒
+     */
+    private static final long IDLE_PARK_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private static volatile AccessLogConfig accessLogConfig = new AccessLogConfig();
+    private static volatile Set<String> redactHeaders = lowerCase(accessLogConfig.getRedactHeaders());
+    private static volatile RingBuffer<Entry> buffer;
+    private static final Counter droppedCounter = Counter.builder("access.log.dropped")
+            .description("访问日志队列已满被丢弃的条数")
+            .register(Metrics.globalRegistry);
+
+    private AccessLogger() {
+    }
+
+    /**
+     * 更新访问日志配置,队列容量变化时新建队列,旧队列中的日志由写线程继续写完
+     */
+    public static synchronized void configure(AccessLogConfig config) {
+        if (config == null) {
+            return;
+        }
+        accessLogConfig = config;
+        redactHeaders = lowerCase(config.getRedactHeaders());
+        if (buffer != null && buffer.capacity() != RingBuffer.capacityFor(config.getBufferSize())) {
+            RingBuffer<Entry> old = buffer;
+            buffer = null;
+            old.closed = true;
+            LockSupport.unpark(old.consumer);
+        }
+    }
+
+    public static AccessLogConfig getAccessLogConfig() {
+        return accessLogConfig;
+    }
+
+    /**
+     * 判断请求是否需要记录,结果保存到request属性中,同一请求多次调用结果一致
+     */
+    public static boolean isSampled(HttpServletRequest request) {
+        Object sampled = request.getAttribute(SAMPLED_ATTRIBUTE);
+        if (sampled instanceof Boolean) {
+            return (Boolean) sampled;
+        }
+        boolean result = sample(accessLogConfig, request.getRequestURI());
+        request.setAttribute(SAMPLED_ATTRIBUTE, result);
+        return result;
+    }
+
+    /**
+     * 提交一条访问日志,不阻塞
+     * @param request 请求
+     * @param status 响应状态码
+     * @param durationNanos 请求耗时
+     * @param requestId 请求id
+     * @param ex 处理异常,可为null
+     */
+    public static void log(HttpServletRequest request, int status, long durationNanos, String requestId,
+                           Exception ex) {
+        AccessLogConfig config = accessLogConfig;
+        if (!Boolean.TRUE.equals(config.getEnabled()) || !isSampled(request)) {
+            return;
+        }
+        Entry entry = new Entry();
+        entry.requestId = requestId;
+        entry.method = request.getMethod();
+        entry.uri = request.getRequestURI();
+        entry.query = request.getQueryString();
+        entry.remoteAddr = request.getRemoteAddr();
+        entry.status = status;
+        entry.durationNanos = durationNanos;
+        entry.error = ex == null ? null : ex.toString();
+        if (Boolean.TRUE.equals(config.getLogHeaders())) {
+            entry.headers = RequestContext.of(request).getHeaders();
+        }
+        if (Boolean.TRUE.equals(config.getLogParams())) {
+            // 容器会回收参数map,这里需要复制
+            entry.params = new HashMap<>(request.getParameterMap());
+        }
+        if (Boolean.TRUE.equals(config.getLogBody())) {
+            // 只记录已缓存的请求体,不能在这里读取请求流
+            RequestWrapper wrapper = WebUtils.getNativeRequest(request, RequestWrapper.class);
+            if (wrapper != null && wrapper.isCached()) {
+                entry.body = wrapper.getBodyPrefix(Math.max(0, config.getMaxBodyLength()));
+            }
+        }
+        if (!buffer(config).offer(entry)) {
+            droppedCounter.increment();
+        }
+    }
+
+    private static boolean sample(AccessLogConfig config, String uri) {
+        if (!Boolean.TRUE.equals(config.getEnabled())) {
+            return false;
+        }
+        for (String pattern : config.getExclude()) {
+            if (PATH_MATCHER.match(pattern, uri)) {
+                return false;
+            }
+        }
+        if (!config.getInclude().isEmpty()) {
+            boolean included = false;
+            for (String pattern : config.getInclude()) {
+                if (PATH_MATCHER.match(pattern, uri)) {
+                    included = true;
+                    break;
+                }
+            }
+            if (!included) {
+                return false;
+            }
+        }
+        double rate = config.getSampleRate();
+        return rate >= 1 || rate > 0 && ThreadLocalRandom.current().nextDouble() < rate;
+    }
+
+    private static RingBuffer<Entry> buffer(AccessLogConfig config) {
+        RingBuffer<Entry> current = buffer;
+        if (current != null) {
+            return current;
+        }
+        synchronized (AccessLogger.class) {
+            if (buffer == null) {
+                RingBuffer<Entry> created = new RingBuffer<>(config.getBufferSize());
+                Gauge.builder("access.log.pending", created, RingBuffer::size)
+                        .description("访问日志队列中待写入的条数")
+                        .strongReference(false)
+                        .register(Metrics.globalRegistry);
+                Thread writer = new Thread(() -> drain(created), "access-log-writer");
+                writer.setDaemon(true);
+                created.consumer = writer;
+                writer.start();
+                buffer = created;
+            }
+            return buffer;
+        }
+    }
+
+    private static void drain(RingBuffer<Entry> ring) {
+        while (true) {
+            Entry entry = ring.poll();
+            if (entry == null) {
+                if (ring.size() > 0) {
+                    // 槽位已占用但生产者尚未写入
+                    Thread.onSpinWait();
+                    continue;
+                }
+                if (ring.closed) {
+                    return;
+                }
+                // 先声明等待再复查队列,生产者在声明之后入队时一定会看到waiting并唤醒
+                ring.waiting = true;
+                if (ring.size() == 0 && !ring.closed) {
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                }
+                ring.waiting = false;
+                continue;
+            }
+            try {
+                ACCESS_LOG.info(format(entry));
+            } catch (Exception e) {
+                log.warn("Failed to write access log for {} {}: {}", entry.method, entry.uri, e.toString());
+            }
+        }
+    }
+
+    private static String format(Entry entry) throws Exception {
+        Map<String, Object> line = new LinkedHashMap<>();
+        line.put("requestId", entry.requestId);
+        line.put("method", entry.method);
+        line.put("uri", entry.query == null ? entry.uri : entry.uri + "?" + entry.query);
+        line.put("status", entry.status);
+        line.put("duration", TimeUnit.NANOSECONDS.toMicros(entry.durationNanos) / 1000.0);
+        line.put("remoteAddr", entry.remoteAddr);
+        if (entry.headers != null) {
+            Set<String> redact = redactHeaders;
+            Map<String, String> headers = new LinkedHashMap<>();
+            entry.headers.forEach((key, value) -> headers.put(key, redact.contains(key.toLowerCase(Locale.ROOT))
+                    ? REDACTED : value));
+            line.put("headers", headers);
+        }
+        if (entry.params != null) {
+            line.put("params", entry.params);
+        }
+        if (entry.body != null) {
+            line.put("body", entry.body);
+        }
+        if (entry.error != null) {
+            line.put("error", entry.error);
+        }
+        return JsonUtil.getInstance().writeValueAsString(line);
+    }
+
+    private static Set<String> lowerCase(List<String> values) {
+        Set<String> set = new HashSet<>();
+        if (values != null) {
+            for (String value : values) {
+                set.add(value.trim().toLowerCase(Locale.ROOT));
+            }
+        }
+        return set;
+    }
+
+    private static final class Entry {
+        private String requestId;
+        private String method;
+        private String uri;
+        private String query;
+        private String remoteAddr;
+        private int status;
+        private long durationNanos;
+        private String error;
+        private Map<String, String> headers;
+        private Map<String, String[]> params;
+        private String body;
+    }
+
+    /*
+     * Description: 有界多生产者单消费者环形队列,生产者CAS占位后写入槽位,消费者按序读取并清空槽位;
+     * 消费者空闲时休眠,队列由空变为非空时由生产者唤醒
+     **/
+    private static final class RingBuffer<E> {
+        private final AtomicReferenceArray<E> slots;
+        private final int mask;
+        private final AtomicLong tail = new AtomicLong();
+        private final AtomicLong head = new AtomicLong();
+        private volatile boolean closed;
+        private volatile boolean waiting;
+        private volatile Thread consumer;
+
+        private RingBuffer(int capacity) {
+            int size = capacityFor(capacity);
+            this.slots = new AtomicReferenceArray<>(size);
+            this.mask = size - 1;
+        }
+
+        private static int capacityFor(int capacity) {
+            int size = Math.max(2, Math.min(capacity, 1 << 20));
+            return Integer.highestOneBit(size - 1) << 1;
+        }
+
+        private int capacity() {
+            return mask + 1;
+        }
+
+        private boolean offer(E element) {
+            while (true) {
+                long current = tail.get();
+                if (current - head.get() >= capacity()) {
+                    return false;
+                }
+                if (tail.compareAndSet(current, current + 1)) {
+                    slots.lazySet((int) current & mask, element);
+                    if (waiting) {
+                        LockSupport.unpark(consumer);
+                    }
+                    return true;
+                }
+            }
+        }
+
+        /*
+         * Description: 仅由写线程调用;槽位已占用但尚未写入时返回null,下次再读
+         **/
+        private E poll() {
+            long current = head.get();
+            int index = (int) current & mask;
+            E element = slots.get(index);
+            if (element == null) {
+                return null;
+            }
+            slots.lazySet(index, null);
+            head.lazySet(current + 1);
+            return element;
+        }
+
+        private int size() {
+            return (int) Math.max(0, tail.get() - head.get());
+        }
+    }
+
+    /*
+     * Description: 访问日志配置
+     **/
+    @Data
+    public static class AccessLogConfig {
+        /**
+         * 是否记录访问日志,默认关闭
+         */
+        private Boolean enabled = false;
+        /**
+         * 采样比例,0~1,1表示全部记录
+         */
+        private Double sampleRate = 1.0;
+        /**
+         * 只记录匹配的路径(ant风格),为空表示全部
+         */
+        private List<String> include = new ArrayList<>();
+        /**
+         * 不记录的路径(ant风格),优先于include
+         */
+        private List<String> exclude = new ArrayList<>(List.of("/actuator/**"));
+        /**
+         * 是否记录请求头
+         */
+        private Boolean logHeaders = true;
+        /**
+         * 是否记录请求参数,参数中可能含敏感信息,默认不记录
+         */
+        private Boolean logParams = false;
+        /**
+         * 是否记录请求体,只记录经RequestWrapper缓存的请求体,默认不记录
+         */
+        private Boolean logBody = false;
+        /**
+         * 请求体最多记录的字节数,超出部分截断
+         */
+        private Integer maxBodyLength = 1024;
+        /**
+         * 需要脱敏的请求头,不区分大小写
+         */
+        private List<String> redactHeaders = new ArrayList<>(List.of("authorization", "cookie",
+                "proxy-authorization", "token"));
+        /**
+         * 日志队列容量,向上取整为2的幂,队列满时丢弃
+         */
+        private Integer bufferSize = 8192;
+    }
+}
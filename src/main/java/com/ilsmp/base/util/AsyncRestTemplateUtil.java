@@ -0,0 +1,1013 @@
+package com.ilsmp.base.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.async.methods.SimpleRequestProducer;
+import org.apache.hc.client5.http.async.methods.SimpleResponseConsumer;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManager;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.pool.PoolStats;
+import org.apache.hc.core5.reactor.IOReactorConfig;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.client.HttpMessageConverterExtractor;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.ResponseErrorHandler;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriTemplateHandler;
+
+/*
+ * Author: zhangjiahao04
+ * Description: 异步http工具类,与RestTemplateUtil的调用方式一一对应,返回CompletableFuture,
+ * 基于HttpClient5的非阻塞IO,等待响应期间不占用调用线程;
+ * 请求体序列化与响应体反序列化复用RestTemplateUtil的消息转换器和错误处理,
+ * 响应体反序列化在rest-async线程池中执行,避免阻塞IO线程
+ * Date: 2026/10/18 14:05
+ **/
+public class AsyncRestTemplateUtil {
+
+    /**
+     * 响应体反序列化使用的线程池名称,可通过spring.base.executors.rest-async单独配置,
+     * 未单独配置拒绝策略时为ABORT
+     */
+    public static final String CONVERT_EXECUTOR = "rest-async";
+
+    private static volatile CloseableHttpAsyncClient httpClient;
+    private static volatile PoolingAsyncClientConnectionManager connectionManager;
+
+    /**
+     * 按配置重建异步客户端,旧客户端在进行中的请求结束后关闭;客户端未创建时在首次调用时按该配置创建
+     * @param config http客户端配置,与RestTemplateUtil共用
+     */
+    public static synchronized void configure(RestTemplateUtil.HttpConfig config) {
+        CloseableHttpAsyncClient oldClient = httpClient;
+        if (config == null || oldClient == null) {
+            return;
+        }
+        httpClient = createClient(config);
+        oldClient.close(CloseMode.GRACEFUL);
+    }
+
+    /**
+     * 连接池统计信息,客户端未创建时返回空
+     * @return leased已借出,available空闲,pending等待,max最大连接数
+     */
+    public static Map<String, Integer> getPoolStats() {
+        Map<String, Integer> stats = new LinkedHashMap<>();
+        PoolingAsyncClientConnectionManager manager = connectionManager;
+        if (manager == null) {
+            return stats;
+        }
+        PoolStats total = manager.getTotalStats();
+        stats.put("leased", total.getLeased());
+        stats.put("available", total.getAvailable());
+        stats.put("pending", total.getPending());
+        stats.put("max", total.getMax());
+        return stats;
+    }
+
+    /**
+     * 异步GET请求调用方式
+     * @param url 请求URL
+     * @param responseType 返回对象类型
+     * @return ResponseEntity 响应对象封装类的CompletableFuture
+     */
+    public static <T> CompletableFuture<ResponseEntity<T>> get(String url, Class<T> responseType) {
+        return exchange(url, HttpMethod.GET, null, responseType);
+    }
+
+    public static <T> CompletableFuture<T> getEntity(String url, Class<T> responseType) {
+        return get(url, responseType).thenApply(ResponseEntity::getBody);
+    }
+
+    /**
+     * 异步GET请求调用方式
+     * @param url 请求URL
+     * @param responseType 返回对象类型
+     * @param uriVariables URL中的变量，按顺序依次对应
+     * @return ResponseEntity 响应对象封装类的CompletableFuture
+     */
+    public static <T> CompletableFuture<ResponseEntity<T>> get(String url, Class<T> responseType, Object... uriVariables) {
+        return exchange(url, HttpMethod.GET, null, responseType, uriVariables);
+    }
+
+    public static <T> CompletableFuture<T> getEntity(String url, Class<T> responseType, Object... uriVariables) {
+        return get(url, responseType, uriVariables).thenApply(ResponseEntity::getBody);
+    }
+
+    /**
+     * 异步GET请求调用方式
+     * @param url 请求URL
+     * @param responseType 返回对象类型
+     * @param uriVariables URL中的变量，与Map中的key对应
+     * @return ResponseEntity 响应对象封装类的CompletableFuture
+     */
+    public static <T> CompletableFuture<ResponseEntity<T>> get(String url, Class<T> responseType, Map<String, ?> uriVariables) {
+        return exchange(url, HttpMethod.GET, null, responseType, uriVariables);
+    }
+
+    public static <T> CompletableFuture<T> getEntity(String url, Class<T> responseType, Map<String, ?> uriVariables) {
+        return get(url, responseType, uriVariables).thenApply(ResponseEntity::getBody);
+    }
+
+    /**
+     * 异步GET请求调用方式
+     * @param url 请求URL
+     * @param headers 请求头参数
+     * @param responseType 返回对象类型
+     * @param uriVariables URL中的变量，按顺序依次对应
+     * @return ResponseEntity 响应对象封装类的CompletableFuture
+     */
+    public static <T> CompletableFuture<ResponseEntity<T>> get(String url, Map<String, String> headers, Class<T> responseType, Object... uriVariables) {
+        return exchange(url, HttpMethod.GET, entity(headers, null), responseType, uriVariables);
+    }
+
+    public static <T> CompletableFuture<T> getEntity(String url, Map<String, String> headers, Class<T> responseType, Object... uriVariables) {
+        return get(url, headers, responseType, uriVariables).thenApply(ResponseEntity::getBody);
+    }
+
+    /**
+     * 异步GET请求调用方式
+     * @param url 请求URL
+     * @param headers 请求头参数
+     * @param responseType 返回对象类型
+     * @param uriVariables URL中的变量，按顺序依次对应
+     * @return ResponseEntity 响应对象封装类的CompletableFuture
+     */
+    public static <T> CompletableFuture<ResponseEntity<T>> get(String url, HttpHeaders headers, Class<T> responseType, Object... uriVariables) {
+        return exchange(url, HttpMethod.GET, entity(headers, null), responseType, uriVariables);
+    }
+
+    public static <T> CompletableFuture<T> getEntity(String url, HttpHeaders headers, Class<T> responseType, Object... uriVariables) {
+        return get(url, headers, responseType, uriVariables).thenApply(ResponseEntity::getBody);
+    }
+
+    /**
+     * 异步GET请求调用方式
+     * @param url 请求URL
+     * @param headers 请求头参数
+     * @param responseType 返回对象类型
+     * @param uriVariables URL中的变量，与Map中的key对应
+     * @return ResponseEntity 响应对象封装类的CompletableFuture
+     */
+    public static <T> CompletableFuture<ResponseEntity<T>> get(String url, Map<String, String> headers, Class<T> responseType, Map<String, ?> uriVariables) {
+        return exchange(url, HttpMethod.GET, entity(headers, null), responseType, uriVariables);
+    }
+
+    public static <T> CompletableFuture<T> getEntity(String url, Map<String, String> headers, Class<T> responseType, Map<String, ?> uriVariables) {
+        return get(url, headers, responseType, uriVariables).thenApply(ResponseEntity::getBody);
+    }
+
+    /**
+     * 异步GET请求调用方式
+     * @param url 请求URL
+     * @param headers 请求头参数
+     * @param responseType 返回对象类型
+     * @param uriVariables URL中的变量，与Map中的key对应
+     * @return ResponseEntity 响应对象封装类的CompletableFuture
+     */
+    public static <T> CompletableFuture<ResponseEntity<T>> get(String url, HttpHeaders headers, Class<T> responseType, Map<String, ?> uriVariables) {
+        return exchange(url, HttpMethod.GET, entity(headers, null), responseType, uriVariables);
+    }
+
+    public static <T> CompletableFuture<T> getEntity(String url, HttpHeaders headers, Class<T> responseType, Map<String, ?> uriVariables) {
+        return get(url, headers, responseType, uriVariables).thenApply(ResponseEntity::getBody);
+    }
+
+    /**
+     * 异步POST请求调用方式
+     * @param url 请求URL
+     * @param responseType 返回对象类型
+     * @return ResponseEntity 响应对象封装类的CompletableFuture
+     */
+    public static <T> CompletableFuture<ResponseEntity<T>> post(String url, Class<T> responseType) {
+        return exchange(url, HttpMethod.POST, HttpEntity.EMPTY, responseType);
+    }
+
+    public static <T> CompletableFuture<T> postEntity(String url, Class<T> responseType) {
+        return post(url, responseType).thenApply(ResponseEntity::getBody);
+    }
+
+    /**
+     * 异步POST请求调用方式
+     * @param url 请求URL
+     * @param requestBody 请求参数体
+     * @param responseType 返回对象类型
+     * @return ResponseEntity 响应对象封装类的CompletableFuture
+     */
+    public static <T> CompletableFuture<ResponseEntity<T>> post(String url, Object requestBody, Class<T> responseType) {
+        return exchange(url, HttpMethod.POST, entity(requestBody), responseType);
+    }
+
+    public static <T> CompletableFuture<T> postEntity(String url, Object requestBody, Class<T> responseType) {
+        return post(url, requestBody, responseType).thenApply(ResponseEntity::getBody);
+    }
+
+    /**
+     * 异步POST请求调用方式
+     * @param url 请求URL
+     * @param requestBody 请求参数体
+     * @param responseType 返回对象类型
+     * @param uriVariables URL中的变量，按顺序依次对应
+     * @return ResponseEntity 响应对象封装类的CompletableFuture
+     */
+    public static <T> CompletableFuture<ResponseEntity<T>> post(String url, Object requestBody, Class<T> responseType, Object... uriVariables) {
+        return exchange(url, HttpMethod.POST, entity(requestBody), responseType, uriVariables);
+    }
+
+    public static <T> CompletableFuture<T> postEntity(String url, Object requestBody, Class<T> responseType, Object... uriVariables) {
+        return post(url, requestBody, responseType, uriVariables).thenApply(ResponseEntity::getBody);
+    }
+
+    /**
+     * 异步POST请求调用方式
+     * @param url 请求URL
+     * @param requestBody 请求参数体
+     * @param responseType 返回对象类型
+     * @param uriVariables URL中的变量，与Map中的key对应
+     * @return ResponseEntity 响应对象封装类的CompletableFuture
+     */
+    public static <T> CompletableFuture<ResponseEntity<T>> post(String url, Object requestBody, Class<T> responseType, Map<String, ?> uriVariables) {
+        return exchange(url, HttpMethod.POST, entity(requestBody), responseType, uriVariables);
+    }
+
+    public static <T> CompletableFuture<T> postEntity(String url, Object requestBody, Class<T> responseType, Map<String, ?> uriVariables) {
+        return post(url, requestBody, responseType, uriVariables).thenApply(ResponseEntity::getBody);
+    }
+
+    /**
+     * 异步POST请求调用方式
+     * @param url 请求URL
+     * @param headers 请求头参数
+     * @param requestBody 请求参数体
+     * @param responseType 返回对象类型
+     * @param uriVariables URL中的变量，按顺序依次对应
+     * @return ResponseEntity 响应对象封装类的CompletableFuture
+     */
+    public static <T> CompletableFuture<ResponseEntity<T>> post(String url, Map<String, String> headers, Object requestBody, Class<T> responseType, Object... uriVariables) {
+        return exchange(url, HttpMethod.POST, entity(headers, requestBody), responseType, uriVariables);
+    }
+
+    public static <T> CompletableFuture<T> postEntity(String url, Map<String, String> headers, Object requestBody, Class<T> responseType, Object... uriVariables) {
+        return post(url, headers, requestBody, responseType, uriVariables).thenApply(ResponseEntity::getBody);
+    }
+
+    /**
+     * 异步POST请求调用方式
+     * @param url 请求URL
+     * @param headers 请求头参数
+     * @param requestBody 请求参数体
+     * @param responseType 返回对象类型
+     * @param uriVariables URL中的变量，按顺序依次对应
+     * @return ResponseEntity 响应对象封装类的CompletableFuture
+     */
+    public static <T> CompletableFuture<ResponseEntity<T>> post(String url, HttpHeaders headers, Object requestBody, Class<T> responseType, Object... uriVariables) {
+        return exchange(url, HttpMethod.POST, entity(headers, requestBody), responseType, uriVariables);
+    }
+
+    public static <T> CompletableFuture<T> postEntity(String url, HttpHeaders headers, Object requestBody, Class<T> responseType, Object... uriVariables) {
+        return post(url, headers, requestBody, responseType, uriVariables).thenApply(ResponseEntity::getBody);
+    }
+
+    /**
+     * 异步POST请求调用方式
+     * @param url 请求URL
+     * @param headers 请求头参数
+     * @param requestBody 请求参数体
+     * @param responseType 返回对象类型
+     * @param uriVariables URL中的变量，与Map中的key对应
+     * @return ResponseEntity 响应对象封装类的CompletableFuture
+     */
+    public static <T> CompletableFuture<ResponseEntity<T>> post(String url, Map<String, String> headers, Object requestBody, Class<T> responseType, Map<String, ?> uriVariables) {
+        return exchange(url, HttpMethod.POST, entity(headers, requestBody), responseType, uriVariables);
+    }
+
+    public static <T> CompletableFuture<T> postEntity(String url, Map<String, String> headers, Object requestBody, Class<T> responseType, Map<String, ?> uriVariables) {
+        return post(url, headers, requestBody, responseType, uriVariables).thenApply(ResponseEntity::getBody);
+    }
+
+    /**
+     * 异步POST请求调用方式
+     * @param url 请求URL
+     * @param headers 请求头参数
+     * @param requestBody 请求参数体
+     * @param responseType 返回对象类型
+     * @param uriVariables URL中的变量，与Map中的key对应
+     * @return ResponseEntity 响应对象封装类的CompletableFuture
+     */
+    public static <T> CompletableFuture<ResponseEntity<T>> post(String url, HttpHeaders headers, Object requestBody, Class<T> responseType, Map<String, ?> uriVariables) {
+        return exchange(url, HttpMethod.POST, entity(headers, requestBody), responseType, uriVariables);
+    }
+
+    public static <T> CompletableFuture<T> postEntity(String url, HttpHeaders headers, Object requestBody, Class<T> responseType, Map<String, ?> uriVariables) {
+        return post(url, headers, requestBody, responseType, uriVariables).thenApply(ResponseEntity::getBody);
+    }
+
+    /**
+     * 异步POST请求调用方式
+     * @param url 请求URL
+     * @param requestEntity 请求头和请求体封装对象
+     * @param responseType 返回对象类型
+     * @param uriVariables URL中的变量，按顺序依次对应
+     * @return ResponseEntity 响应对象封装类的CompletableFuture
+     */
+    public static <T> CompletableFuture<ResponseEntity<T>> post(String url, HttpEntity<?> requestEntity, Class<T> responseType, Object... uriVariables) {
+        return exchange(url, HttpMethod.POST, requestEntity, responseType, uriVariables);
+    }
+
+    public static <T> CompletableFuture<T> postEntity(String url, HttpEntity<?> requestEntity, Class<T> responseType, Object... uriVariables) {
+        return post(url, requestEntity, responseType, uriVariables).thenApply(ResponseEntity::getBody);
+    }
+
+    /**
+     * 异步POST请求调用方式
+     * @param url 请求URL
+     * @param requestEntity 请求头和请求体封装对象
+     * @param responseType 返回对象类型
+     * @param uriVariables URL中的变量，与Map中的key对应
+     * @return ResponseEntity 响应对象封装类的CompletableFuture
+     */
+    public static <T> CompletableFuture<ResponseEntity<T>> post(String url, HttpEntity<?> requestEntity, Class<T> responseType, Map<String, ?> uriVariables) {
+        return exchange(url, HttpMethod.POST, requestEntity, responseType, uriVariables);
+    }
+
+    public static <T> CompletableFuture<T> postEntity(String url, HttpEntity<?> requestEntity, Class<T> responseType, Map<String, ?> uriVariables) {
+        return post(url, requestEntity, responseType, uriVariables).thenApply(ResponseEntity::getBody);
+    }
+
+    /**
+     * 异步PUT请求调用方式
+     * @param url 请求URL
+     * @param responseType 返回对象类型
+     * @param uriVariables URL中的变量，按顺序依次对应
+     * @return ResponseEntity 响应对象封装类的CompletableFuture
+     */
+    public static <T> CompletableFuture<ResponseEntity<T>> put(String url, Class<T> responseType, Object... uriVariables) {
+        return exchange(url, HttpMethod.PUT, HttpEntity.EMPTY, responseType, uriVariables);
+    }
+
+    public static <T> CompletableFuture<T> putEntity(String url, Class<T> responseType, Object... uriVariables) {
+        return put(url, responseType, uriVariables).thenApply(ResponseEntity::getBody);
+    }
+
+    /**
+     * 异步PUT请求调用方式
+     * @param url 请求URL
+     * @param requestBody 请求参数体
+     * @param responseType 返回对象类型
+     * @param uriVariables URL中的变量，按顺序依次对应
+     * @return ResponseEntity 响应对象封装类的CompletableFuture
+     */
+    public static <T> CompletableFuture<ResponseEntity<T>> put(String url, Object requestBody, Class<T> responseType, Object... uriVariables) {
+        return exchange(url, HttpMethod.PUT, entity(requestBody), responseType, uriVariables);
+    }
+
+    public static <T> CompletableFuture<T> putEntity(String url, Object requestBody, Class<T> responseType, Object... uriVariables) {
+        return put(url, requestBody, responseType, uriVariables).thenApply(ResponseEntity::getBody);
+    }
+
+    /**
+     * 异步PUT请求调用方式
+     * @param url 请求URL
+     * @param requestBody 请求参数体
+     * @param responseType 返回对象类型
+     * @param uriVariables URL中的变量，与Map中的key对应
+     * @return ResponseEntity 响应对象封装类的CompletableFuture
+     */
+    public static <T> CompletableFuture<ResponseEntity<T>> put(String url, Object requestBody, Class<T> responseType, Map<String, ?> uriVariables) {
+        return exchange(url, HttpMethod.PUT, entity(requestBody), responseType, uriVariables);
+    }
+
+    public static <T> CompletableFuture<T> putEntity(String url, Object requestBody, Class<T> responseType, Map<String, ?> uriVariables) {
+        return put(url, requestBody, responseType, uriVariables).thenApply(ResponseEntity::getBody);
+    }
+
+    /**
+     * 异步PUT请求调用方式
+     * @param url 请求URL
+     * @param headers 请求头参数
+     * @param requestBody 请求参数体
+     * @param responseType 返回对象类型
+     * @param uriVariables URL中的变量，按顺序依次对应
+     * @return ResponseEntity 响应对象封装类的CompletableFuture
+     */
+    public static <T> CompletableFuture<ResponseEntity<T>> put(String url, Map<String, String> headers, Object requestBody, Class<T> responseType, Object... uriVariables) {
+        return exchange(url, HttpMethod.PUT, entity(headers, requestBody), responseType, uriVariables);
+    }
+
+    public static <T> CompletableFuture<T> putEntity(String url, Map<String, String> headers, Object requestBody, Class<T> responseType, Object... uriVariables) {
+        return put(url, headers, requestBody, responseType, uriVariables).thenApply(ResponseEntity::getBody);
+    }
+
+    /**
+     * 异步PUT请求调用方式
+     * @param url 请求URL
+     * @param headers 请求头参数
+     * @param requestBody 请求参数体
+     * @param responseType 返回对象类型
+     * @param uriVariables URL中的变量，按顺序依次对应
+     * @return ResponseEntity 响应对象封装类的CompletableFuture
+     */
+    public static <T> CompletableFuture<ResponseEntity<T>> put(String url, HttpHeaders headers, Object requestBody, Class<T> responseType, Object... uriVariables) {
+        return exchange(url, HttpMethod.PUT, entity(headers, requestBody), responseType, uriVariables);
+    }
+
+    public static <T> CompletableFuture<T> putEntity(String url, HttpHeaders headers, Object requestBody, Class<T> responseType, Object... uriVariables) {
+        return put(url, headers, requestBody, responseType, uriVariables).thenApply(ResponseEntity::getBody);
+    }
+
+    /**
+     * 异步PUT请求调用方式
+     * @param url 请求URL
+     * @param headers 请求头参数
+     * @param requestBody 请求参数体
+     * @param responseType 返回对象类型
+     * @param uriVariables URL中的变量，与Map中的key对应
+     * @return ResponseEntity 响应对象封装类的CompletableFuture
+     */
+    public static <T> CompletableFuture<ResponseEntity<T>> put(String url, Map<String, String> headers, Object requestBody, Class<T> responseType, Map<String, ?> uriVariables) {
+        return exchange(url, HttpMethod.PUT, entity(headers, requestBody), responseType, uriVariables);
+    }
+
+    public static <T> CompletableFuture<T> putEntity(String url, Map<String, String> headers, Object requestBody, Class<T> responseType, Map<String, ?> uriVariables) {
+        return put(url, headers, requestBody, responseType, uriVariables).thenApply(ResponseEntity::getBody);
+    }
+
+    /**
+     * 异步PUT请求调用方式
+     * @param url 请求URL
+     * @param headers 请求头参数
+     * @param requestBody 请求参数体
+     * @param responseType 返回对象类型
+     * @param uriVariables URL中的变量，与Map中的key对应
+     * @return ResponseEntity 响应对象封装类的CompletableFuture
+     */
+    public static <T> CompletableFuture<ResponseEntity<T>> put(String url, HttpHeaders headers, Object requestBody, Class<T> responseType, Map<String, ?> uriVariables) {
+        return exchange(url, HttpMethod.PUT, entity(headers, requestBody), responseType, uriVariables);
+    }
+
+    public static <T> CompletableFuture<T> putEntity(String url, HttpHeaders headers, Object requestBody, Class<T> responseType, Map<String, ?> uriVariables) {
+        return put(url, headers, requestBody, responseType, uriVariables).thenApply(ResponseEntity::getBody);
+    }
+
+    /**
+     * 异步PUT请求调用方式
+     * @param url 请求URL
+     * @param requestEntity 请求头和请求体封装对象
+     * @param responseType 返回对象类型
+     * @param uriVariables URL中的变量，按顺序依次对应
+     * @return ResponseEntity 响应对象封装类的CompletableFuture
+     */
+    public static <T> CompletableFuture<ResponseEntity<T>> put(String url, HttpEntity<?> requestEntity, Class<T> responseType, Object... uriVariables) {
+        return exchange(url, HttpMethod.PUT, requestEntity, responseType, uriVariables);
+    }
+
+    public static <T> CompletableFuture<T> putEntity(String url, HttpEntity<?> requestEntity, Class<T> responseType, Object... uriVariables) {
+        return put(url, requestEntity, responseType, uriVariables).thenApply(ResponseEntity::getBody);
+    }
+
+    /**
+     * 异步PUT请求调用方式
+     * @param url 请求URL
+     * @param requestEntity 请求头和请求体封装对象
+     * @param responseType 返回对象类型
+     * @param uriVariables URL中的变量，与Map中的key对应
+     * @return ResponseEntity 响应对象封装类的CompletableFuture
+     */
+    public static <T> CompletableFuture<ResponseEntity<T>> put(String url, HttpEntity<?> requestEntity, Class<T> responseType, Map<String, ?> uriVariables) {
+        return exchange(url, HttpMethod.PUT, requestEntity, responseType, uriVariables);
+    }
+
+    public static <T> CompletableFuture<T> putEntity(String url, HttpEntity<?> requestEntity, Class<T> responseType, Map<String, ?> uriVariables) {
+        return put(url, requestEntity, responseType, uriVariables).thenApply(ResponseEntity::getBody);
+    }
+
+    /**
+     * 异步DELETE请求调用方式
+     * @param url 请求URL
+     * @param responseType 返回对象类型
+     * @param uriVariables URL中的变量，按顺序依次对应
+     * @return ResponseEntity 响应对象封装类的CompletableFuture
+     */
+    public static <T> CompletableFuture<ResponseEntity<T>> delete(String url, Class<T> responseType, Object... uriVariables) {
+        return exchange(url, HttpMethod.DELETE, HttpEntity.EMPTY, responseType, uriVariables);
+    }
+
+    public static <T> CompletableFuture<T> deleteEntity(String url, Class<T> responseType, Object... uriVariables) {
+        return delete(url, responseType, uriVariables).thenApply(ResponseEntity::getBody);
+    }
+
+    /**
+     * 异步DELETE请求调用方式
+     * @param url 请求URL
+     * @param responseType 返回对象类型
+     * @param uriVariables URL中的变量，与Map中的key对应
+     * @return ResponseEntity 响应对象封装类的CompletableFuture
+     */
+    public static <T> CompletableFuture<ResponseEntity<T>> delete(String url, Class<T> responseType, Map<String, ?> uriVariables) {
+        return exchange(url, HttpMethod.DELETE, HttpEntity.EMPTY, responseType, uriVariables);
+    }
+
+    public static <T> CompletableFuture<T> deleteEntity(String url, Class<T> responseType, Map<String, ?> uriVariables) {
+        return delete(url, responseType, uriVariables).thenApply(ResponseEntity::getBody);
+    }
+
+    /**
+     * 异步DELETE请求调用方式
+     * @param url 请求URL
+     * @param requestBody 请求参数体
+     * @param responseType 返回对象类型
+     * @param uriVariables URL中的变量，按顺序依次对应
+     * @return ResponseEntity 响应对象封装类的CompletableFuture
+     */
+    public static <T> CompletableFuture<ResponseEntity<T>> delete(String url, Object requestBody, Class<T> responseType, Object... uriVariables) {
+        return exchange(url, HttpMethod.DELETE, entity(requestBody), responseType, uriVariables);
+    }
+
+    public static <T> CompletableFuture<T> deleteEntity(String url, Object requestBody, Class<T> responseType, Object... uriVariables) {
+        return delete(url, requestBody, responseType, uriVariables).thenApply(ResponseEntity::getBody);
+    }
+
+    /**
+     * 异步DELETE请求调用方式
+     * @param url 请求URL
+     * @param requestBody 请求参数体
+     * @param responseType 返回对象类型
+     * @param uriVariables URL中的变量，与Map中的key对应
+     * @return ResponseEntity 响应对象封装类的CompletableFuture
+     */
+    public static <T> CompletableFuture<ResponseEntity<T>> delete(String url, Object requestBody, Class<T> responseType, Map<String, ?> uriVariables) {
+        return exchange(url, HttpMethod.DELETE, entity(requestBody), responseType, uriVariables);
+    }
+
+    public static <T> CompletableFuture<T> deleteEntity(String url, Object requestBody, Class<T> responseType, Map<String, ?> uriVariables) {
+        return delete(url, requestBody, responseType, uriVariables).thenApply(ResponseEntity::getBody);
+    }
+
+    /**
+     * 异步DELETE请求调用方式
+     * @param url 请求URL
+     * @param headers 请求头参数
+     * @param responseType 返回对象类型
+     * @param uriVariables URL中的变量，按顺序依次对应
+     * @return ResponseEntity 响应对象封装类的CompletableFuture
+     */
+    public static <T> CompletableFuture<ResponseEntity<T>> delete(String url, Map<String, String> headers, Class<T> responseType, Object... uriVariables) {
+        return exchange(url, HttpMethod.DELETE, entity(headers, null), responseType, uriVariables);
+    }
+
+    public static <T> CompletableFuture<T> deleteEntity(String url, Map<String, String> headers, Class<T> responseType, Object... uriVariables) {
+        return delete(url, headers, responseType, uriVariables).thenApply(ResponseEntity::getBody);
+    }
+
+    /**
+     * 异步DELETE请求调用方式
+     * @param url 请求URL
+     * @param headers 请求头参数
+     * @param responseType 返回对象类型
+     * @param uriVariables URL中的变量，按顺序依次对应
+     * @return ResponseEntity 响应对象封装类的CompletableFuture
+     */
+    public static <T> CompletableFuture<ResponseEntity<T>> delete(String url, HttpHeaders headers, Class<T> responseType, Object... uriVariables) {
+        return exchange(url, HttpMethod.DELETE, entity(headers, null), responseType, uriVariables);
+    }
+
+    public static <T> CompletableFuture<T> deleteEntity(String url, HttpHeaders headers, Class<T> responseType, Object... uriVariables) {
+        return delete(url, headers, responseType, uriVariables).thenApply(ResponseEntity::getBody);
+    }
+
+    /**
+     * 异步DELETE请求调用方式
+     * @param url 请求URL
+     * @param headers 请求头参数
+     * @param responseType 返回对象类型
+     * @param uriVariables URL中的变量，与Map中的key对应
+     * @return ResponseEntity 响应对象封装类的CompletableFuture
+     */
+    public static <T> CompletableFuture<ResponseEntity<T>> delete(String url, Map<String, String> headers, Class<T> responseType, Map<String, ?> uriVariables) {
+        return exchange(url, HttpMethod.DELETE, entity(headers, null), responseType, uriVariables);
+    }
+
+    public static <T> CompletableFuture<T> deleteEntity(String url, Map<String, String> headers, Class<T> responseType, Map<String, ?> uriVariables) {
+        return delete(url, headers, responseType, uriVariables).thenApply(ResponseEntity::getBody);
+    }
+
+    /**
+     * 异步DELETE请求调用方式
+     * @param url 请求URL
+     * @param headers 请求头参数
+     * @param responseType 返回对象类型
+     * @param uriVariables URL中的变量，与Map中的key对应
+     * @return ResponseEntity 响应对象封装类的CompletableFuture
+     */
+    public static <T> CompletableFuture<ResponseEntity<T>> delete(String url, HttpHeaders headers, Class<T> responseType, Map<String, ?> uriVariables) {
+        return exchange(url, HttpMethod.DELETE, entity(headers, null), responseType, uriVariables);
+    }
+
+    public static <T> CompletableFuture<T> deleteEntity(String url, HttpHeaders headers, Class<T> responseType, Map<String, ?> uriVariables) {
+        return delete(url, headers, responseType, uriVariables).thenApply(ResponseEntity::getBody);
+    }
+
+    /**
+     * 异步DELETE请求调用方式
+     * @param url 请求URL
+     * @param headers 请求头参数
+     * @param requestBody 请求参数体
+     * @param responseType 返回对象类型
+     * @param uriVariables URL中的变量，按顺序依次对应
+     * @return ResponseEntity 响应对象封装类的CompletableFuture
+     */
+    public static <T> CompletableFuture<ResponseEntity<T>> delete(String url, Map<String, String> headers, Object requestBody, Class<T> responseType, Object... uriVariables) {
+        return exchange(url, HttpMethod.DELETE, entity(headers, requestBody), responseType, uriVariables);
+    }
+
+    public static <T> CompletableFuture<T> deleteEntity(String url, Map<String, String> headers, Object requestBody, Class<T> responseType, Object... uriVariables) {
+        return delete(url, headers, requestBody, responseType, uriVariables).thenApply(ResponseEntity::getBody);
+    }
+
+    /**
+     * 异步DELETE请求调用方式
+     * @param url 请求URL
+     * @param headers 请求头参数
+     * @param requestBody 请求参数体
+     * @param responseType 返回对象类型
+     * @param uriVariables URL中的变量，按顺序依次对应
+     * @return ResponseEntity 响应对象封装类的CompletableFuture
+     */
+    public static <T> CompletableFuture<ResponseEntity<T>> delete(String url, HttpHeaders headers, Object requestBody, Class<T> responseType, Object... uriVariables) {
+        return exchange(url, HttpMethod.DELETE, entity(headers, requestBody), responseType, uriVariables);
+    }
+
+    public static <T> CompletableFuture<T> deleteEntity(String url, HttpHeaders headers, Object requestBody, Class<T> responseType, Object... uriVariables) {
+        return delete(url, headers, requestBody, responseType, uriVariables).thenApply(ResponseEntity::getBody);
+    }
+
+    /**
+     * 异步DELETE请求调用方式
+     * @param url 请求URL
+     * @param headers 请求头参数
+     * @param requestBody 请求参数体
+     * @param responseType 返回对象类型
+     * @param uriVariables URL中的变量，与Map中的key对应
+     * @return ResponseEntity 响应对象封装类的CompletableFuture
+     */
+    public static <T> CompletableFuture<ResponseEntity<T>> delete(String url, Map<String, String> headers, Object requestBody, Class<T> responseType, Map<String, ?> uriVariables) {
+        return exchange(url, HttpMethod.DELETE, entity(headers, requestBody), responseType, uriVariables);
+    }
+
+    public static <T> CompletableFuture<T> deleteEntity(String url, Map<String, String> headers, Object requestBody, Class<T> responseType, Map<String, ?> uriVariables) {
+        return delete(url, headers, requestBody, responseType, uriVariables).thenApply(ResponseEntity::getBody);
+    }
+
+    /**
+     * 异步DELETE请求调用方式
+     * @param url 请求URL
+     * @param headers 请求头参数
+     * @param requestBody 请求参数体
+     * @param responseType 返回对象类型
+     * @param uriVariables URL中的变量，与Map中的key对应
+     * @return ResponseEntity 响应对象封装类的CompletableFuture
+     */
+    public static <T> CompletableFuture<ResponseEntity<T>> delete(String url, HttpHeaders headers, Object requestBody, Class<T> responseType, Map<String, ?> uriVariables) {
+        return exchange(url, HttpMethod.DELETE, entity(headers, requestBody), responseType, uriVariables);
+    }
+
+    public static <T> CompletableFuture<T> deleteEntity(String url, HttpHeaders headers, Object requestBody, Class<T> responseType, Map<String, ?> uriVariables) {
+        return delete(url, headers, requestBody, responseType, uriVariables).thenApply(ResponseEntity::getBody);
+    }
+
+    /**
+     * 异步DELETE请求调用方式
+     * @param url 请求URL
+     * @param requestEntity 请求头和请求体封装对象
+     * @param responseType 返回对象类型
+     * @param uriVariables URL中的变量，按顺序依次对应
+     * @return ResponseEntity 响应对象封装类的CompletableFuture
+     */
+    public static <T> CompletableFuture<ResponseEntity<T>> delete(String url, HttpEntity<?> requestEntity, Class<T> responseType, Object... uriVariables) {
+        return exchange(url, HttpMethod.DELETE, requestEntity, responseType, uriVariables);
+    }
+
+    public static <T> CompletableFuture<T> deleteEntity(String url, HttpEntity<?> requestEntity, Class<T> responseType, Object... uriVariables) {
+        return delete(url, requestEntity, responseType, uriVariables).thenApply(ResponseEntity::getBody);
+    }
+
+    /**
+     * 异步DELETE请求调用方式
+     * @param url 请求URL
+     * @param requestEntity 请求头和请求体封装对象
+     * @param responseType 返回对象类型
+     * @param uriVariables URL中的变量，与Map中的key对应
+     * @return ResponseEntity 响应对象封装类的CompletableFuture
+     */
+    public static <T> CompletableFuture<ResponseEntity<T>> delete(String url, HttpEntity<?> requestEntity, Class<T> responseType, Map<String, ?> uriVariables) {
+        return exchange(url, HttpMethod.DELETE, requestEntity, responseType, uriVariables);
+    }
+
+    public static <T> CompletableFuture<T> deleteEntity(String url, HttpEntity<?> requestEntity, Class<T> responseType, Map<String, ?> uriVariables) {
+        return delete(url, requestEntity, responseType, uriVariables).thenApply(ResponseEntity::getBody);
+    }
+
+    /**
+     * 异步通用请求调用方式
+     * @param url 请求URL
+     * @param method 请求方法类型
+     * @param requestEntity 请求头和请求体封装对象
+     * @param responseType 返回对象类型
+     * @param uriVariables URL中的变量，按顺序依次对应
+     * @return ResponseEntity 响应对象封装类的CompletableFuture
+     */
+    public static <T> CompletableFuture<ResponseEntity<T>> exchange(String url, HttpMethod method, HttpEntity<?> requestEntity, Class<T> responseType, Object... uriVariables) {
+        return execute(uriTemplateHandler().expand(url, uriVariables), method, requestEntity, responseType);
+    }
+
+    public static <T> CompletableFuture<T> exchangeEntity(String url, HttpMethod method, HttpEntity<?> requestEntity, Class<T> responseType, Object... uriVariables) {
+        return exchange(url, method, requestEntity, responseType, uriVariables).thenApply(ResponseEntity::getBody);
+    }
+
+    /**
+     * 异步通用请求调用方式
+     * @param url 请求URL
+     * @param method 请求方法类型
+     * @param requestEntity 请求头和请求体封装对象
+     * @param responseType 返回对象类型
+     * @param uriVariables URL中的变量，与Map中的key对应
+     * @return ResponseEntity 响应对象封装类的CompletableFuture
+     */
+    public static <T> CompletableFuture<ResponseEntity<T>> exchange(String url, HttpMethod method, HttpEntity<?> requestEntity, Class<T> responseType, Map<String, ?> uriVariables) {
+        return execute(uriTemplateHandler().expand(url, uriVariables), method, requestEntity, responseType);
+    }
+
+    public static <T> CompletableFuture<T> exchangeEntity(String url, HttpMethod method, HttpEntity<?> requestEntity, Class<T> responseType, Map<String, ?> uriVariables) {
+        return exchange(url, method, requestEntity, responseType, uriVariables).thenApply(ResponseEntity::getBody);
+    }
+
+    /**
+     * 异步通用调用方式
+     * @param url 请求URL
+     * @param method 请求方法类型
+     * @param requestEntity 请求头和请求体封装对象
+     * @param responseType 返回对象类型
+     * @return ResponseEntity 响应对象封装类的CompletableFuture
+     */
+    public static <T> CompletableFuture<ResponseEntity<T>> exchange(URI url, HttpMethod method, HttpEntity<?> requestEntity, Class<T> responseType) {
+        return execute(url, method, requestEntity, responseType);
+    }
+
+    private static <T> CompletableFuture<ResponseEntity<T>> execute(URI uri, HttpMethod method,
+                                                                    HttpEntity<?> requestEntity,
+                                                                    Class<T> responseType) {
+        SimpleHttpRequest request;
+        try {
+            request = createRequest(uri, method, requestEntity, responseType);
+        } catch (IOException | RuntimeException e) {
+            CompletableFuture<ResponseEntity<T>> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+        CompletableFuture<SimpleHttpResponse> response = new CompletableFuture<>();
+        Future<SimpleHttpResponse> future = client().execute(SimpleRequestProducer.create(request),
+                SimpleResponseConsumer.create(), new FutureCallback<SimpleHttpResponse>() {
+                    @Override
+                    public void completed(SimpleHttpResponse result) {
+                        response.complete(result);
+                    }
+
+                    @Override
+                    public void failed(Exception e) {
+                        response.completeExceptionally(new ResourceAccessException(
+                                "I/O error on " + method + " request for \"" + uri + "\": " + e.getMessage(),
+                                e instanceof IOException ? (IOException) e : new IOException(e)));
+                    }
+
+                    @Override
+                    public void cancelled() {
+                        response.cancel(false);
+                    }
+                });
+        CompletableFuture<ResponseEntity<T>> result = response.thenApplyAsync(
+                value -> extractResponse(uri, method, value, responseType), convertExecutor());
+        // 调用方取消时同时取消底层请求,释放连接
+        result.whenComplete((value, e) -> {
+            if (result.isCancelled()) {
+                future.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    private static SimpleHttpRequest createRequest(URI uri, HttpMethod method, HttpEntity<?> requestEntity,
+                                                   Class<?> responseType) throws IOException {
+        SimpleHttpRequest request = new SimpleHttpRequest(method.name(), uri);
+        HttpHeaders headers = new HttpHeaders();
+        if (requestEntity != null) {
+            headers.putAll(requestEntity.getHeaders());
+        }
+        if (headers.getAccept().isEmpty() && responseType != null && responseType != Void.class) {
+            headers.setAccept(acceptableMediaTypes(responseType));
+        }
+        Object body = requestEntity == null ? null : requestEntity.getBody();
+        byte[] content = null;
+        if (body != null) {
+            BufferedOutputMessage message = new BufferedOutputMessage(headers);
+            writeBody(body, headers.getContentType(), message);
+            content = message.toByteArray();
+        }
+        headers.forEach((name, values) -> {
+            if (!HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name) && !HttpHeaders.HOST.equalsIgnoreCase(name)
+                    && !HttpHeaders.TRANSFER_ENCODING.equalsIgnoreCase(name)) {
+                values.forEach(value -> request.addHeader(name, value));
+            }
+        });
+        if (content != null) {
+            MediaType contentType = headers.getContentType();
+            request.setBody(content, contentType == null ? ContentType.DEFAULT_BINARY
+                    : ContentType.parse(contentType.toString()));
+        }
+        return request;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void writeBody(Object body, MediaType contentType, HttpOutputMessage message) throws IOException {
+        for (HttpMessageConverter<?> converter : restTemplate().getMessageConverters()) {
+            if (converter.canWrite(body.getClass(), contentType)) {
+                ((HttpMessageConverter<Object>) converter).write(body, contentType, message);
+                return;
+            }
+        }
+        throw new RestClientException("No HttpMessageConverter for " + body.getClass().getName()
+                + (contentType == null ? "" : " and content type \"" + contentType + "\""));
+    }
+
+    private static List<MediaType> acceptableMediaTypes(Class<?> responseType) {
+        List<MediaType> mediaTypes = new ArrayList<>();
+        for (HttpMessageConverter<?> converter : restTemplate().getMessageConverters()) {
+            if (converter.canRead(responseType, null)) {
+                for (MediaType mediaType : converter.getSupportedMediaTypes(responseType)) {
+                    MediaType accept = mediaType.getCharset() == null ? mediaType
+                            : new MediaType(mediaType.getType(), mediaType.getSubtype());
+                    if (!mediaTypes.contains(accept)) {
+                        mediaTypes.add(accept);
+                    }
+                }
+            }
+        }
+        MimeTypeUtils.sortBySpecificity(mediaTypes);
+        return mediaTypes;
+    }
+
+    private static <T> ResponseEntity<T> extractResponse(URI uri, HttpMethod method, SimpleHttpResponse response,
+                                                         Class<T> responseType) {
+        HttpHeaders headers = new HttpHeaders();
+        for (Header header : response.getHeaders()) {
+            headers.add(header.getName(), header.getValue());
+        }
+        BufferedClientHttpResponse clientResponse = new BufferedClientHttpResponse(response.getCode(),
+                response.getReasonPhrase(), headers, response.getBodyBytes());
+        try {
+            ResponseErrorHandler errorHandler = restTemplate().getErrorHandler();
+            if (errorHandler.hasError(clientResponse)) {
+                errorHandler.handleError(uri, method, clientResponse);
+            }
+            T body = null;
+            if (responseType != null && responseType != Void.class) {
+                body = new HttpMessageConverterExtractor<>(responseType, restTemplate().getMessageConverters())
+                        .extractData(clientResponse);
+            }
+            return ResponseEntity.status(response.getCode()).headers(headers).body(body);
+        } catch (IOException e) {
+            throw new ResourceAccessException("I/O error on " + method + " request for \"" + uri + "\": "
+                    + e.getMessage(), e);
+        }
+    }
+
+    private static HttpEntity<?> entity(Object requestBody) {
+        return requestBody instanceof HttpEntity ? (HttpEntity<?>) requestBody : new HttpEntity<>(requestBody);
+    }
+
+    private static HttpEntity<?> entity(Map<String, String> headers, Object requestBody) {
+        HttpHeaders httpHeaders = new HttpHeaders();
+        httpHeaders.setAll(headers);
+        return entity(httpHeaders, requestBody);
+    }
+
+    private static HttpEntity<?> entity(HttpHeaders headers, Object requestBody) {
+        if (requestBody instanceof HttpEntity) {
+            HttpEntity<?> requestEntity = (HttpEntity<?>) requestBody;
+            HttpHeaders merged = new HttpHeaders();
+            merged.addAll(requestEntity.getHeaders());
+            merged.addAll(headers);
+            return new HttpEntity<>(requestEntity.getBody(), merged);
+        }
+        return new HttpEntity<>(requestBody, headers);
+    }
+
+    private static RestTemplate restTemplate() {
+        return RestTemplateUtil.getRestTemplate();
+    }
+
+    private static UriTemplateHandler uriTemplateHandler() {
+        return restTemplate().getUriTemplateHandler();
+    }
+
+    /**
+     * 提交线程是IO线程,线程池满时不能由提交线程执行,默认拒绝并以RejectedExecutionException结束返回的future
+     */
+    private static Executor convertExecutor() {
+        return ExecutorUtil.getInstance().getExecutor(CONVERT_EXECUTOR, ExecutorUtil.RejectPolicy.ABORT);
+    }
+
+    private static CloseableHttpAsyncClient client() {
+        CloseableHttpAsyncClient client = httpClient;
+        if (client == null) {
+            synchronized (AsyncRestTemplateUtil.class) {
+                client = httpClient;
+                if (client == null) {
+                    client = createClient(RestTemplateUtil.getHttpConfig());
+                    httpClient = client;
+                }
+            }
+        }
+        return client;
+    }
+
+    private static CloseableHttpAsyncClient createClient(RestTemplateUtil.HttpConfig config) {
+        PoolingAsyncClientConnectionManager manager = PoolingAsyncClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(config.getMaxTotal())
+                .setMaxConnPerRoute(config.getMaxPerRoute())
+                .setConnectionTimeToLive(TimeValue.ofMilliseconds(config.getTimeToLive()))
+                .build();
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout(Timeout.ofMilliseconds(config.getConnectTimeout()))
+                .setConnectionRequestTimeout(Timeout.ofMilliseconds(config.getConnectionRequestTimeout()))
+                .setResponseTimeout(Timeout.ofMilliseconds(config.getReadTimeout()))
+                .build();
+        CloseableHttpAsyncClient client = HttpAsyncClients.custom()
+                .setConnectionManager(manager)
+                .setDefaultRequestConfig(requestConfig)
+                .setIOReactorConfig(IOReactorConfig.custom()
+                        .setSoTimeout(Timeout.ofMilliseconds(config.getReadTimeout()))
+                        .setTcpNoDelay(true)
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofMilliseconds(config.getIdleTimeout()))
+                .build();
+        client.start();
+        connectionManager = manager;
+        return client;
+    }
+
+    /*
+     * Description: 请求体序列化到内存,完整写出后一次性交给非阻塞客户端发送
+     **/
+    private static final class BufferedOutputMessage implements HttpOutputMessage {
+        private final HttpHeaders headers;
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream(256);
+
+        private BufferedOutputMessage(HttpHeaders headers) {
+            this.headers = headers;
+        }
+
+        @Override
+        public OutputStream getBody() {
+            return body;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+
+        private byte[] toByteArray() {
+            return body.toByteArray();
+        }
+    }
+}
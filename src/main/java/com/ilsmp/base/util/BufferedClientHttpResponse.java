@@ -0,0 +1,62 @@
+package com.ilsmp.base.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpResponse;
+
+/*
+ * Author: zhangjiahao04
+ * Description: 响应体已完整读入内存的ClientHttpResponse,可多次读取,
+ * 用于异步请求复用RestTemplate的转换器以及响应缓存的共享
+ * Date: 2026/10/18 14:40
+ **/
+final class BufferedClientHttpResponse implements ClientHttpResponse {
+    private static final byte[] EMPTY = new byte[0];
+
+    private final int statusCode;
+    private final String statusText;
+    private final HttpHeaders headers;
+    private final byte[] body;
+
+    BufferedClientHttpResponse(int statusCode, String statusText, HttpHeaders headers, byte[] body) {
+        this.statusCode = statusCode;
+        this.statusText = statusText == null ? "" : statusText;
+        this.headers = headers;
+        this.body = body == null ? EMPTY : body;
+    }
+
+    @Override
+    public HttpStatusCode getStatusCode() {
+        return HttpStatusCode.valueOf(statusCode);
+    }
+
+    public int getRawStatusCode() {
+        return statusCode;
+    }
+
+    @Override
+    public String getStatusText() {
+        return statusText;
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public InputStream getBody() {
+        return new ByteArrayInputStream(body);
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        return headers;
+    }
+
+    byte[] getBodyBytes() {
+        return body;
+    }
+}
@@ -0,0 +1,124 @@
+package com.ilsmp.base.util;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+
+/*
+ * Author: zhangjiahao04
+ * Description: 粗粒度缓存时钟。启用后由后台线程按resolution刷新当前时间,读取时只是一次volatile读,
+ * 批量入库、审计字段等高频场景不再每行读取系统时钟和创建时间对象;未启用时直接读取系统时钟
+ * Date: 2026/10/18 21:00
+ **/
+@Slf4j
+public final class CachedClock {
+
+    private static final String EXECUTOR_NAME = "clock";
+
+    private static volatile Tick tick;
+    private static volatile ScheduledFuture<?> ticker;
+    private static volatile ZoneId zone = ZoneId.systemDefault();
+
+    private CachedClock() {
+    }
+
+    /**
+     * 按配置启动或停止后台刷新
+     */
+    public static synchronized void configure(ClockConfig config) {
+        stop();
+        if (config == null || !Boolean.TRUE.equals(config.getEnabled())) {
+            return;
+        }
+        long resolution = Math.max(1, config.getResolution());
+        zone = ZoneId.systemDefault();
+        update();
+        ticker = ExecutorUtil.getInstance().getScheduledExecutor(1, EXECUTOR_NAME)
+                .scheduleAtFixedRate(() -> {
+                    // stop之后可能还会执行一次,避免重新写入tick
+                    if (ticker != null) {
+                        update();
+                    }
+                }, resolution, resolution, TimeUnit.MILLISECONDS);
+        log.info("CachedClock started with resolution {}ms", resolution);
+    }
+
+    /**
+     * 停止后台刷新,之后读取系统时钟
+     */
+    public static synchronized void stop() {
+        ScheduledFuture<?> current = ticker;
+        ticker = null;
+        tick = null;
+        if (current != null) {
+            current.cancel(false);
+        }
+    }
+
+    public static boolean isEnabled() {
+        return tick != null;
+    }
+
+    /**
+     * 当前毫秒时间戳,启用时精度为resolution
+     */
+    public static long millis() {
+        Tick current = tick;
+        return current == null ? System.currentTimeMillis() : current.millis;
+    }
+
+    /**
+     * 当前时间的Timestamp,每次返回新实例;Timestamp可变,写入实体后不能与其他实体共用
+     */
+    public static Timestamp timestamp() {
+        return new Timestamp(millis());
+    }
+
+    /**
+     * 当前本地时间,用于jpa审计
+     */
+    public static LocalDateTime localDateTime() {
+        Tick current = tick;
+        return current == null ? LocalDateTime.now() : current.localDateTime;
+    }
+
+    private static void update() {
+        long now = System.currentTimeMillis();
+        Tick current = tick;
+        if (current != null && current.millis == now) {
+            return;
+        }
+        tick = new Tick(now, zone);
+    }
+
+    private static final class Tick {
+        private final long millis;
+        private final LocalDateTime localDateTime;
+
+        private Tick(long millis, ZoneId zone) {
+            this.millis = millis;
+            this.localDateTime = LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), zone);
+        }
+    }
+
+    /*
+     * Description: 缓存时钟配置
+     **/
+    @Data
+    public static class ClockConfig {
+        /**
+         * 是否启用缓存时钟
+         */
+        private Boolean enabled = false;
+        /**
+         * 刷新间隔ms
+         */
+        private Long resolution = 1L;
+    }
+}
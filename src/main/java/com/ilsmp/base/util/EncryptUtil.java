@@ -33,6 +33,7 @@ import org.springframework.util.Base64Utils;
 public class EncryptUtil {
 
     private static MessageDigest messagedigest;
+    private static final ThreadLocal<Crc32Hasher> CRC32_HASHER = ThreadLocal.withInitial(Crc32Hasher::new);
     private static SnowflakeGenerator snowflake;
 
     static {
@@ -183,6 +184,17 @@ public class EncryptUtil {
         return Math.abs(crc32.getValue());
     }
 
+    /*
+     * Author: zhangjiahao04
+     * Description: 当前线程复用的crc32计算器,调用方先reset再依次写入,不能跨线程或在写入过程中重入使用
+     * Date: 2026/10/18 21:40
+     * Param: []
+     * return: com.ilsmp.base.util.EncryptUtil.Crc32Hasher
+     **/
+    public static Crc32Hasher crc32Hasher() {
+        return CRC32_HASHER.get().reset();
+    }
+
     /**
      * 生成规则: CRC32(id)%100
      *
@@ -589,4 +601,75 @@ public class EncryptUtil {
         return snowflake.next();
     }
 
+
+    /*
+     * Author: zhangjiahao04
+     * Description: 可复用的crc32计算器,字符串和整数直接写入CRC32,不生成中间字符串。
+     * 字符串按平台默认编码计算,与crc32FromStr(拼接后的字符串)结果一致
+     * Date: 2026/10/18 21:40
+     **/
+    public static final class Crc32Hasher {
+        private final CRC32 crc32 = new CRC32();
+        private final byte[] buffer = new byte[256];
+
+        private Crc32Hasher() {
+        }
+
+        public Crc32Hasher reset() {
+            crc32.reset();
+            return this;
+        }
+
+        public Crc32Hasher putChar(char c) {
+            if (c < 0x80) {
+                crc32.update(c);
+                return this;
+            }
+            return putString(String.valueOf(c));
+        }
+
+        public Crc32Hasher putString(String str) {
+            int length = str.length();
+            for (int i = 0; i < length; i++) {
+                if (str.charAt(i) >= 0x80) {
+                    // 非ASCII字符按平台编码整体转换
+                    crc32.update(str.getBytes());
+                    return this;
+                }
+            }
+            for (int start = 0; start < length; start += buffer.length) {
+                int end = Math.min(length, start + buffer.length);
+                for (int i = start; i < end; i++) {
+                    buffer[i - start] = (byte) str.charAt(i);
+                }
+                crc32.update(buffer, 0, end - start);
+            }
+            return this;
+        }
+
+        /**
+         * 写入整数的十进制字符串,与putString(Long.toString(value))结果一致
+         */
+        public Crc32Hasher putDecimal(long value) {
+            if (value == Long.MIN_VALUE) {
+                return putString(Long.toString(value));
+            }
+            int pos = 20;
+            boolean negative = value < 0;
+            long remaining = negative ? -value : value;
+            do {
+                buffer[--pos] = (byte) ('0' + remaining % 10);
+                remaining /= 10;
+            } while (remaining > 0);
+            if (negative) {
+                buffer[--pos] = '-';
+            }
+            crc32.update(buffer, pos, 20 - pos);
+            return this;
+        }
+
+        public long getValue() {
+            return crc32.getValue();
+        }
+    }
 }
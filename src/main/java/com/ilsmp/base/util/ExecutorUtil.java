@@ -1,15 +1,28 @@
 package com.ilsmp.base.util;
 
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.SynchronousQueue;
 import java.util.concurrent.ThreadPoolExecutor;
-import java.util.concurrent.TimeUnit;
 
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskDecorator;
 import org.springframework.scheduling.concurrent.DefaultManagedAwareThreadFactory;
 
 /*
@@ -26,8 +39,15 @@ public class ExecutorUtil {
             * 0.25 * (1 + (800 / 200)));
     private static final int MAX_SIZE = (int) (Runtime.getRuntime().availableProcessors()
             * 0.75 * (1 + (800 / 200)));
+    public static final int QUEUE_CAPACITY = 1024;
+    public static final int VIRTUAL_CONCURRENCY = 256;
     private final DefaultManagedAwareThreadFactory threadFactory;
     private final ConcurrentHashMap<String, ThreadPoolExecutor> currentMap = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, VirtualThreadExecutor> virtualMap = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, ForkJoinPool> forkJoinMap = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, PoolConfig> poolConfigs = new ConcurrentHashMap<>();
+    private volatile PoolConfig defaultConfig = new PoolConfig();
+    private static final List<TaskDecorator> TASK_DECORATORS = new CopyOnWriteArrayList<>();
 
     public static ExecutorUtil getInstance() {
         if (instance == null) {
@@ -46,12 +66,25 @@ public class ExecutorUtil {
         threadFactory.setThreadNamePrefix("schedule-pool-");
     }
 
+    /*
+     * Description: 设置线程池默认配置及按名称的单独配置,只影响之后创建的线程池
+     **/
+    public void configure(PoolConfig defaultConfig, Map<String, PoolConfig> poolConfigs) {
+        if (defaultConfig != null) {
+            this.defaultConfig = defaultConfig;
+        }
+        this.poolConfigs.clear();
+        if (poolConfigs != null) {
+            this.poolConfigs.putAll(poolConfigs);
+        }
+    }
+
     public ThreadPoolExecutor newExecutor(String name) {
-        return newExecutor(CORE_SIZE, name);
+        return newExecutor(coreSize(name), name);
     }
 
     public ThreadPoolExecutor newExecutor(int corePoolSize, String name) {
-        return newExecutor(corePoolSize, MAX_SIZE, name);
+        return newExecutor(corePoolSize, maxSize(name), name);
     }
 
     public ThreadPoolExecutor newFixExecutor(int corePoolSize, String name) {
@@ -63,14 +96,18 @@ public class ExecutorUtil {
     }
 
     public ThreadPoolExecutor newExecutor(int corePoolSize, int maxPoolSize, String name) {
+        return newExecutor(corePoolSize, maxPoolSize, queueCapacity(name), rejectPolicy(name), name);
+    }
+
+    public ThreadPoolExecutor newExecutor(int corePoolSize, int maxPoolSize, int queueCapacity,
+                                          RejectPolicy rejectPolicy, String name) {
         ThreadPoolExecutor executor = currentMap.get(name);
         if (executor != null) {
             if (!executor.isShutdown()) {
                 executor.shutdown();
             }
         }
-        executor = new ThreadPoolExecutor(corePoolSize, maxPoolSize, corePoolSize, TimeUnit.SECONDS,
-                new LinkedBlockingQueue<>(), threadFactory);
+        executor = createExecutor(corePoolSize, maxPoolSize, queueCapacity, rejectPolicy, name);
         currentMap.put(name, executor);
         return executor;
     }
@@ -92,15 +129,35 @@ public class ExecutorUtil {
     }
 
     public ExecutorService getExecutor(String name) {
-        return getExecutor(CORE_SIZE, name);
+        if (executorType(name) == ExecutorType.VIRTUAL) {
+            return getVirtualExecutor(name);
+        }
+        return getExecutor(coreSize(name), name);
     }
 
     public ExecutorService getExecutor(int corePoolSize, String name) {
-        return getExecutor(corePoolSize, MAX_SIZE, name);
+        if (executorType(name) == ExecutorType.VIRTUAL) {
+            return getVirtualExecutor(name);
+        }
+        return getExecutor(corePoolSize, maxSize(name), name);
+    }
+
+    /*
+     * Description: 获取线程池,该线程池未单独配置拒绝策略时使用defaultPolicy而不是全局默认策略;
+     * 提交线程不能执行任务的场景(如在IO线程上提交)传ABORT
+     **/
+    public ExecutorService getExecutor(String name, RejectPolicy defaultPolicy) {
+        if (executorType(name) == ExecutorType.VIRTUAL) {
+            return getVirtualExecutor(name);
+        }
+        PoolConfig config = poolConfigs.get(name);
+        RejectPolicy policy = config == null || config.getRejectPolicy() == null ? defaultPolicy
+                : config.getRejectPolicy();
+        return getExecutor(coreSize(name), maxSize(name), queueCapacity(name), policy, name);
     }
 
     public ExecutorService getFixedExecutor(String name) {
-        return getExecutor(CORE_SIZE, CORE_SIZE, name);
+        return getExecutor(coreSize(name), coreSize(name), name);
     }
 
     public ExecutorService getFixedExecutor(int fixedPoolSize, String name) {
@@ -112,16 +169,71 @@ public class ExecutorUtil {
     }
 
     public ThreadPoolExecutor getExecutor(int corePoolSize, int maxPoolSize, String name) {
+        return getExecutor(corePoolSize, maxPoolSize, queueCapacity(name), rejectPolicy(name), name);
+    }
+
+    public ThreadPoolExecutor getExecutor(int corePoolSize, int maxPoolSize, int queueCapacity,
+                                          RejectPolicy rejectPolicy, String name) {
         ThreadPoolExecutor executor = currentMap.get(name);
         if (executor != null) {
             return executor;
         }
-        executor = new ThreadPoolExecutor(corePoolSize, maxPoolSize, corePoolSize, TimeUnit.SECONDS,
-                new LinkedBlockingQueue<>(), threadFactory);
-        currentMap.put(name, executor);
+        return currentMap.computeIfAbsent(name,
+                key -> createExecutor(corePoolSize, maxPoolSize, queueCapacity, rejectPolicy, key));
+    }
+
+    public ExecutorService newVirtualExecutor(String name) {
+        return newVirtualExecutor(concurrency(name), name);
+    }
+
+    /*
+     * Description: 创建虚拟线程执行器,concurrency为同时执行的任务上限;JVM不支持虚拟线程时退化为同等大小的平台线程池
+     **/
+    public ExecutorService newVirtualExecutor(int concurrency, String name) {
+        if (!VirtualThreadExecutor.isSupported()) {
+            return newExecutor(concurrency, concurrency, name);
+        }
+        VirtualThreadExecutor executor = virtualMap.get(name);
+        if (executor != null) {
+            if (!executor.isShutdown()) {
+                executor.shutdown();
+            }
+        }
+        executor = new VirtualThreadExecutor(name, concurrency);
+        virtualMap.put(name, executor);
         return executor;
     }
 
+    public ExecutorService getVirtualExecutor(String name) {
+        return getVirtualExecutor(concurrency(name), name);
+    }
+
+    public ExecutorService getVirtualExecutor(int concurrency, String name) {
+        if (!VirtualThreadExecutor.isSupported()) {
+            return getExecutor(concurrency, concurrency, name);
+        }
+        VirtualThreadExecutor executor = virtualMap.get(name);
+        if (executor != null) {
+            return executor;
+        }
+        return virtualMap.computeIfAbsent(name, key -> new VirtualThreadExecutor(key, concurrency));
+    }
+
+    public ForkJoinPool getForkJoinPool(String name) {
+        return getForkJoinPool(Runtime.getRuntime().availableProcessors(), name);
+    }
+
+    /*
+     * Description: 按名称获取工作窃取线程池,适合可拆分的CPU密集任务,每个工作线程有自己的任务队列
+     **/
+    public ForkJoinPool getForkJoinPool(int parallelism, String name) {
+        ForkJoinPool pool = forkJoinMap.get(name);
+        if (pool != null) {
+            return pool;
+        }
+        return forkJoinMap.computeIfAbsent(name, key -> createForkJoinPool(parallelism, key));
+    }
+
     public ScheduledExecutorService getScheduledExecutor(String name) {
         return getScheduledExecutor(CORE_SIZE, name);
     }
@@ -136,10 +248,45 @@ public class ExecutorUtil {
         return executor;
     }
 
+    /*
+     * Description: 当前所有已注册的线程池(只读视图),供监控端点使用
+     **/
+    public Map<String, ThreadPoolExecutor> getExecutors() {
+        return Collections.unmodifiableMap(currentMap);
+    }
+
+    /*
+     * Description: 当前所有已注册的虚拟线程执行器(只读视图),供监控端点使用
+     **/
+    public Map<String, VirtualThreadExecutor> getVirtualExecutors() {
+        return Collections.unmodifiableMap(virtualMap);
+    }
+
+    /*
+     * Description: 当前所有已注册的工作窃取线程池(只读视图),供监控端点使用
+     **/
+    public Map<String, ForkJoinPool> getForkJoinPools() {
+        return Collections.unmodifiableMap(forkJoinMap);
+    }
+
     public void shutdownExecutor(String name) {
+        VirtualThreadExecutor virtualExecutor = virtualMap.remove(name);
+        if (virtualExecutor != null) {
+            if (!virtualExecutor.isShutdown()) {
+                virtualExecutor.shutdown();
+            }
+            return;
+        }
+        ForkJoinPool forkJoinPool = forkJoinMap.remove(name);
+        if (forkJoinPool != null) {
+            forkJoinPool.shutdown();
+            MonitoredThreadPoolExecutor.unbindMeters(name, MonitoredThreadPoolExecutor.TYPE_FORK_JOIN);
+            return;
+        }
         ThreadPoolExecutor executor = currentMap.get(name);
         if (executor == null) {
-            executor = currentMap.get(name + "scheduled");
+            name = name + "scheduled";
+            executor = currentMap.get(name);
             if (executor == null) {
                 return;
             }
@@ -160,6 +307,50 @@ public class ExecutorUtil {
             }
             iterator.remove();
         }
+        Iterator<VirtualThreadExecutor> virtualIterator = virtualMap.values().iterator();
+        while (virtualIterator.hasNext()) {
+            VirtualThreadExecutor executor = virtualIterator.next();
+            if (!executor.isShutdown()) {
+                executor.shutdown();
+            }
+            virtualIterator.remove();
+        }
+        Iterator<Map.Entry<String, ForkJoinPool>> forkJoinIterator = forkJoinMap.entrySet().iterator();
+        while (forkJoinIterator.hasNext()) {
+            Map.Entry<String, ForkJoinPool> entry = forkJoinIterator.next();
+            entry.getValue().shutdown();
+            MonitoredThreadPoolExecutor.unbindMeters(entry.getKey(), MonitoredThreadPoolExecutor.TYPE_FORK_JOIN);
+            forkJoinIterator.remove();
+        }
+    }
+
+    /*
+     * Author: zhangjiahao04
+     * Description: 添加任务装饰器,在提交任务的线程上调用,用于把数据源、请求上下文等线程变量传递到线程池任务;
+     * 对本工具创建的平台线程池和虚拟线程执行器生效,工作窃取线程池和定时线程池不经过装饰
+     * Date: 2026/10/18 23:20
+     * Param: [decorator]
+     * return: void
+     **/
+    public static void addTaskDecorator(TaskDecorator decorator) {
+        if (decorator != null && !TASK_DECORATORS.contains(decorator)) {
+            TASK_DECORATORS.add(decorator);
+        }
+    }
+
+    public static void removeTaskDecorator(TaskDecorator decorator) {
+        TASK_DECORATORS.remove(decorator);
+    }
+
+    static Runnable decorate(Runnable task) {
+        if (TASK_DECORATORS.isEmpty()) {
+            return task;
+        }
+        Runnable decorated = task;
+        for (TaskDecorator decorator : TASK_DECORATORS) {
+            decorated = decorator.decorate(decorated);
+        }
+        return decorated;
     }
 
     public static void sleep(long milliseconds) {
@@ -171,4 +362,162 @@ public class ExecutorUtil {
         }
     }
 
-}
\ No newline at end of file
+    private ThreadPoolExecutor createExecutor(int corePoolSize, int maxPoolSize, int queueCapacity,
+                                              RejectPolicy rejectPolicy, String name) {
+        BlockingQueue<Runnable> queue;
+        if (queueCapacity < 0) {
+            // 兼容旧配置:无界队列,此时maxPoolSize不生效
+            queue = new LinkedBlockingQueue<>();
+        } else if (queueCapacity == 0) {
+            queue = new SynchronousQueue<>();
+        } else {
+            queue = new LinkedBlockingQueue<>(queueCapacity);
+        }
+        RejectPolicy policy = rejectPolicy == null ? RejectPolicy.CALLER_RUNS : rejectPolicy;
+        return new MonitoredThreadPoolExecutor(name, corePoolSize, Math.max(corePoolSize, maxPoolSize), corePoolSize,
+                queue, threadFactory, policy.handler());
+    }
+
+    private ForkJoinPool createForkJoinPool(int parallelism, String name) {
+        ForkJoinPool.ForkJoinWorkerThreadFactory factory = pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName(name + "-fork-" + thread.getPoolIndex());
+            thread.setDaemon(true);
+            return thread;
+        };
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, parallelism), factory, null, false);
+        // 并行度、窃取次数、排队任务数等
+        new ExecutorServiceMetrics(pool, name, MonitoredThreadPoolExecutor.BINDER_PREFIX,
+                Tags.of(MonitoredThreadPoolExecutor.TYPE_TAG, MonitoredThreadPoolExecutor.TYPE_FORK_JOIN))
+                .bindTo(Metrics.globalRegistry);
+        return pool;
+    }
+
+    private PoolConfig config(String name) {
+        PoolConfig config = poolConfigs.get(name);
+        return config == null ? defaultConfig : config;
+    }
+
+    private int coreSize(String name) {
+        Integer size = config(name).getCoreSize();
+        if (size == null) {
+            size = defaultConfig.getCoreSize();
+        }
+        return size == null ? CORE_SIZE : size;
+    }
+
+    private int maxSize(String name) {
+        Integer size = config(name).getMaxSize();
+        if (size == null) {
+            size = defaultConfig.getMaxSize();
+        }
+        return size == null ? MAX_SIZE : size;
+    }
+
+    private int queueCapacity(String name) {
+        Integer capacity = config(name).getQueueCapacity();
+        if (capacity == null) {
+            capacity = defaultConfig.getQueueCapacity();
+        }
+        return capacity == null ? QUEUE_CAPACITY : capacity;
+    }
+
+    private RejectPolicy rejectPolicy(String name) {
+        RejectPolicy policy = config(name).getRejectPolicy();
+        if (policy == null) {
+            policy = defaultConfig.getRejectPolicy();
+        }
+        return policy == null ? RejectPolicy.CALLER_RUNS : policy;
+    }
+
+    private ExecutorType executorType(String name) {
+        ExecutorType type = config(name).getType();
+        if (type == null) {
+            type = defaultConfig.getType();
+        }
+        return type == null ? ExecutorType.PLATFORM : type;
+    }
+
+    private int concurrency(String name) {
+        Integer concurrency = config(name).getConcurrency();
+        if (concurrency == null) {
+            concurrency = defaultConfig.getConcurrency();
+        }
+        return concurrency == null ? VIRTUAL_CONCURRENCY : concurrency;
+    }
+
+    /*
+     * Description: 线程池类型
+     **/
+    public enum ExecutorType {
+        /**
+         * 平台线程池,适合CPU密集任务
+         */
+        PLATFORM,
+        /**
+         * 每任务一个虚拟线程,适合阻塞IO任务,需JDK21+,否则退化为平台线程池
+         */
+        VIRTUAL
+    }
+
+    /*
+     * Description: 队列满且线程数达到最大值后的拒绝策略
+     **/
+    public enum RejectPolicy {
+        /**
+         * 由提交任务的线程执行,形成背压
+         */
+        CALLER_RUNS,
+        /**
+         * 丢弃队列中最早的任务后重新提交
+         */
+        DISCARD_OLDEST,
+        /**
+         * 快速失败,抛出RejectedExecutionException
+         */
+        ABORT;
+
+        RejectedExecutionHandler handler() {
+            switch (this) {
+                case DISCARD_OLDEST:
+                    return new ThreadPoolExecutor.DiscardOldestPolicy();
+                case ABORT:
+                    return new ThreadPoolExecutor.AbortPolicy();
+                default:
+                    return new ThreadPoolExecutor.CallerRunsPolicy();
+            }
+        }
+    }
+
+    /*
+     * Description: 线程池配置,未配置的项使用默认配置
+     **/
+    @Data
+    public static class PoolConfig {
+        /**
+         * 核心线程数
+         */
+        private Integer coreSize;
+        /**
+         * 最大线程数
+         */
+        private Integer maxSize;
+        /**
+         * 队列容量:大于0为有界队列,0为直接移交,小于0为无界队列
+         */
+        private Integer queueCapacity;
+        /**
+         * 拒绝策略
+         */
+        private RejectPolicy rejectPolicy;
+        /**
+         * 线程池类型,VIRTUAL时getExecutor(name)返回虚拟线程执行器
+         */
+        private ExecutorType type;
+        /**
+         * 虚拟线程执行器同时执行的任务上限
+         */
+        private Integer concurrency;
+    }
+
+}
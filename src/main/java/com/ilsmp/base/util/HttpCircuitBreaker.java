@@ -0,0 +1,245 @@
+package com.ilsmp.base.util;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tags;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+
+/*
+ * Author: zhangjiahao04
+ * Description: 按目标主机的熔断器。最近window次调用中失败(IO异常、5xx、慢调用)比例超过阈值时打开,
+ * 打开期间直接拒绝请求;openDuration后进入半开状态,放行少量探测请求,全部成功则关闭,任一失败重新打开
+ * Date: 2026/10/18 15:30
+ **/
+@Slf4j
+public class HttpCircuitBreaker {
+
+    private final BreakerConfig config;
+    private final ConcurrentHashMap<String, Breaker> breakers = new ConcurrentHashMap<>();
+
+    public HttpCircuitBreaker(BreakerConfig config) {
+        this.config = config;
+    }
+
+    /**
+     * 申请调用许可
+     * @param uri 请求地址
+     * @return 调用凭证,调用结束后必须调用onSuccess/onFailure
+     * @throws CircuitBreakerOpenException 熔断器打开或半开探测名额已满
+     */
+    public Permit acquire(URI uri) throws CircuitBreakerOpenException {
+        Breaker breaker = breakers.computeIfAbsent(host(uri), Breaker::new);
+        long generation = breaker.tryAcquire(System.nanoTime());
+        if (generation < 0) {
+            breaker.rejected.increment();
+            throw new CircuitBreakerOpenException("circuit breaker is " + breaker.state + " for " + breaker.host);
+        }
+        return new Permit(breaker, generation, System.nanoTime());
+    }
+
+    /**
+     * 各主机熔断器状态
+     * @return host -> state
+     */
+    public Map<String, State> getStates() {
+        Map<String, State> states = new LinkedHashMap<>();
+        breakers.forEach((host, breaker) -> states.put(host, breaker.state));
+        return states;
+    }
+
+    private static String host(URI uri) {
+        int port = uri.getPort();
+        return port < 0 ? uri.getHost() : uri.getHost() + ":" + port;
+    }
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    /*
+     * Description: 单次调用凭证
+     **/
+    public final class Permit {
+        private final Breaker breaker;
+        /**
+         * 申请许可时熔断器的状态代数,状态切换后旧许可的结果不再计入
+         */
+        private final long generation;
+        private final long start;
+
+        private Permit(Breaker breaker, long generation, long start) {
+            this.breaker = breaker;
+            this.generation = generation;
+            this.start = start;
+        }
+
+        public void onSuccess() {
+            long slowNanos = TimeUnit.MILLISECONDS.toNanos(config.getSlowCallDuration());
+            breaker.onResult(generation, slowNanos > 0 && System.nanoTime() - start > slowNanos);
+        }
+
+        public void onFailure() {
+            breaker.onResult(generation, true);
+        }
+    }
+
+    private final class Breaker {
+        private final String host;
+        private final boolean[] window;
+        private final Counter rejected;
+        private volatile State state = State.CLOSED;
+        /**
+         * 每次状态切换加一
+         */
+        private long generation;
+        private int index;
+        private int calls;
+        private int failures;
+        private long openedAt;
+        private int probing;
+        private int probeSuccesses;
+
+        private Breaker(String host) {
+            this.host = host;
+            this.window = new boolean[Math.max(1, config.getWindowSize())];
+            Tags tags = Tags.of("host", host);
+            Gauge.builder("http.client.circuit.state", this, breaker -> breaker.state.ordinal())
+                    .description("熔断器状态:0关闭,1打开,2半开")
+                    .tags(tags)
+                    .register(Metrics.globalRegistry);
+            this.rejected = Counter.builder("http.client.circuit.rejected")
+                    .description("被熔断器拒绝的请求数")
+                    .tags(tags)
+                    .register(Metrics.globalRegistry);
+        }
+
+        /**
+         * @return 许可所属的状态代数,拒绝时返回-1
+         */
+        private synchronized long tryAcquire(long now) {
+            if (state == State.CLOSED) {
+                return generation;
+            }
+            if (state == State.OPEN) {
+                if (now - openedAt < TimeUnit.MILLISECONDS.toNanos(config.getOpenDuration())) {
+                    return -1;
+                }
+                transition(State.HALF_OPEN);
+                probing = 0;
+                probeSuccesses = 0;
+            }
+            if (probing < config.getHalfOpenCalls()) {
+                probing++;
+                return generation;
+            }
+            return -1;
+        }
+
+        private synchronized void onResult(long permitGeneration, boolean failure) {
+            if (permitGeneration != generation) {
+                // 状态切换前放行的调用,结果已不代表当前状态
+                return;
+            }
+            if (state == State.HALF_OPEN) {
+                probing--;
+                if (failure) {
+                    open();
+                } else if (++probeSuccesses >= config.getHalfOpenCalls()) {
+                    close();
+                }
+                return;
+            }
+            if (state == State.OPEN) {
+                return;
+            }
+            if (calls == window.length) {
+                if (window[index]) {
+                    failures--;
+                }
+            } else {
+                calls++;
+            }
+            window[index] = failure;
+            if (failure) {
+                failures++;
+            }
+            index = (index + 1) % window.length;
+            if (calls >= config.getMinimumCalls() && failures * 100 >= config.getFailureRate() * calls) {
+                open();
+            }
+        }
+
+        private void open() {
+            openedAt = System.nanoTime();
+            transition(State.OPEN);
+        }
+
+        private void close() {
+            index = 0;
+            calls = 0;
+            failures = 0;
+            transition(State.CLOSED);
+        }
+
+        private void transition(State target) {
+            if (state != target) {
+                log.warn("Circuit breaker for {} changed from {} to {}", host, state, target);
+                generation++;
+                state = target;
+            }
+        }
+    }
+
+    /*
+     * Description: 熔断器打开时抛出,经RestTemplate包装为ResourceAccessException
+     **/
+    public static class CircuitBreakerOpenException extends IOException {
+        public CircuitBreakerOpenException(String message) {
+            super(message);
+        }
+    }
+
+    /*
+     * Description: 熔断器配置,时间单位为ms
+     **/
+    @Data
+    public static class BreakerConfig {
+        /**
+         * 是否启用熔断,默认关闭
+         */
+        private Boolean enabled = false;
+        /**
+         * 统计最近多少次调用
+         */
+        private Integer windowSize = 50;
+        /**
+         * 统计窗口内至少多少次调用才计算失败率
+         */
+        private Integer minimumCalls = 20;
+        /**
+         * 失败率阈值百分比,达到后打开
+         */
+        private Integer failureRate = 50;
+        /**
+         * 超过该耗时的调用计为失败,0表示不统计慢调用
+         */
+        private Long slowCallDuration = 10 * 1000L;
+        /**
+         * 打开状态持续时间,之后进入半开
+         */
+        private Long openDuration = 30 * 1000L;
+        /**
+         * 半开状态放行的探测请求数
+         */
+        private Integer halfOpenCalls = 3;
+    }
+}
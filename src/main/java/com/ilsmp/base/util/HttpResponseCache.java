@@ -0,0 +1,418 @@
+package com.ilsmp.base.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.SequenceInputStream;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import lombok.Data;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.util.StreamUtils;
+
+/*
+ * Author: zhangjiahao04
+ * Description: RestTemplateUtil的GET响应缓存,按Cache-Control/Expires计算新鲜期,
+ * 过期后携带If-None-Match/If-Modified-Since向服务端校验,按LRU淘汰;
+ * 同一时刻相同请求只发起一次下游调用,其余请求等待并共享结果
+ * Date: 2026/10/18 14:50
+ **/
+public class HttpResponseCache implements ClientHttpRequestInterceptor {
+
+    /**
+     * 缓存键包含的请求头(小写)
+     */
+    private static final Set<String> KEY_HEADERS = new HashSet<>(Arrays.asList("accept", "accept-language",
+            "authorization"));
+
+    private final CacheConfig config;
+    private final Map<String, Entry> entries;
+    private final ConcurrentHashMap<String, CompletableFuture<BufferedClientHttpResponse>> inflight =
+            new ConcurrentHashMap<>();
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private final Counter revalidatedCounter;
+    private final Counter coalescedCounter;
+
+    public HttpResponseCache(CacheConfig config) {
+        this.config = config;
+        int maxEntries = Math.max(1, config.getMaxEntries());
+        this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        this.hitCounter = counter("hit");
+        this.missCounter = counter("miss");
+        this.revalidatedCounter = counter("revalidated");
+        this.coalescedCounter = counter("coalesced");
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        HttpHeaders requestHeaders = request.getHeaders();
+        if (request.getMethod() != HttpMethod.GET || requestHeaders.getIfNoneMatch().size() > 0
+                || requestHeaders.getIfModifiedSince() >= 0 || directives(requestHeaders).noStore) {
+            return execution.execute(request, body);
+        }
+        String key = key(request);
+        Entry entry = get(key);
+        if (entry != null && entry.isFresh() && !directives(requestHeaders).noCache) {
+            hitCounter.increment();
+            return entry.response();
+        }
+        CompletableFuture<BufferedClientHttpResponse> future = new CompletableFuture<>();
+        CompletableFuture<BufferedClientHttpResponse> leader = inflight.putIfAbsent(key, future);
+        if (leader != null) {
+            BufferedClientHttpResponse shared = await(leader);
+            if (shared != null) {
+                coalescedCounter.increment();
+                return copy(shared);
+            }
+            return execution.execute(request, body);
+        }
+        try {
+            ClientHttpResponse response = fetch(key, entry, request, body, execution);
+            // Vary了缓存键以外的请求头时,等待中的请求各自调用
+            future.complete(response instanceof BufferedClientHttpResponse && varySupported(response.getHeaders())
+                    ? (BufferedClientHttpResponse) response : null);
+            return response instanceof BufferedClientHttpResponse ? copy((BufferedClientHttpResponse) response)
+                    : response;
+        } catch (IOException | RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inflight.remove(key, future);
+        }
+    }
+
+    /**
+     * 清空缓存
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    /**
+     * 移除指定URL的缓存
+     * @param uri 完整请求URL
+     */
+    public void invalidate(String uri) {
+        synchronized (entries) {
+            entries.keySet().removeIf(key -> key.startsWith(uri + "\n"));
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private ClientHttpResponse fetch(String key, Entry entry, HttpRequest request, byte[] body,
+                                     ClientHttpRequestExecution execution) throws IOException {
+        if (entry != null) {
+            if (entry.etag != null) {
+                request.getHeaders().setIfNoneMatch(entry.etag);
+            }
+            if (entry.lastModified >= 0) {
+                request.getHeaders().setIfModifiedSince(entry.lastModified);
+            }
+        }
+        ClientHttpResponse response = execution.execute(request, body);
+        int status = response.getStatusCode().value();
+        if (entry != null && status == HttpStatus.NOT_MODIFIED.value()) {
+            // 服务端确认未变化,沿用缓存的响应体并按新响应头刷新新鲜期
+            HttpHeaders headers = new HttpHeaders();
+            headers.putAll(entry.response.getHeaders());
+            response.getHeaders().forEach(headers::put);
+            response.close();
+            Entry refreshed = new Entry(new BufferedClientHttpResponse(entry.response.getStatusCode().value(),
+                    entry.response.getStatusText(), headers, entry.response.getBodyBytes()),
+                    freshness(headers), etag(headers), headers.getLastModified());
+            put(key, refreshed);
+            revalidatedCounter.increment();
+            return refreshed.response;
+        }
+        missCounter.increment();
+        long contentLength = response.getHeaders().getContentLength();
+        if (status != HttpStatus.OK.value() || contentLength > config.getMaxBodySize()) {
+            return response;
+        }
+        // 未知长度(chunked)时最多读取maxBodySize+1字节,超出则不缓存,已读部分和剩余部分拼接后交给调用方
+        int limit = (int) Math.min(Integer.MAX_VALUE - 1, config.getMaxBodySize());
+        InputStream in = response.getBody();
+        byte[] bytes;
+        try {
+            bytes = readAtMost(in, limit + 1);
+        } catch (IOException | RuntimeException e) {
+            response.close();
+            throw e;
+        }
+        if (bytes.length > limit) {
+            return new PrefixedClientHttpResponse(response, bytes, in);
+        }
+        try {
+            in.close();
+        } finally {
+            response.close();
+        }
+        BufferedClientHttpResponse buffered = new BufferedClientHttpResponse(status, response.getStatusText(),
+                response.getHeaders(), bytes);
+        Directives directives = directives(response.getHeaders());
+        String etag = etag(response.getHeaders());
+        long lastModified = response.getHeaders().getLastModified();
+        long freshness = freshness(response.getHeaders());
+        if (!directives.noStore && varySupported(response.getHeaders())
+                && (freshness > 0 || etag != null || lastModified >= 0)) {
+            put(key, new Entry(buffered, freshness, etag, lastModified));
+        }
+        return buffered;
+    }
+
+    /*
+     * Description: 新鲜期(纳秒),优先max-age,其次Expires-Date,都没有时使用默认ttl;no-cache时为0,每次需校验
+     **/
+    private long freshness(HttpHeaders headers) {
+        Directives directives = directives(headers);
+        if (directives.noCache) {
+            return 0;
+        }
+        long seconds;
+        if (directives.maxAge >= 0) {
+            seconds = directives.maxAge;
+        } else if (headers.getExpires() >= 0) {
+            long date = headers.getDate() >= 0 ? headers.getDate() : System.currentTimeMillis();
+            seconds = (headers.getExpires() - date) / 1000;
+        } else {
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, config.getDefaultTtl()));
+        }
+        String age = headers.getFirst("Age");
+        if (age != null) {
+            try {
+                seconds -= Long.parseLong(age.trim());
+            } catch (NumberFormatException ignored) {
+                // 非法Age头按0处理
+            }
+        }
+        return TimeUnit.SECONDS.toNanos(Math.max(0, seconds));
+    }
+
+    private static String etag(HttpHeaders headers) {
+        return headers.getETag();
+    }
+
+    private static Directives directives(HttpHeaders headers) {
+        Directives directives = new Directives();
+        String cacheControl = headers.getCacheControl();
+        if (cacheControl == null) {
+            return directives;
+        }
+        for (String token : cacheControl.split(",")) {
+            String directive = token.trim().toLowerCase(Locale.ROOT);
+            if (directive.equals("no-store")) {
+                directives.noStore = true;
+            } else if (directive.equals("no-cache")) {
+                directives.noCache = true;
+            } else if (directive.startsWith("max-age=")) {
+                try {
+                    directives.maxAge = Long.parseLong(directive.substring(8).replace("\"", ""));
+                } catch (NumberFormatException ignored) {
+                    directives.maxAge = 0;
+                }
+            }
+        }
+        return directives;
+    }
+
+    private static byte[] readAtMost(InputStream in, int max) throws IOException {
+        byte[] buffer = new byte[Math.min(max, StreamUtils.BUFFER_SIZE)];
+        int length = 0;
+        int read;
+        while (length < max && (read = in.read(buffer, length, Math.min(buffer.length, max) - length)) != -1) {
+            length += read;
+            if (length == buffer.length && length < max) {
+                buffer = Arrays.copyOf(buffer, (int) Math.min(max, (long) buffer.length * 2));
+            }
+        }
+        return length == buffer.length ? buffer : Arrays.copyOf(buffer, length);
+    }
+
+    /*
+     * Description: 响应的Vary只包含缓存键中的请求头时才能缓存,Vary: *或其他请求头时不缓存
+     **/
+    private static boolean varySupported(HttpHeaders headers) {
+        for (String vary : headers.getVary()) {
+            if (!KEY_HEADERS.contains(vary.trim().toLowerCase(Locale.ROOT))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /*
+     * Description: 缓存键包含会影响响应内容的请求头
+     **/
+    private static String key(HttpRequest request) {
+        HttpHeaders headers = request.getHeaders();
+        return request.getURI() + "\n" + headers.getFirst(HttpHeaders.ACCEPT) + "\n"
+                + headers.getFirst(HttpHeaders.ACCEPT_LANGUAGE) + "\n" + headers.getFirst(HttpHeaders.AUTHORIZATION);
+    }
+
+    private Entry get(String key) {
+        synchronized (entries) {
+            return entries.get(key);
+        }
+    }
+
+    private void put(String key, Entry entry) {
+        synchronized (entries) {
+            entries.put(key, entry);
+        }
+    }
+
+    private static BufferedClientHttpResponse copy(BufferedClientHttpResponse response) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.putAll(response.getHeaders());
+        return new BufferedClientHttpResponse(response.getStatusCode().value(), response.getStatusText(), headers,
+                response.getBodyBytes());
+    }
+
+    private static BufferedClientHttpResponse await(CompletableFuture<BufferedClientHttpResponse> future)
+            throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while waiting for coalesced request");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    private static Counter counter(String result) {
+        return Counter.builder("http.client.cache")
+                .description("RestTemplateUtil响应缓存命中情况")
+                .tag("result", result)
+                .register(Metrics.globalRegistry);
+    }
+
+    /*
+     * Description: 超出缓存大小的响应,先返回已读取的前缀再继续读取原响应流
+     **/
+    private static final class PrefixedClientHttpResponse implements ClientHttpResponse {
+        private final ClientHttpResponse delegate;
+        private final InputStream body;
+
+        private PrefixedClientHttpResponse(ClientHttpResponse delegate, byte[] prefix, InputStream rest) {
+            this.delegate = delegate;
+            this.body = new SequenceInputStream(new ByteArrayInputStream(prefix), rest);
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public void close() {
+            delegate.close();
+        }
+
+        @Override
+        public InputStream getBody() {
+            return body;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+    }
+
+    private static final class Directives {
+        private boolean noStore;
+        private boolean noCache;
+        private long maxAge = -1;
+    }
+
+    private static final class Entry {
+        private final BufferedClientHttpResponse response;
+        private final long expiresAt;
+        private final String etag;
+        private final long lastModified;
+
+        private Entry(BufferedClientHttpResponse response, long freshness, String etag, long lastModified) {
+            this.response = response;
+            this.expiresAt = System.nanoTime() + freshness;
+            this.etag = etag;
+            this.lastModified = lastModified;
+        }
+
+        private boolean isFresh() {
+            return System.nanoTime() - expiresAt < 0;
+        }
+
+        private ClientHttpResponse response() {
+            return copy(response);
+        }
+    }
+
+    /*
+     * Description: 响应缓存配置,时间单位为ms
+     **/
+    @Data
+    public static class CacheConfig {
+        /**
+         * 是否启用GET响应缓存
+         */
+        private Boolean enabled = false;
+        /**
+         * 最大缓存条数,超出后淘汰最久未访问的
+         */
+        private Integer maxEntries = 1000;
+        /**
+         * 单个响应体最大缓存字节数,超出不缓存
+         */
+        private Long maxBodySize = 1024 * 1024L;
+        /**
+         * 响应未携带Cache-Control/Expires时的缓存时间,0表示只缓存带ETag/Last-Modified的响应用于校验
+         */
+        private Long defaultTtl = 0L;
+    }
+}
@@ -0,0 +1,204 @@
+package com.ilsmp.base.util;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+/*
+ * Author: zhangjiahao04
+ * Description: RestTemplateUtil重试与熔断拦截器。只重试幂等请求(GET/HEAD/OPTIONS/PUT/DELETE,
+ * 或携带Idempotency-Key请求头),在IO异常及429/502/503/504时按指数退避加随机抖动重试;
+ * 重试预算限制重试量不超过正常请求量的一定比例,避免下游故障时重试放大流量。
+ * 重试需要重新执行后续调用链,因此必须是最后一个拦截器
+ * Date: 2026/10/18 15:10
+ **/
+@Slf4j
+public class HttpRetryInterceptor implements ClientHttpRequestInterceptor {
+
+    public static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    private static final Set<HttpMethod> IDEMPOTENT_METHODS = new HashSet<>(Arrays.asList(HttpMethod.GET,
+            HttpMethod.HEAD, HttpMethod.OPTIONS, HttpMethod.PUT, HttpMethod.DELETE, HttpMethod.TRACE));
+    /**
+     * 预算以千分之一个令牌为单位计数
+     */
+    private static final long TOKEN = 1000;
+
+    private final RetryConfig config;
+    private final HttpCircuitBreaker circuitBreaker;
+    private final Set<Integer> retryStatuses;
+    private final AtomicLong budget;
+    private final long budgetCapacity;
+    private final long budgetDeposit;
+    private final Counter retryCounter;
+    private final Counter exhaustedCounter;
+
+    public HttpRetryInterceptor(RetryConfig config, HttpCircuitBreaker circuitBreaker) {
+        this.config = config;
+        this.circuitBreaker = circuitBreaker;
+        this.retryStatuses = new HashSet<>(config.getRetryStatuses());
+        this.budgetCapacity = Math.max(1, config.getBudgetCapacity()) * TOKEN;
+        this.budgetDeposit = (long) (config.getBudgetRatio() * TOKEN);
+        this.budget = new AtomicLong(budgetCapacity);
+        this.retryCounter = Counter.builder("http.client.retry")
+                .description("RestTemplateUtil重试次数")
+                .register(Metrics.globalRegistry);
+        this.exhaustedCounter = Counter.builder("http.client.retry.budget.exhausted")
+                .description("因重试预算不足放弃的重试次数")
+                .register(Metrics.globalRegistry);
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        deposit();
+        int maxAttempts = isRetryable(request) ? Math.max(1, config.getMaxAttempts()) : 1;
+        for (int attempt = 1; ; attempt++) {
+            HttpCircuitBreaker.Permit permit = circuitBreaker == null ? null
+                    : circuitBreaker.acquire(request.getURI());
+            ClientHttpResponse response;
+            try {
+                response = execution.execute(request, body);
+            } catch (IOException | RuntimeException e) {
+                if (permit != null) {
+                    permit.onFailure();
+                }
+                if (e instanceof RuntimeException || attempt >= maxAttempts || !withdraw()) {
+                    throw e;
+                }
+                backoff(request, attempt, -1, e.toString());
+                continue;
+            }
+            int status = response.getStatusCode().value();
+            if (permit != null) {
+                if (response.getStatusCode().is5xxServerError()) {
+                    permit.onFailure();
+                } else {
+                    permit.onSuccess();
+                }
+            }
+            if (!retryStatuses.contains(status) || attempt >= maxAttempts || !withdraw()) {
+                return response;
+            }
+            long retryAfter = retryAfter(response);
+            response.close();
+            backoff(request, attempt, retryAfter, "status " + status);
+        }
+    }
+
+    private boolean isRetryable(HttpRequest request) {
+        return IDEMPOTENT_METHODS.contains(request.getMethod()) || request.getHeaders().containsKey(IDEMPOTENCY_KEY);
+    }
+
+    private void backoff(HttpRequest request, int attempt, long retryAfter, String reason) throws IOException {
+        retryCounter.increment();
+        long delay;
+        if (retryAfter >= 0) {
+            delay = Math.min(retryAfter, config.getMaxBackoff());
+        } else {
+            // 全抖动:在[0, min(max, initial*multiplier^(n-1))]中随机,分散同时失败的调用方
+            double ceiling = Math.min(config.getMaxBackoff(),
+                    config.getInitialBackoff() * Math.pow(config.getMultiplier(), attempt - 1));
+            delay = (long) (ThreadLocalRandom.current().nextDouble() * ceiling);
+        }
+        log.warn("Retry {} {} after {}ms, attempt {} failed: {}", request.getMethod(), request.getURI(), delay,
+                attempt, reason);
+        try {
+            TimeUnit.MILLISECONDS.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while waiting to retry " + request.getURI());
+        }
+    }
+
+    /*
+     * Description: Retry-After头(秒),没有或无法解析返回-1
+     **/
+    private static long retryAfter(ClientHttpResponse response) {
+        String value = response.getHeaders().getFirst("Retry-After");
+        if (value == null) {
+            return -1;
+        }
+        try {
+            return TimeUnit.SECONDS.toMillis(Long.parseLong(value.trim()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private void deposit() {
+        long current;
+        do {
+            current = budget.get();
+            if (current >= budgetCapacity) {
+                return;
+            }
+        } while (!budget.compareAndSet(current, Math.min(budgetCapacity, current + budgetDeposit)));
+    }
+
+    private boolean withdraw() {
+        long current;
+        do {
+            current = budget.get();
+            if (current < TOKEN) {
+                exhaustedCounter.increment();
+                return false;
+            }
+        } while (!budget.compareAndSet(current, current - TOKEN));
+        return true;
+    }
+
+    /*
+     * Description: 重试配置,时间单位为ms
+     **/
+    @Data
+    public static class RetryConfig {
+        /**
+         * 是否启用重试,默认关闭
+         */
+        private Boolean enabled = false;
+        /**
+         * 最大尝试次数(含首次)
+         */
+        private Integer maxAttempts = 3;
+        /**
+         * 首次重试的退避上限
+         */
+        private Long initialBackoff = 100L;
+        /**
+         * 退避上限
+         */
+        private Long maxBackoff = 2000L;
+        /**
+         * 退避倍数
+         */
+        private Double multiplier = 2.0;
+        /**
+         * 重试预算:每个请求积累的重试令牌数,0.2表示重试量不超过请求量的20%
+         */
+        private Double budgetRatio = 0.2;
+        /**
+         * 重试预算最多积累的令牌数
+         */
+        private Integer budgetCapacity = 100;
+        /**
+         * 需要重试的响应状态码
+         */
+        private List<Integer> retryStatuses = Arrays.asList(429, 502, 503, 504);
+    }
+}
@@ -0,0 +1,170 @@
+package com.ilsmp.base.util;
+
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+
+/*
+ * Author: zhangjiahao04
+ * Description: 可观测线程池,统计拒绝次数、任务排队耗时与执行耗时,
+ * 指标注册到Metrics全局注册表,引入actuator后自动汇入/actuator/metrics
+ * Date: 2026/10/18 10:12
+ **/
+public class MonitoredThreadPoolExecutor extends ThreadPoolExecutor {
+
+    /**
+     * 与Spring Boot为applicationTaskExecutor注册的executor.*指标区分,
+     * 同名指标的标签键不一致时Prometheus会丢弃其中一组
+     */
+    public static final String METRIC_PREFIX = "base.executor";
+    /**
+     * ExecutorServiceMetrics的指标名前缀,生成base.executor.*
+     */
+    static final String BINDER_PREFIX = "base";
+    /**
+     * 区分同名的平台线程池、虚拟线程执行器和工作窃取线程池的指标标签
+     */
+    public static final String TYPE_TAG = "type";
+    static final String TYPE_PLATFORM = "platform";
+    static final String TYPE_VIRTUAL = "virtual";
+    static final String TYPE_FORK_JOIN = "forkjoin";
+
+    private final String name;
+    private final LongAdder rejectedCount = new LongAdder();
+    private final Timer waitTimer;
+    private final Timer runTimer;
+
+    public MonitoredThreadPoolExecutor(String name, int corePoolSize, int maxPoolSize, long keepAliveSeconds,
+                                       BlockingQueue<Runnable> workQueue, ThreadFactory threadFactory,
+                                       RejectedExecutionHandler handler) {
+        super(corePoolSize, maxPoolSize, keepAliveSeconds, TimeUnit.SECONDS, workQueue, threadFactory, handler);
+        this.name = name;
+        super.setRejectedExecutionHandler(new CountingHandler(handler));
+        MeterRegistry registry = Metrics.globalRegistry;
+        Tags tags = Tags.of("name", name, TYPE_TAG, TYPE_PLATFORM);
+        // 活跃线程、队列深度、完成任务数等
+        new ExecutorServiceMetrics(this, name, BINDER_PREFIX, Tags.of(TYPE_TAG, TYPE_PLATFORM)).bindTo(registry);
+        FunctionCounter.builder(METRIC_PREFIX + ".rejected", rejectedCount, LongAdder::sum)
+                .description("任务被拒绝的次数")
+                .tags(tags)
+                .register(registry);
+        this.waitTimer = Timer.builder(METRIC_PREFIX + ".task.wait")
+                .description("任务提交到开始执行的排队耗时")
+                .tags(tags)
+                .publishPercentileHistogram()
+                .register(registry);
+        this.runTimer = Timer.builder(METRIC_PREFIX + ".task.run")
+                .description("任务执行耗时")
+                .tags(tags)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        if (command == null) {
+            throw new NullPointerException();
+        }
+        super.execute(new TimedTask(ExecutorUtil.decorate(command)));
+    }
+
+    @Override
+    public void setRejectedExecutionHandler(RejectedExecutionHandler handler) {
+        super.setRejectedExecutionHandler(new CountingHandler(handler));
+    }
+
+    @Override
+    public void shutdown() {
+        super.shutdown();
+        unbindMeters(name, TYPE_PLATFORM);
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        List<Runnable> tasks = super.shutdownNow();
+        unbindMeters(name, TYPE_PLATFORM);
+        return tasks;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount.sum();
+    }
+
+    public Timer getWaitTimer() {
+        return waitTimer;
+    }
+
+    public Timer getRunTimer() {
+        return runTimer;
+    }
+
+    /*
+     * Description: 同名线程池重建前必须移除旧指标,否则注册表会继续返回旧池的指标;
+     * 按type只移除同类执行器的指标,同名的其他类型执行器不受影响
+     **/
+    static void unbindMeters(String name, String type) {
+        MeterRegistry registry = Metrics.globalRegistry;
+        for (Meter meter : registry.getMeters()) {
+            Meter.Id id = meter.getId();
+            if (id.getName().startsWith(METRIC_PREFIX) && name.equals(id.getTag("name"))
+                    && type.equals(id.getTag(TYPE_TAG))) {
+                registry.remove(meter);
+            }
+        }
+    }
+
+    private final class TimedTask implements Runnable {
+        private final Runnable task;
+        private final long submitNanos = System.nanoTime();
+
+        private TimedTask(Runnable task) {
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+            long start = System.nanoTime();
+            waitTimer.record(start - submitNanos, TimeUnit.NANOSECONDS);
+            try {
+                task.run();
+            } finally {
+                runTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return task.toString();
+        }
+    }
+
+    private final class CountingHandler implements RejectedExecutionHandler {
+        private final RejectedExecutionHandler delegate;
+
+        private CountingHandler(RejectedExecutionHandler delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void rejectedExecution(Runnable r, ThreadPoolExecutor executor) {
+            rejectedCount.increment();
+            delegate.rejectedExecution(r, executor);
+        }
+    }
+}
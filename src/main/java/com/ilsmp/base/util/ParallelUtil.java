@@ -0,0 +1,222 @@
+package com.ilsmp.base.util;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/*
+ * Author: zhangjiahao04
+ * Description: 基于ForkJoinPool的并行map/reduce工具,按阈值递归二分拆分任务,
+ * 空闲工作线程从其他线程的队列窃取任务,适合大集合的CPU密集计算(距离计算、CRC分桶、JSON转换等),
+ * 阻塞IO任务请使用ExecutorUtil的线程池
+ * Date: 2026/10/18 12:10
+ **/
+public class ParallelUtil {
+
+    /**
+     * 默认使用的工作窃取线程池名称
+     */
+    public static final String DEFAULT_POOL = "parallel";
+    /**
+     * 每个工作线程期望分到的子任务数,用于计算默认拆分阈值
+     */
+    private static final int TASKS_PER_THREAD = 4;
+    /**
+     * 自动计算阈值时子任务的最小元素数,元素较少时拆分和窃取的开销大于并行收益,直接在调用线程执行
+     */
+    public static final int MIN_SPLIT_SIZE = 256;
+
+    /*
+     * Description: 并行转换,结果顺序与原集合一致
+     **/
+    public static <T, R> List<R> map(List<T> list, Function<? super T, ? extends R> mapper) {
+        return map(list, mapper, 0);
+    }
+
+    /*
+     * Description: 并行转换,threshold为单个子任务处理的最大元素数,小于等于0时按并行度自动计算且不小于MIN_SPLIT_SIZE
+     **/
+    public static <T, R> List<R> map(List<T> list, Function<? super T, ? extends R> mapper, int threshold) {
+        return map(list, mapper, threshold, defaultPool());
+    }
+
+    public static <T, R> List<R> map(List<T> list, Function<? super T, ? extends R> mapper, int threshold,
+                                     ForkJoinPool pool) {
+        Objects.requireNonNull(mapper);
+        return mapArray(list.toArray(), mapper, threshold, pool);
+    }
+
+    public static <T, R> List<R> map(T[] array, Function<? super T, ? extends R> mapper) {
+        return map(array, mapper, 0);
+    }
+
+    public static <T, R> List<R> map(T[] array, Function<? super T, ? extends R> mapper, int threshold) {
+        return map(array, mapper, threshold, defaultPool());
+    }
+
+    public static <T, R> List<R> map(T[] array, Function<? super T, ? extends R> mapper, int threshold,
+                                     ForkJoinPool pool) {
+        Objects.requireNonNull(mapper);
+        return mapArray(array, mapper, threshold, pool);
+    }
+
+    /*
+     * Description: 并行转换后归约,reducer需满足结合律,identity需为reducer的单位元
+     **/
+    public static <T, R> R mapReduce(List<T> list, Function<? super T, ? extends R> mapper, R identity,
+                                     BinaryOperator<R> reducer) {
+        return mapReduce(list, mapper, identity, reducer, 0);
+    }
+
+    public static <T, R> R mapReduce(List<T> list, Function<? super T, ? extends R> mapper, R identity,
+                                     BinaryOperator<R> reducer, int threshold) {
+        return mapReduce(list, mapper, identity, reducer, threshold, defaultPool());
+    }
+
+    public static <T, R> R mapReduce(List<T> list, Function<? super T, ? extends R> mapper, R identity,
+                                     BinaryOperator<R> reducer, int threshold, ForkJoinPool pool) {
+        return reduceArray(list.toArray(), mapper, identity, reducer, threshold, pool);
+    }
+
+    public static <T, R> R mapReduce(T[] array, Function<? super T, ? extends R> mapper, R identity,
+                                     BinaryOperator<R> reducer) {
+        return mapReduce(array, mapper, identity, reducer, 0);
+    }
+
+    public static <T, R> R mapReduce(T[] array, Function<? super T, ? extends R> mapper, R identity,
+                                     BinaryOperator<R> reducer, int threshold) {
+        return mapReduce(array, mapper, identity, reducer, threshold, defaultPool());
+    }
+
+    public static <T, R> R mapReduce(T[] array, Function<? super T, ? extends R> mapper, R identity,
+                                     BinaryOperator<R> reducer, int threshold, ForkJoinPool pool) {
+        return reduceArray(array, mapper, identity, reducer, threshold, pool);
+    }
+
+    /*
+     * Description: 并行遍历,action需线程安全
+     **/
+    public static <T> void forEach(List<T> list, Consumer<? super T> action) {
+        forEach(list, action, 0);
+    }
+
+    public static <T> void forEach(List<T> list, Consumer<? super T> action, int threshold) {
+        Objects.requireNonNull(action);
+        map(list, item -> {
+            action.accept(item);
+            return null;
+        }, threshold);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T, R> List<R> mapArray(Object[] source, Function<? super T, ? extends R> mapper, int threshold,
+                                           ForkJoinPool pool) {
+        Object[] result = new Object[source.length];
+        int split = threshold(source.length, threshold, pool);
+        MapTask<T, R> task = new MapTask<>(source, result, mapper, 0, source.length, split);
+        if (source.length <= split) {
+            task.compute();
+        } else {
+            pool.invoke(task);
+        }
+        return (List<R>) Arrays.asList(result);
+    }
+
+    private static <T, R> R reduceArray(Object[] source, Function<? super T, ? extends R> mapper, R identity,
+                                        BinaryOperator<R> reducer, int threshold, ForkJoinPool pool) {
+        Objects.requireNonNull(mapper);
+        Objects.requireNonNull(reducer);
+        int split = threshold(source.length, threshold, pool);
+        ReduceTask<T, R> task = new ReduceTask<>(source, mapper, identity, reducer, 0, source.length, split);
+        return source.length <= split ? task.compute() : pool.invoke(task);
+    }
+
+    private static int threshold(int size, int threshold, ForkJoinPool pool) {
+        if (threshold > 0) {
+            return threshold;
+        }
+        return Math.max(MIN_SPLIT_SIZE, size / (pool.getParallelism() * TASKS_PER_THREAD));
+    }
+
+    private static ForkJoinPool defaultPool() {
+        return ExecutorUtil.getInstance().getForkJoinPool(DEFAULT_POOL);
+    }
+
+    private static final class MapTask<T, R> extends RecursiveAction {
+        private final Object[] source;
+        private final Object[] result;
+        private final Function<? super T, ? extends R> mapper;
+        private final int from;
+        private final int to;
+        private final int threshold;
+
+        private MapTask(Object[] source, Object[] result, Function<? super T, ? extends R> mapper,
+                        int from, int to, int threshold) {
+            this.source = source;
+            this.result = result;
+            this.mapper = mapper;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        protected void compute() {
+            if (to - from <= threshold) {
+                for (int i = from; i < to; i++) {
+                    result[i] = mapper.apply((T) source[i]);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new MapTask<>(source, result, mapper, from, middle, threshold),
+                    new MapTask<>(source, result, mapper, middle, to, threshold));
+        }
+    }
+
+    private static final class ReduceTask<T, R> extends RecursiveTask<R> {
+        private final Object[] source;
+        private final Function<? super T, ? extends R> mapper;
+        private final R identity;
+        private final BinaryOperator<R> reducer;
+        private final int from;
+        private final int to;
+        private final int threshold;
+
+        private ReduceTask(Object[] source, Function<? super T, ? extends R> mapper, R identity,
+                           BinaryOperator<R> reducer, int from, int to, int threshold) {
+            this.source = source;
+            this.mapper = mapper;
+            this.identity = identity;
+            this.reducer = reducer;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        protected R compute() {
+            if (to - from <= threshold) {
+                R value = identity;
+                for (int i = from; i < to; i++) {
+                    value = reducer.apply(value, mapper.apply((T) source[i]));
+                }
+                return value;
+            }
+            int middle = (from + to) >>> 1;
+            ReduceTask<T, R> left = new ReduceTask<>(source, mapper, identity, reducer, from, middle, threshold);
+            ReduceTask<T, R> right = new ReduceTask<>(source, mapper, identity, reducer, middle, to, threshold);
+            left.fork();
+            R rightValue = right.compute();
+            return reducer.apply(left.join(), rightValue);
+        }
+    }
+}
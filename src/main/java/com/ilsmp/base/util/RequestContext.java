@@ -0,0 +1,167 @@
+package com.ilsmp.base.util;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.util.WebUtils;
+
+/*
+ * Author: zhangjiahao04
+ * Description: 单个请求的header/param/body上下文,作为request属性保存,随请求结束由容器回收,
+ * 异步分派和切换线程后仍可通过request取到;各部分首次访问时才解析并缓存,取单个header/param时不构建完整map
+ * Date: 2026/10/18 17:05
+ **/
+public class RequestContext {
+
+    private static final String ATTRIBUTE = RequestContext.class.getName();
+
+    private final HttpServletRequest request;
+    private Map<String, String> headers;
+    private Map<String, String[]> params;
+    private String bodyString;
+    private Object body;
+
+    private RequestContext(HttpServletRequest request) {
+        this.request = request;
+    }
+
+    /**
+     * 获取请求上下文,不存在时创建并保存到request属性
+     * @param request 请求
+     * @return 上下文
+     */
+    public static RequestContext of(HttpServletRequest request) {
+        Object context = request.getAttribute(ATTRIBUTE);
+        if (context instanceof RequestContext) {
+            return (RequestContext) context;
+        }
+        RequestContext created = new RequestContext(request);
+        request.setAttribute(ATTRIBUTE, created);
+        return created;
+    }
+
+    /**
+     * 当前线程绑定请求的上下文
+     * @return 上下文,不在请求线程中时返回null
+     */
+    public static RequestContext current() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes)) {
+            return null;
+        }
+        return of(((ServletRequestAttributes) attributes).getRequest());
+    }
+
+    /**
+     * 丢弃已解析的内容,下次访问时重新解析
+     * @param request 请求
+     */
+    public static void clear(HttpServletRequest request) {
+        request.removeAttribute(ATTRIBUTE);
+    }
+
+    public HttpServletRequest getRequest() {
+        return request;
+    }
+
+    /**
+     * 单个请求头,不存在时返回空串
+     */
+    public String getHeader(String name) {
+        Map<String, String> parsed = headers;
+        if (parsed != null) {
+            String value = parsed.get(name.toLowerCase());
+            if (value != null) {
+                return value;
+            }
+        }
+        String value = request.getHeader(name);
+        return value == null ? "" : value;
+    }
+
+    /**
+     * 全部请求头,key为小写
+     */
+    public synchronized Map<String, String> getHeaders() {
+        if (headers == null) {
+            Map<String, String> header = new HashMap<>();
+            Enumeration<String> headerNames = request.getHeaderNames();
+            while (headerNames != null && headerNames.hasMoreElements()) {
+                String key = headerNames.nextElement();
+                header.put(key.toLowerCase(), request.getHeader(key));
+            }
+            if (header.isEmpty()) {
+                header.put("noHeaderParam", null);
+            }
+            headers = header;
+        }
+        return headers;
+    }
+
+    /**
+     * 单个请求参数,多个值以,连接,不存在时返回空串
+     */
+    public String getParam(String name) {
+        String[] values = getParamValues(name);
+        return values.length == 0 ? "" : String.join(",", values);
+    }
+
+    public String[] getParamValues(String name) {
+        String[] values = request.getParameterValues(name);
+        return values == null ? new String[]{} : values;
+    }
+
+    /**
+     * 全部请求参数
+     */
+    public synchronized Map<String, String[]> getParams() {
+        if (params == null) {
+            Map<String, String[]> paramMap = request.getParameterMap();
+            if (StringUtil.isEmpty(paramMap)) {
+                paramMap = new HashMap<>();
+                paramMap.put("noParam", null);
+            }
+            params = paramMap;
+        }
+        return params;
+    }
+
+    /**
+     * 请求体原文,请求经过RequestWrapper且已完整缓存时直接使用缓存的字节,否则读取请求流;
+     * 超过缓存上限的请求体读取后流已消费,不能再次读取
+     */
+    public synchronized String getBodyString() throws IOException {
+        if (bodyString == null) {
+            RequestWrapper wrapper = WebUtils.getNativeRequest(request, RequestWrapper.class);
+            if (wrapper != null && wrapper.isCached()) {
+                bodyString = wrapper.getBodyString();
+                body = wrapper.getParsedBody();
+            } else {
+                StringWriter writer = new StringWriter();
+                try (Reader reader = request.getReader()) {
+                    ServletUtil.copyLarge(reader, writer, new char[1024 * 4]);
+                }
+                bodyString = writer.toString();
+            }
+        }
+        return bodyString;
+    }
+
+    /**
+     * 解析后的请求体,见ServletUtil.parseBody
+     */
+    public synchronized Object getBody() throws IOException {
+        if (body == null) {
+            body = ServletUtil.parseBody(getBodyString());
+        }
+        return body;
+    }
+}
@@ -0,0 +1,60 @@
+package com.ilsmp.base.util;
+
+import java.lang.management.ManagementFactory;
+
+import cn.hutool.core.lang.Snowflake;
+
+/*
+ * Author: zhangjiahao04
+ * Description: 请求id生成器,使用与EncryptUtil.snowflakeGenerator相同的hutool雪花算法,输出16位十六进制字符串。
+ * 按时间有序,不依赖SecureRandom;EncryptUtil的生成器固定使用5/5节点号,多实例会生成重复id,
+ * 这里的节点号由本机ip和进程号计算
+ * Date: 2026/10/18 18:20
+ **/
+public final class RequestIdGenerator {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private static final Snowflake SNOWFLAKE = snowflake();
+
+    private RequestIdGenerator() {
+    }
+
+    /**
+     * 生成下一个id
+     */
+    public static long nextId() {
+        return SNOWFLAKE.nextId();
+    }
+
+    /**
+     * 生成下一个id的十六进制字符串
+     */
+    public static String nextIdString() {
+        return toHex(nextId());
+    }
+
+    /**
+     * id中的生成时间
+     * @param id nextId生成的id
+     * @return 毫秒时间戳
+     */
+    public static long timestampOf(long id) {
+        return SNOWFLAKE.getGenerateDateTime(id);
+    }
+
+    private static String toHex(long value) {
+        char[] chars = new char[16];
+        for (int i = 15; i >= 0; i--) {
+            chars[i] = HEX[(int) value & 0xF];
+            value >>>= 4;
+        }
+        return new String(chars);
+    }
+
+    private static Snowflake snowflake() {
+        int hash = ServletUtil.getLocalIP().hashCode() * 31 + ManagementFactory.getRuntimeMXBean().getName().hashCode();
+        hash ^= hash >>> 16;
+        // hutool节点号为5位workerId + 5位dataCenterId
+        return new Snowflake(hash & 0x1F, hash >>> 5 & 0x1F);
+    }
+}
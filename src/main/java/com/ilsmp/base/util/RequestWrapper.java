@@ -4,9 +4,14 @@ import javax.servlet.ReadListener;
 import javax.servlet.ServletInputStream;
 import javax.servlet.http.HttpServletRequest;
 import java.io.BufferedReader;
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.springframework.web.util.ContentCachingRequestWrapper;
 
@@ -15,46 +20,302 @@ import org.springframework.web.util.ContentCachingRequestWrapper;
  * 2021/10/31 21:15
  */
 public class RequestWrapper extends ContentCachingRequestWrapper {
+    /**
+     * 默认最大缓存的请求体字节数
+     */
+    public static final int DEFAULT_CACHE_LIMIT = 1024 * 1024;
+    private static final byte[] EMPTY = new byte[0];
+
+    private final ServletInputStream original;
     private byte[] body;
+    private int length;
+    /**
+     * 请求体超过缓存上限,只缓存了已读取的前缀,剩余部分从原始流直通读取
+     */
+    private boolean passThrough;
+    private boolean passThroughOpened;
+    private String bodyString;
+    private Object parsedBody;
 
     public RequestWrapper(HttpServletRequest request) throws IOException {
-        super(request);
-        if (!(request instanceof RequestWrapper) && (body == null || body.length == 0)) {
-            ServletUtil.remove();
-            body = ServletUtil.getRequestBodyString((HttpServletRequest) getRequest()).getBytes(getCharacterEncoding());
+        this(request, DEFAULT_CACHE_LIMIT);
+    }
+
+    public RequestWrapper(HttpServletRequest request, int cacheLimit) throws IOException {
+        // 请求体由本类缓存,不使用父类的缓存。super(request)会按Content-Length预先申请同样大小的缓冲区,
+        // 超过cacheLimit的大请求体也不例外,这里传0保持父类缓冲区为空;
+        // 继承ContentCachingRequestWrapper只为兼容ServletUtil的重载方法
+        super(request, 0);
+        this.original = request.getInputStream();
+        readBody(Math.max(0, cacheLimit), request.getContentLengthLong());
+    }
+
+    /*
+     * Description: 一次性读取原始字节,已知长度时直接申请对应大小的缓冲区,超过上限时转为直通
+     **/
+    private void readBody(int cacheLimit, long contentLength) throws IOException {
+        if (contentLength == 0) {
+            body = EMPTY;
+            return;
+        }
+        if (contentLength > cacheLimit) {
+            body = EMPTY;
+            passThrough = true;
+            return;
+        }
+        int capacity = contentLength > 0 ? (int) contentLength : Math.min(cacheLimit, BufferPool.MIN_SIZE);
+        byte[] buffer = BufferPool.acquire(capacity);
+        int count = 0;
+        while (contentLength < 0 || count < contentLength) {
+            int limit = Math.min(buffer.length, cacheLimit);
+            if (count == limit) {
+                if (count >= cacheLimit) {
+                    passThrough = true;
+                    break;
+                }
+                byte[] larger = BufferPool.acquire((int) Math.min(cacheLimit, (long) count << 1));
+                System.arraycopy(buffer, 0, larger, 0, count);
+                BufferPool.release(buffer);
+                buffer = larger;
+                continue;
+            }
+            int read = original.read(buffer, count, limit - count);
+            if (read == -1) {
+                break;
+            }
+            count += read;
+        }
+        body = buffer;
+        length = count;
+    }
+
+    /**
+     * 请求体是否已完整缓存,超过缓存上限时为false
+     */
+    public boolean isCached() {
+        return !passThrough;
+    }
+
+    /**
+     * 缓存的请求体原始字节,未完整缓存时返回null
+     */
+    public byte[] getBodyBytes() {
+        if (passThrough || body == null) {
+            return null;
+        }
+        return Arrays.copyOf(body, length);
+    }
+
+    /**
+     * 按请求编码解码的请求体,首次调用时解码,未完整缓存时返回空串
+     */
+    public String getBodyString() {
+        if (bodyString == null) {
+            bodyString = passThrough || body == null ? "" : new String(body, 0, length, charset());
+        }
+        return bodyString;
+    }
+
+    /**
+     * 请求体前maxLength个字节解码后的内容,用于日志等只需前缀的场景,避免解码整个请求体;
+     * 截断位置回退到字符边界,不会截出半个字符
+     */
+    public String getBodyPrefix(int maxLength) {
+        if (bodyString != null || passThrough || body == null || length <= maxLength) {
+            String value = getBodyString();
+            if (value.length() <= maxLength) {
+                return value;
+            }
+            int end = maxLength;
+            if (end > 0 && Character.isHighSurrogate(value.charAt(end - 1))) {
+                end--;
+            }
+            return value.substring(0, end);
+        }
+        Charset charset = charset();
+        int end = Math.max(0, maxLength);
+        if (StandardCharsets.UTF_8.equals(charset)) {
+            // 截断位置是多字节字符的后续字节(10xxxxxx)时回退到该字符的首字节
+            while (end > 0 && (body[end] & 0xC0) == 0x80) {
+                end--;
+            }
+        }
+        return new String(body, 0, end, charset);
+    }
+
+    /**
+     * 解析后的请求体(Collection/Map/按&分割的数组),首次调用时才解析
+     */
+    public Object getParsedBody() {
+        if (parsedBody == null) {
+            parsedBody = ServletUtil.parseBody(getBodyString());
+        }
+        return parsedBody;
+    }
+
+    /**
+     * 归还缓冲区,请求处理结束后由过滤器调用,之后不可再读取请求体
+     */
+    public void release() {
+        byte[] buffer = body;
+        body = null;
+        if (buffer != null && buffer != EMPTY) {
+            BufferPool.release(buffer);
         }
     }
 
+    @Override
+    public byte[] getContentAsByteArray() {
+        byte[] bytes = getBodyBytes();
+        return bytes == null ? super.getContentAsByteArray() : bytes;
+    }
+
     @Override
     public ServletInputStream getInputStream() throws IOException {
-        if (body == null || body.length == 0) {
+        if (body == null) {
             return super.getInputStream();
         }
-        final ByteArrayInputStream stream = new ByteArrayInputStream(body);
-        return new ServletInputStream() {
-            @Override
-            public int read() throws IOException {
-                return stream.read();
+        if (passThrough) {
+            if (passThroughOpened) {
+                throw new IllegalStateException("request body exceeds cache limit and can only be read once");
+            }
+            passThroughOpened = true;
+        }
+        return new CachedBodyInputStream();
+    }
+
+    @Override
+    public BufferedReader getReader() throws IOException {
+        return new BufferedReader(new InputStreamReader(getInputStream(), charset()));
+    }
+
+    private Charset charset() {
+        String encoding = getCharacterEncoding();
+        return encoding == null ? StandardCharsets.UTF_8 : Charset.forName(encoding);
+    }
+
+    /*
+     * Description: 先读缓存的字节,直通模式下再读原始流剩余部分
+     **/
+    private final class CachedBodyInputStream extends ServletInputStream {
+        private final byte[] buffer = body;
+        private final int count = length;
+        private int position;
+
+        @Override
+        public int read() throws IOException {
+            if (position < count) {
+                return buffer[position++] & 0xFF;
             }
+            return passThrough ? original.read() : -1;
+        }
 
-            @Override
-            public boolean isFinished() {
-                return false;
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
             }
+            if (position < count) {
+                int read = Math.min(len, count - position);
+                System.arraycopy(buffer, position, b, off, read);
+                position += read;
+                return read;
+            }
+            return passThrough ? original.read(b, off, len) : -1;
+        }
 
-            @Override
-            public boolean isReady() {
-                return false;
+        @Override
+        public long skip(long n) throws IOException {
+            if (position < count) {
+                int skipped = (int) Math.min(n, count - position);
+                position += skipped;
+                return skipped;
             }
+            return passThrough ? original.skip(n) : 0;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return position < count ? count - position : passThrough ? original.available() : 0;
+        }
+
+        @Override
+        public boolean isFinished() {
+            return position >= count && (!passThrough || original.isFinished());
+        }
+
+        @Override
+        public boolean isReady() {
+            return position < count || !passThrough || original.isReady();
+        }
 
-            @Override
-            public void setReadListener(ReadListener readListener) {
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            if (passThrough) {
+                original.setReadListener(readListener);
+                return;
             }
-        };
+            try {
+                if (position < count) {
+                    readListener.onDataAvailable();
+                }
+                readListener.onAllDataRead();
+            } catch (IOException e) {
+                readListener.onError(e);
+            }
+        }
     }
 
-    @Override
-    public BufferedReader getReader() throws IOException {
-        return new BufferedReader(new InputStreamReader(getInputStream(), getCharacterEncoding()));
+    /*
+     * Description: 请求体缓冲区池,按2的幂分桶复用,超过POOLED_MAX_SIZE的缓冲区不入池,避免长期占用大块内存
+     **/
+    private static final class BufferPool {
+        private static final int MIN_SIZE = 1024;
+        private static final int POOLED_MAX_SIZE = 64 * 1024;
+        private static final int MAX_PER_BUCKET = 64;
+        private static final int BUCKETS = Integer.numberOfTrailingZeros(POOLED_MAX_SIZE / MIN_SIZE) + 1;
+        @SuppressWarnings("unchecked")
+        private static final Queue<byte[]>[] POOL = new Queue[BUCKETS];
+        private static final AtomicInteger[] SIZES = new AtomicInteger[BUCKETS];
+
+        static {
+            for (int i = 0; i < BUCKETS; i++) {
+                POOL[i] = new ConcurrentLinkedQueue<>();
+                SIZES[i] = new AtomicInteger();
+            }
+        }
+
+        private static byte[] acquire(int size) {
+            int bucket = bucket(size);
+            if (bucket < 0) {
+                return new byte[size];
+            }
+            byte[] buffer = POOL[bucket].poll();
+            if (buffer == null) {
+                return new byte[MIN_SIZE << bucket];
+            }
+            SIZES[bucket].decrementAndGet();
+            return buffer;
+        }
+
+        private static void release(byte[] buffer) {
+            int bucket = bucket(buffer.length);
+            if (bucket < 0 || buffer.length != MIN_SIZE << bucket) {
+                return;
+            }
+            if (SIZES[bucket].incrementAndGet() > MAX_PER_BUCKET) {
+                SIZES[bucket].decrementAndGet();
+                return;
+            }
+            POOL[bucket].offer(buffer);
+        }
+
+        private static int bucket(int size) {
+            if (size > POOLED_MAX_SIZE) {
+                return -1;
+            }
+            int normalized = Math.max(MIN_SIZE, size);
+            return 32 - Integer.numberOfLeadingZeros(normalized - 1) - Integer.numberOfTrailingZeros(MIN_SIZE);
+        }
     }
 }
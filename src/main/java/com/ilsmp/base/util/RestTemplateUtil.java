@@ -1,23 +1,55 @@
 package com.ilsmp.base.util;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToIntFunction;
 
-import lombok.SneakyThrows;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.http.io.SocketConfig;
+import org.apache.hc.core5.pool.PoolStats;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.StreamingHttpOutputMessage;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.http.converter.FormHttpMessageConverter;
 import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.http.converter.StringHttpMessageConverter;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.client.ResponseExtractor;
 import org.springframework.web.client.RestTemplate;
 
 /**
@@ -28,14 +60,28 @@ import org.springframework.web.client.RestTemplate;
 public class RestTemplateUtil {
 
     private static final RestTemplate restTemplate;
-    private static final ThreadLocal<Integer> tryNum = ThreadLocal.withInitial(() -> 0);
+    /**
+     * 流式上传下载专用,不经过拦截器且不缓冲请求体
+     */
+    private static final RestTemplate streamingTemplate;
+    private static final int STREAM_BUFFER_SIZE = 64 * 1024;
+    private static final long TRANSFER_CHUNK_SIZE = 8 * 1024 * 1024L;
+    private static final String CLOSE_EXECUTOR = "rest-close";
+    private static final long CLOSE_CHECK_INTERVAL = 1000L;
+    private static volatile ClientHttpRequestFactory streamingRequestFactory;
+    /**
+     * setRequestFactory设置的请求工厂,设置后configure不再创建内置连接池
+     */
+    private static volatile ClientHttpRequestFactory customRequestFactory;
+    private static volatile HttpConfig httpConfig = new HttpConfig();
+    private static volatile PoolingHttpClientConnectionManager connectionManager;
+    private static volatile CloseableHttpClient httpClient;
+    private static volatile HttpResponseCache responseCache;
+    private static volatile HttpCircuitBreaker circuitBreaker;
 
     static {
-        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
-        //单位为ms 60s
-        factory.setConnectTimeout(60 * 1000);
-        factory.setReadTimeout(60 * 1000);
-        restTemplate = new RestTemplate(factory);
+        restTemplate = new RestTemplate(createRequestFactory(httpConfig));
+        installInterceptors(httpConfig);
         List<HttpMessageConverter<?>> converters = restTemplate.getMessageConverters();
         // 支持中文编码
         converters.set(1, new StringHttpMessageConverter(StandardCharsets.UTF_8));
@@ -47,6 +93,199 @@ public class RestTemplateUtil {
         jackson.setSupportedMediaTypes(mediaTypes);
         converters.set(6, jackson);
         converters.add(new FormHttpMessageConverter());
+        streamingTemplate = new RestTemplate(streamingRequestFactory);
+        streamingTemplate.setMessageConverters(converters);
+        registerPoolGauge("http.client.pool.leased", "已借出的连接数", PoolStats::getLeased);
+        registerPoolGauge("http.client.pool.available", "空闲可复用的连接数", PoolStats::getAvailable);
+        registerPoolGauge("http.client.pool.pending", "等待获取连接的请求数", PoolStats::getPending);
+        registerPoolGauge("http.client.pool.max", "连接池最大连接数", PoolStats::getMax);
+    }
+
+    /**
+     * 按配置重建底层连接池,旧连接池在借出的连接全部归还后关闭,超过读取超时时间仍未归还时强制关闭
+     * @param config http客户端配置
+     */
+    public static synchronized void configure(HttpConfig config) {
+        if (config == null) {
+            return;
+        }
+        httpConfig = config;
+        installRequestFactory(config);
+        installInterceptors(config);
+    }
+
+    /**
+     * 替换底层请求工厂,如需使用其他http客户端实现;普通请求和流式上传下载共用该工厂,之后的configure调用保留该工厂
+     * @param requestFactory 请求工厂,流式传输时不应缓冲请求体;为null时恢复按配置创建的内置连接池
+     */
+    public static synchronized void setRequestFactory(ClientHttpRequestFactory requestFactory) {
+        customRequestFactory = requestFactory;
+        installRequestFactory(httpConfig);
+    }
+
+    public static HttpConfig getHttpConfig() {
+        return httpConfig;
+    }
+
+    /**
+     * GET响应缓存,未启用时返回null
+     * @return 响应缓存,可用于清空或按URL移除缓存
+     */
+    public static HttpResponseCache getResponseCache() {
+        return responseCache;
+    }
+
+    /**
+     * 按主机的熔断器,未启用时返回null
+     * @return 熔断器,可查看各主机熔断状态
+     */
+    public static HttpCircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    /**
+     * 连接池统计信息,未启用连接池时返回空
+     * @return leased已借出,available空闲,pending等待,max最大连接数
+     */
+    public static Map<String, Integer> getPoolStats() {
+        Map<String, Integer> stats = new LinkedHashMap<>();
+        PoolingHttpClientConnectionManager manager = connectionManager;
+        if (manager == null) {
+            return stats;
+        }
+        PoolStats total = manager.getTotalStats();
+        stats.put("leased", total.getLeased());
+        stats.put("available", total.getAvailable());
+        stats.put("pending", total.getPending());
+        stats.put("max", total.getMax());
+        stats.put("routes", manager.getRoutes().size());
+        return stats;
+    }
+
+    private static void installRequestFactory(HttpConfig config) {
+        PoolingHttpClientConnectionManager oldManager = connectionManager;
+        CloseableHttpClient oldClient = httpClient;
+        ClientHttpRequestFactory custom = customRequestFactory;
+        if (custom == null) {
+            restTemplate.setRequestFactory(createRequestFactory(config));
+        } else {
+            streamingRequestFactory = custom;
+            connectionManager = null;
+            httpClient = null;
+            restTemplate.setRequestFactory(custom);
+        }
+        streamingTemplate.setRequestFactory(streamingRequestFactory);
+        if (oldClient != null && oldClient != httpClient || oldManager != null && oldManager != connectionManager) {
+            closeWhenIdle(oldClient, oldManager, config.getReadTimeout());
+        }
+    }
+
+    /*
+     * Description: CloseMode.GRACEFUL会立即关闭已借出的连接,进行中的请求会失败,
+     * 因此等旧连接池的连接全部归还或超过timeout后再关闭
+     **/
+    private static void closeWhenIdle(CloseableHttpClient client, PoolingHttpClientConnectionManager manager,
+                                      long timeout) {
+        long deadline = System.currentTimeMillis() + timeout;
+        ScheduledExecutorService executor = ExecutorUtil.getInstance().getScheduledExecutor(1, CLOSE_EXECUTOR);
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                int leased = manager == null ? 0 : manager.getTotalStats().getLeased();
+                if (leased > 0 && System.currentTimeMillis() < deadline) {
+                    executor.schedule(this, CLOSE_CHECK_INTERVAL, TimeUnit.MILLISECONDS);
+                    return;
+                }
+                if (leased > 0) {
+                    log.warn("旧http连接池等待{}ms后仍有{}个连接未归还,强制关闭", timeout, leased);
+                }
+                if (client != null) {
+                    client.close(CloseMode.GRACEFUL);
+                }
+                if (manager != null) {
+                    manager.close(CloseMode.GRACEFUL);
+                }
+            }
+        });
+    }
+
+    private static ClientHttpRequestFactory createRequestFactory(HttpConfig config) {
+        if (!Boolean.TRUE.equals(config.getPooled())) {
+            SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
+            factory.setConnectTimeout(config.getConnectTimeout());
+            factory.setReadTimeout(config.getReadTimeout());
+            SimpleClientHttpRequestFactory streaming = new SimpleClientHttpRequestFactory();
+            streaming.setConnectTimeout(config.getConnectTimeout());
+            streaming.setReadTimeout(config.getReadTimeout());
+            streaming.setBufferRequestBody(false);
+            streaming.setChunkSize(STREAM_BUFFER_SIZE);
+            streamingRequestFactory = streaming;
+            connectionManager = null;
+            httpClient = null;
+            return factory;
+        }
+        PoolingHttpClientConnectionManager manager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(config.getMaxTotal())
+                .setMaxConnPerRoute(config.getMaxPerRoute())
+                .setDefaultSocketConfig(SocketConfig.custom()
+                        .setSoTimeout(Timeout.ofMilliseconds(config.getReadTimeout()))
+                        .setTcpNoDelay(true)
+                        .build())
+                .setConnectionTimeToLive(TimeValue.ofMilliseconds(config.getTimeToLive()))
+                .build();
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout(Timeout.ofMilliseconds(config.getConnectTimeout()))
+                .setConnectionRequestTimeout(Timeout.ofMilliseconds(config.getConnectionRequestTimeout()))
+                .setResponseTimeout(Timeout.ofMilliseconds(config.getReadTimeout()))
+                .build();
+        CloseableHttpClient client = HttpClients.custom()
+                .setConnectionManager(manager)
+                .setDefaultRequestConfig(requestConfig)
+                // 后台线程定期清理过期与空闲超时的连接,避免复用到已被服务端关闭的连接
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofMilliseconds(config.getIdleTimeout()))
+                .build();
+        connectionManager = manager;
+        httpClient = client;
+        HttpComponentsClientHttpRequestFactory streaming = new HttpComponentsClientHttpRequestFactory(client);
+        streaming.setBufferRequestBody(false);
+        streamingRequestFactory = streaming;
+        return new HttpComponentsClientHttpRequestFactory(client);
+    }
+
+    private static void installInterceptors(HttpConfig config) {
+        List<ClientHttpRequestInterceptor> interceptors = new ArrayList<>(restTemplate.getInterceptors());
+        interceptors.removeIf(interceptor -> interceptor instanceof HttpResponseCache
+                || interceptor instanceof HttpRetryInterceptor);
+        HttpResponseCache cache = null;
+        if (config.getCache() != null && Boolean.TRUE.equals(config.getCache().getEnabled())) {
+            cache = new HttpResponseCache(config.getCache());
+            // 放在最外层,命中缓存时不再经过其他拦截器
+            interceptors.add(0, cache);
+        }
+        HttpCircuitBreaker breaker = null;
+        if (config.getCircuitBreaker() != null && Boolean.TRUE.equals(config.getCircuitBreaker().getEnabled())) {
+            breaker = new HttpCircuitBreaker(config.getCircuitBreaker());
+        }
+        HttpRetryInterceptor.RetryConfig retry = config.getRetry();
+        if (retry == null || !Boolean.TRUE.equals(retry.getEnabled())) {
+            retry = new HttpRetryInterceptor.RetryConfig();
+            retry.setMaxAttempts(1);
+        }
+        if (retry.getMaxAttempts() > 1 || breaker != null) {
+            // 重试时需重新执行后续调用链,必须放在最后
+            interceptors.add(new HttpRetryInterceptor(retry, breaker));
+        }
+        restTemplate.setInterceptors(interceptors);
+        responseCache = cache;
+        circuitBreaker = breaker;
+    }
+
+    private static void registerPoolGauge(String name, String description, ToIntFunction<PoolStats> value) {
+        Gauge.builder(name, () -> {
+            PoolingHttpClientConnectionManager manager = connectionManager;
+            return manager == null ? 0 : value.applyAsInt(manager.getTotalStats());
+        }).description(description).register(Metrics.globalRegistry);
     }
 
     /**
@@ -63,17 +302,8 @@ public class RestTemplateUtil {
      * @param responseType 返回对象类型
      * @return ResponseEntity 响应对象封装类
      */
-    @SneakyThrows
     public static <T> ResponseEntity<T> get(String url, Class<T> responseType) {
-        ResponseEntity<T> exchange = restTemplate.getForEntity(url, responseType);
-        tryNum.set(tryNum.get()+1);
-        log.warn("===第{}次{}:{}", tryNum.get(), url, JsonUtil.writeJsonStr(Objects.requireNonNull(exchange.getBody())));
-        if (exchange.getStatusCode().isError() && tryNum.get() < 3) {
-            Thread.sleep(tryNum.get()*3000);
-            get(url, responseType);
-        }
-        tryNum.remove();
-        return exchange;
+        return restTemplate.getForEntity(url, responseType);
     }
 
     public static <T> T getEntity(String url, Class<T> responseType) {
@@ -87,17 +317,8 @@ public class RestTemplateUtil {
      * @param uriVariables URL中的变量，按顺序依次对应
      * @return ResponseEntity 响应对象封装类
      */
-    @SneakyThrows
     public static <T> ResponseEntity<T> get(String url, Class<T> responseType, Object... uriVariables) {
-        ResponseEntity<T> exchange = restTemplate.getForEntity(url, responseType, uriVariables);
-        tryNum.set(tryNum.get()+1);
-        log.warn("===第{}次{}:{}", tryNum.get(), url, JsonUtil.writeJsonStr(Objects.requireNonNull(exchange.getBody())));
-        if (exchange.getStatusCode().isError() && tryNum.get() < 3) {
-            Thread.sleep(tryNum.get()*3000);
-            get(url, responseType, uriVariables);
-        }
-        tryNum.remove();
-        return exchange;
+        return restTemplate.getForEntity(url, responseType, uriVariables);
     }
 
     public static <T> T getEntity(String url, Class<T> responseType, Object... uriVariables) {
@@ -111,17 +332,8 @@ public class RestTemplateUtil {
      * @param uriVariables  URL中的变量，与Map中的key对应
      * @return ResponseEntity 响应对象封装类
      */
-    @SneakyThrows
     public static <T> ResponseEntity<T> get(String url, Class<T> responseType, Map<String, ?> uriVariables) {
-        ResponseEntity<T> exchange = restTemplate.getForEntity(url, responseType, uriVariables);
-        tryNum.set(tryNum.get()+1);
-        log.warn("===第{}次{}:{}", tryNum.get(), url, JsonUtil.writeJsonStr(Objects.requireNonNull(exchange.getBody())));
-        if (exchange.getStatusCode().isError() && tryNum.get() < 3) {
-            Thread.sleep(tryNum.get()*3000);
-            get(url, responseType, uriVariables);
-        }
-        tryNum.remove();
-        return exchange;
+        return restTemplate.getForEntity(url, responseType, uriVariables);
     }
 
     public static <T> T getEntity(String url, Class<T> responseType, Map<String, ?> uriVariables) {
@@ -205,17 +417,8 @@ public class RestTemplateUtil {
      * @param responseType 返回对象类型
      * @return ResponseEntity
      */
-    @SneakyThrows
     public static <T> ResponseEntity<T> post(String url, Class<T> responseType) {
-        ResponseEntity<T> exchange = restTemplate.postForEntity(url, HttpEntity.EMPTY, responseType);
-        tryNum.set(tryNum.get()+1);
-        log.warn("===第{}次{}:{}", tryNum.get(), url, JsonUtil.writeJsonStr(Objects.requireNonNull(exchange.getBody())));
-        if (exchange.getStatusCode().isError() && tryNum.get() < 3) {
-            Thread.sleep(tryNum.get()*3000);
-            post(url, responseType);
-        }
-        tryNum.remove();
-        return exchange;
+        return restTemplate.postForEntity(url, HttpEntity.EMPTY, responseType);
     }
 
     public static <T> T postEntity(String url, Class<T> responseType) {
@@ -229,17 +432,8 @@ public class RestTemplateUtil {
      * @param responseType 返回对象类型
      * @return ResponseEntity 响应对象封装类
      */
-    @SneakyThrows
     public static <T> ResponseEntity<T> post(String url, Object requestBody, Class<T> responseType) {
-        ResponseEntity<T> exchange = restTemplate.postForEntity(url, requestBody, responseType);
-        tryNum.set(tryNum.get()+1);
-        log.warn("===第{}次{}:{}", tryNum.get(), url, JsonUtil.writeJsonStr(Objects.requireNonNull(exchange.getBody())));
-        if (exchange.getStatusCode().isError() && tryNum.get() < 3) {
-            Thread.sleep(tryNum.get()*3000);
-            post(url, requestBody, responseType);
-        }
-        tryNum.remove();
-        return exchange;
+        return restTemplate.postForEntity(url, requestBody, responseType);
     }
 
     public static <T> T postEntity(String url, Object requestBody, Class<T> responseType) {
@@ -254,17 +448,8 @@ public class RestTemplateUtil {
      * @param uriVariables URL中的变量，按顺序依次对应
      * @return ResponseEntity 响应对象封装类
      */
-    @SneakyThrows
     public static <T> ResponseEntity<T> post(String url, Object requestBody, Class<T> responseType, Object... uriVariables) {
-        ResponseEntity<T> exchange = restTemplate.postForEntity(url, requestBody, responseType, uriVariables);
-        tryNum.set(tryNum.get()+1);
-        log.warn("===第{}次{}:{}", tryNum.get(), url, JsonUtil.writeJsonStr(Objects.requireNonNull(exchange.getBody())));
-        if (exchange.getStatusCode().isError() && tryNum.get() < 3) {
-            Thread.sleep(tryNum.get()*3000);
-            post(url, requestBody, responseType, uriVariables);
-        }
-        tryNum.remove();
-        return exchange;
+        return restTemplate.postForEntity(url, requestBody, responseType, uriVariables);
     }
 
     public static <T> T postEntity(String url, Object requestBody, Class<T> responseType, Object... uriVariables) {
@@ -279,17 +464,8 @@ public class RestTemplateUtil {
      * @param uriVariables URL中的变量，与Map中的key对应
      * @return ResponseEntity 响应对象封装类
      */
-    @SneakyThrows
     public static <T> ResponseEntity<T> post(String url, Object requestBody, Class<T> responseType, Map<String, ?> uriVariables) {
-        ResponseEntity<T> exchange = restTemplate.postForEntity(url, requestBody, responseType, uriVariables);
-        tryNum.set(tryNum.get()+1);
-        log.warn("===第{}次{}:{}", tryNum.get(), url, JsonUtil.writeJsonStr(Objects.requireNonNull(exchange.getBody())));
-        if (exchange.getStatusCode().isError() && tryNum.get() < 3) {
-            Thread.sleep(tryNum.get()*3000);
-            post(url, requestBody, responseType, uriVariables);
-        }
-        tryNum.remove();
-        return exchange;
+        return restTemplate.postForEntity(url, requestBody, responseType, uriVariables);
     }
 
     public static <T> T postEntity(String url, Object requestBody, Class<T> responseType, Map<String, ?> uriVariables) {
@@ -378,17 +554,8 @@ public class RestTemplateUtil {
      * @param uriVariables URL中的变量，按顺序依次对应
      * @return ResponseEntity 响应对象封装类
      */
-    @SneakyThrows
     public static <T> ResponseEntity<T> post(String url, HttpEntity<?> requestEntity, Class<T> responseType, Object... uriVariables) {
-        ResponseEntity<T> exchange = restTemplate.exchange(url, HttpMethod.POST, requestEntity, responseType, uriVariables);
-        tryNum.set(tryNum.get()+1);
-        log.warn("===第{}次{}:{}", tryNum.get(), url, JsonUtil.writeJsonStr(Objects.requireNonNull(exchange.getBody())));
-        if (exchange.getStatusCode().isError() && tryNum.get() < 3) {
-            Thread.sleep(tryNum.get()*3000);
-            post(url, requestEntity, responseType, uriVariables);
-        }
-        tryNum.remove();
-        return exchange;
+        return restTemplate.exchange(url, HttpMethod.POST, requestEntity, responseType, uriVariables);
     }
 
     public static <T> T postEntity(String url, HttpEntity<?> requestEntity, Class<T> responseType, Object... uriVariables) {
@@ -403,17 +570,8 @@ public class RestTemplateUtil {
      * @param uriVariables URL中的变量，与Map中的key对应
      * @return ResponseEntity 响应对象封装类
      */
-    @SneakyThrows
     public static <T> ResponseEntity<T> post(String url, HttpEntity<?> requestEntity, Class<T> responseType, Map<String, ?> uriVariables) {
-        ResponseEntity<T> exchange = restTemplate.exchange(url, HttpMethod.POST, requestEntity, responseType, uriVariables);
-        tryNum.set(tryNum.get()+1);
-        log.warn("===第{}次{}:{}", tryNum.get(), url, JsonUtil.writeJsonStr(Objects.requireNonNull(exchange.getBody())));
-        if (exchange.getStatusCode().isError() && tryNum.get() < 3) {
-            Thread.sleep(tryNum.get()*3000);
-            post(url, requestEntity, responseType, uriVariables);
-        }
-        tryNum.remove();
-        return exchange;
+        return restTemplate.exchange(url, HttpMethod.POST, requestEntity, responseType, uriVariables);
     }
 
     public static <T> T postEntity(String url, HttpEntity<?> requestEntity, Class<T> responseType, Map<String, ?> uriVariables) {
@@ -553,17 +711,8 @@ public class RestTemplateUtil {
      * @param uriVariables URL中的变量，按顺序依次对应
      * @return ResponseEntity 响应对象封装类
      */
-    @SneakyThrows
     public static <T> ResponseEntity<T> put(String url, HttpEntity<?> requestEntity, Class<T> responseType, Object... uriVariables) {
-        ResponseEntity<T> exchange = restTemplate.exchange(url, HttpMethod.PUT, requestEntity, responseType, uriVariables);
-        tryNum.set(tryNum.get()+1);
-        log.warn("===第{}次{}:{}", tryNum.get(), url, JsonUtil.writeJsonStr(Objects.requireNonNull(exchange.getBody())));
-        if (exchange.getStatusCode().isError() && tryNum.get() < 3) {
-            Thread.sleep(tryNum.get()*3000);
-            put(url, requestEntity, responseType, uriVariables);
-        }
-        tryNum.remove();
-        return exchange;
+        return restTemplate.exchange(url, HttpMethod.PUT, requestEntity, responseType, uriVariables);
     }
 
     public static <T> ResponseEntity<T> putEntity(String url, HttpEntity<?> requestEntity, Class<T> responseType, Object... uriVariables) {
@@ -578,17 +727,8 @@ public class RestTemplateUtil {
      * @param uriVariables URL中的变量，与Map中的key对应
      * @return ResponseEntity 响应对象封装类
      */
-    @SneakyThrows
     public static <T> ResponseEntity<T> put(String url, HttpEntity<?> requestEntity, Class<T> responseType, Map<String, ?> uriVariables) {
-        ResponseEntity<T> exchange = restTemplate.exchange(url, HttpMethod.PUT, requestEntity, responseType, uriVariables);
-        tryNum.set(tryNum.get()+1);
-        log.warn("===第{}次{}:{}", tryNum.get(), url, JsonUtil.writeJsonStr(Objects.requireNonNull(exchange.getBody())));
-        if (exchange.getStatusCode().isError() && tryNum.get() < 3) {
-            Thread.sleep(tryNum.get()*3000);
-            put(url, requestEntity, responseType, uriVariables);
-        }
-        tryNum.remove();
-        return exchange;
+        return restTemplate.exchange(url, HttpMethod.PUT, requestEntity, responseType, uriVariables);
     }
 
     public static <T> T putEntity(String url, HttpEntity<?> requestEntity, Class<T> responseType, Map<String, ?> uriVariables) {
@@ -812,17 +952,8 @@ public class RestTemplateUtil {
      * @param uriVariables URL中的变量，按顺序依次对应
      * @return ResponseEntity 响应对象封装类
      */
-    @SneakyThrows
     public static <T> ResponseEntity<T> delete(String url, HttpEntity<?> requestEntity, Class<T> responseType, Object... uriVariables) {
-        ResponseEntity<T> exchange = restTemplate.exchange(url, HttpMethod.DELETE, requestEntity, responseType, uriVariables);
-        tryNum.set(tryNum.get()+1);
-        log.warn("===第{}次{}:{}", tryNum.get(), url, JsonUtil.writeJsonStr(Objects.requireNonNull(exchange.getBody())));
-        if (exchange.getStatusCode().isError() && tryNum.get() < 3) {
-            Thread.sleep(tryNum.get()*3000);
-            delete(url, requestEntity, responseType, uriVariables);
-        }
-        tryNum.remove();
-        return exchange;
+        return restTemplate.exchange(url, HttpMethod.DELETE, requestEntity, responseType, uriVariables);
     }
 
     public static <T> T deleteEntity(String url, HttpEntity<?> requestEntity, Class<T> responseType,
@@ -838,17 +969,8 @@ public class RestTemplateUtil {
      * @param uriVariables URL中的变量，与Map中的key对应
      * @return ResponseEntity 响应对象封装类
      */
-    @SneakyThrows
     public static <T> ResponseEntity<T> delete(String url, HttpEntity<?> requestEntity, Class<T> responseType, Map<String, ?> uriVariables) {
-        ResponseEntity<T> exchange = restTemplate.exchange(url, HttpMethod.DELETE, requestEntity, responseType, uriVariables);
-        tryNum.set(tryNum.get()+1);
-        log.warn("===第{}次{}:{}", tryNum.get(), url, JsonUtil.writeJsonStr(Objects.requireNonNull(exchange.getBody())));
-        if (exchange.getStatusCode().isError() && tryNum.get() < 3) {
-            Thread.sleep(tryNum.get()*3000);
-            delete(url, requestEntity, responseType, uriVariables);
-        }
-        tryNum.remove();
-        return exchange;
+        return restTemplate.exchange(url, HttpMethod.DELETE, requestEntity, responseType, uriVariables);
     }
 
     public static <T> T deleteEntity(String url, HttpEntity<?> requestEntity, Class<T> responseType, Map<String, ?> uriVariables) {
@@ -864,17 +986,8 @@ public class RestTemplateUtil {
      * @param uriVariables URL中的变量，按顺序依次对应
      * @return ResponseEntity 响应对象封装类
      */
-    @SneakyThrows
     public static <T> ResponseEntity<T> exchange(String url, HttpMethod method, HttpEntity<?> requestEntity, Class<T> responseType, Object... uriVariables) {
-        ResponseEntity<T> exchange = restTemplate.exchange(url, method, requestEntity, responseType, uriVariables);
-        tryNum.set(tryNum.get()+1);
-        log.warn("===第{}次{}:{}", tryNum.get(), url, JsonUtil.writeJsonStr(Objects.requireNonNull(exchange.getBody())));
-        if (exchange.getStatusCode().isError() && tryNum.get() < 3) {
-            Thread.sleep(tryNum.get()*3000);
-            exchange(url, method, requestEntity, responseType, uriVariables);
-        }
-        tryNum.remove();
-        return exchange;
+        return restTemplate.exchange(url, method, requestEntity, responseType, uriVariables);
     }
 
     public static <T> T exchangeEntity(String url, HttpMethod method, HttpEntity<?> requestEntity,
@@ -891,21 +1004,272 @@ public class RestTemplateUtil {
      * @param uriVariables URL中的变量，与Map中的key对应
      * @return ResponseEntity 响应对象封装类
      */
-    @SneakyThrows
     public static <T> ResponseEntity<T> exchange(String url, HttpMethod method, HttpEntity<?> requestEntity, Class<T> responseType, Map<String, ?> uriVariables) {
-        ResponseEntity<T> exchange = restTemplate.exchange(url, method, requestEntity, responseType, uriVariables);
-        tryNum.set(tryNum.get()+1);
-        log.warn("===第{}次{}:{}", tryNum.get(), url, JsonUtil.writeJsonStr(Objects.requireNonNull(exchange.getBody())));
-        if (exchange.getStatusCode().isError() && tryNum.get() < 3) {
-            Thread.sleep(tryNum.get()*3000);
-            exchange(url, method, requestEntity, responseType, uriVariables);
-        }
-        tryNum.remove();
-        return exchange;
+        return restTemplate.exchange(url, method, requestEntity, responseType, uriVariables);
     }
 
     public static <T> T exchangeEntity(String url, HttpMethod method, HttpEntity<?> requestEntity, Class<T> responseType, Map<String, ?> uriVariables) {
         return exchange(url, method, requestEntity, responseType, uriVariables).getBody();
     }
 
-}
\ No newline at end of file
+    /**
+     * 流式下载,响应体直接写入输出流,不在内存中整体缓存
+     * @param url 请求URL
+     * @param out 输出流,由调用方负责关闭
+     * @param uriVariables URL中的变量，按顺序依次对应
+     * @return 写入的字节数
+     */
+    public static long download(String url, OutputStream out, Object... uriVariables) {
+        return download(url, null, out, null, uriVariables);
+    }
+
+    /**
+     * 带请求头与进度回调的流式下载
+     * @param url 请求URL
+     * @param headers 请求头参数
+     * @param out 输出流,由调用方负责关闭
+     * @param listener 进度回调,可为null
+     * @param uriVariables URL中的变量，按顺序依次对应
+     * @return 写入的字节数
+     */
+    public static long download(String url, HttpHeaders headers, OutputStream out, ProgressListener listener,
+                                Object... uriVariables) {
+        Long size = streamingTemplate.execute(url, HttpMethod.GET, request -> copyHeaders(headers, request),
+                response -> copy(response.getBody(), out, response.getHeaders().getContentLength(), listener),
+                uriVariables);
+        return size == null ? 0 : size;
+    }
+
+    /**
+     * 流式下载到文件,通过FileChannel从响应流分块写入,文件已存在时覆盖
+     * @param url 请求URL
+     * @param target 目标文件
+     * @param uriVariables URL中的变量，按顺序依次对应
+     * @return 写入的字节数
+     */
+    public static long download(String url, Path target, Object... uriVariables) {
+        return download(url, null, target, null, uriVariables);
+    }
+
+    /**
+     * 带请求头与进度回调的流式下载到文件
+     * @param url 请求URL
+     * @param headers 请求头参数
+     * @param target 目标文件
+     * @param listener 进度回调,可为null
+     * @param uriVariables URL中的变量，按顺序依次对应
+     * @return 写入的字节数
+     */
+    public static long download(String url, HttpHeaders headers, Path target, ProgressListener listener,
+                                Object... uriVariables) {
+        ResponseExtractor<Long> extractor = response -> {
+            try (ReadableByteChannel in = Channels.newChannel(response.getBody());
+                 FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                         StandardOpenOption.TRUNCATE_EXISTING)) {
+                return transferFrom(in, out, response.getHeaders().getContentLength(), listener);
+            }
+        };
+        Long size = streamingTemplate.execute(url, HttpMethod.GET, request -> copyHeaders(headers, request),
+                extractor, uriVariables);
+        return size == null ? 0 : size;
+    }
+
+    /**
+     * 流式上传,请求体直接从输入流写出,不在内存中整体缓存
+     * @param url 请求URL
+     * @param method 请求方法类型
+     * @param headers 请求头参数,未设置Content-Type时使用application/octet-stream
+     * @param in 输入流,由调用方负责关闭
+     * @param contentLength 请求体长度,未知时传-1使用分块传输
+     * @param responseType 返回对象类型
+     * @param listener 进度回调,可为null
+     * @param uriVariables URL中的变量，按顺序依次对应
+     * @return ResponseEntity 响应对象封装类
+     */
+    public static <T> ResponseEntity<T> upload(String url, HttpMethod method, HttpHeaders headers, InputStream in,
+                                               long contentLength, Class<T> responseType, ProgressListener listener,
+                                               Object... uriVariables) {
+        return streamingTemplate.execute(url, method, request -> {
+            prepareUpload(headers, contentLength, null, request);
+            writeBody(request, out -> copy(in, out, contentLength, listener));
+        }, streamingTemplate.responseEntityExtractor(responseType), uriVariables);
+    }
+
+    /**
+     * 流式上传文件,POST方式
+     * @param url 请求URL
+     * @param file 待上传文件
+     * @param responseType 返回对象类型
+     * @param uriVariables URL中的变量，按顺序依次对应
+     * @return ResponseEntity 响应对象封装类
+     */
+    public static <T> ResponseEntity<T> upload(String url, Path file, Class<T> responseType, Object... uriVariables) {
+        return upload(url, HttpMethod.POST, null, file, responseType, null, uriVariables);
+    }
+
+    /**
+     * 带请求头与进度回调的流式上传文件,通过FileChannel.transferTo分块写出
+     * @param url 请求URL
+     * @param method 请求方法类型
+     * @param headers 请求头参数,未设置Content-Type时按文件类型推断
+     * @param file 待上传文件
+     * @param responseType 返回对象类型
+     * @param listener 进度回调,可为null
+     * @param uriVariables URL中的变量，按顺序依次对应
+     * @return ResponseEntity 响应对象封装类
+     */
+    public static <T> ResponseEntity<T> upload(String url, HttpMethod method, HttpHeaders headers, Path file,
+                                               Class<T> responseType, ProgressListener listener,
+                                               Object... uriVariables) {
+        return streamingTemplate.execute(url, method, request -> {
+            long size = Files.size(file);
+            prepareUpload(headers, size, Files.probeContentType(file), request);
+            writeBody(request, body -> {
+                try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+                    WritableByteChannel out = Channels.newChannel(body);
+                    long position = 0;
+                    while (position < size) {
+                        position += in.transferTo(position, Math.min(TRANSFER_CHUNK_SIZE, size - position), out);
+                        if (listener != null) {
+                            listener.onProgress(position, size);
+                        }
+                    }
+                    body.flush();
+                }
+            });
+        }, streamingTemplate.responseEntityExtractor(responseType), uriVariables);
+    }
+
+    private static void copyHeaders(HttpHeaders headers, ClientHttpRequest request) {
+        if (headers != null) {
+            request.getHeaders().putAll(headers);
+        }
+    }
+
+    /*
+     * Description: HttpComponents的流式请求只支持setBody回调写出,HttpURLConnection的流式请求直接写出
+     **/
+    private static void writeBody(ClientHttpRequest request, StreamingHttpOutputMessage.Body body)
+            throws IOException {
+        if (request instanceof StreamingHttpOutputMessage) {
+            ((StreamingHttpOutputMessage) request).setBody(body);
+        } else {
+            body.writeTo(request.getBody());
+        }
+    }
+
+    private static void prepareUpload(HttpHeaders headers, long contentLength, String probedType,
+                                      ClientHttpRequest request) {
+        copyHeaders(headers, request);
+        HttpHeaders requestHeaders = request.getHeaders();
+        if (requestHeaders.getContentType() == null) {
+            requestHeaders.setContentType(probedType == null ? MediaType.APPLICATION_OCTET_STREAM
+                    : MediaType.parseMediaType(probedType));
+        }
+        if (contentLength >= 0) {
+            requestHeaders.setContentLength(contentLength);
+        }
+    }
+
+    private static long copy(InputStream in, OutputStream out, long total, ProgressListener listener)
+            throws IOException {
+        byte[] buffer = new byte[STREAM_BUFFER_SIZE];
+        long transferred = 0;
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+            transferred += read;
+            if (listener != null) {
+                listener.onProgress(transferred, total);
+            }
+        }
+        out.flush();
+        return transferred;
+    }
+
+    private static long transferFrom(ReadableByteChannel in, FileChannel out, long total, ProgressListener listener)
+            throws IOException {
+        long position = 0;
+        while (true) {
+            long transferred = out.transferFrom(in, position, TRANSFER_CHUNK_SIZE);
+            if (transferred <= 0) {
+                // transferFrom返回0可能只是暂时无数据,用一次读探测是否已到流末尾
+                ByteBuffer probe = ByteBuffer.allocate(1);
+                if (in.read(probe) <= 0) {
+                    return position;
+                }
+                probe.flip();
+                out.write(probe, position);
+                transferred = 1;
+            }
+            position += transferred;
+            if (listener != null) {
+                listener.onProgress(position, total);
+            }
+        }
+    }
+
+    /*
+     * Description: 流式上传下载的进度回调
+     **/
+    @FunctionalInterface
+    public interface ProgressListener {
+        /**
+         * 每传输一块数据后回调
+         * @param transferred 已传输字节数
+         * @param total 总字节数,未知时为-1
+         */
+        void onProgress(long transferred, long total);
+    }
+
+    /*
+     * Description: http客户端配置,时间单位为ms
+     **/
+    @Data
+    public static class HttpConfig {
+        /**
+         * 是否使用连接池(keep-alive复用连接),false时每次请求新建HttpURLConnection
+         */
+        private Boolean pooled = true;
+        /**
+         * 建立连接超时时间
+         */
+        private Integer connectTimeout = 60 * 1000;
+        /**
+         * 读取响应超时时间
+         */
+        private Integer readTimeout = 60 * 1000;
+        /**
+         * 从连接池获取连接的超时时间
+         */
+        private Integer connectionRequestTimeout = 10 * 1000;
+        /**
+         * 连接池最大连接数
+         */
+        private Integer maxTotal = 200;
+        /**
+         * 每个目标主机的最大连接数
+         */
+        private Integer maxPerRoute = 50;
+        /**
+         * 空闲连接超过该时间后被回收
+         */
+        private Long idleTimeout = 30 * 1000L;
+        /**
+         * 连接最大存活时间,小于等于0表示不限制
+         */
+        private Long timeToLive = -1L;
+        /**
+         * GET响应缓存配置
+         */
+        private HttpResponseCache.CacheConfig cache = new HttpResponseCache.CacheConfig();
+        /**
+         * 重试配置
+         */
+        private HttpRetryInterceptor.RetryConfig retry = new HttpRetryInterceptor.RetryConfig();
+        /**
+         * 按主机的熔断配置
+         */
+        private HttpCircuitBreaker.BreakerConfig circuitBreaker = new HttpCircuitBreaker.BreakerConfig();
+    }
+}
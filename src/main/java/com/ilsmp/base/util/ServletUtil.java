@@ -5,7 +5,6 @@ package com.ilsmp.base.util;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
-import java.io.BufferedReader;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
@@ -34,6 +33,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Component;
 import org.springframework.util.AntPathMatcher;
+import org.springframework.web.context.request.RequestAttributes;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 import org.springframework.web.util.ContentCachingRequestWrapper;
@@ -49,9 +49,6 @@ import org.springframework.web.util.ContentCachingRequestWrapper;
 public class ServletUtil {
 
     private static final ObjectMapper MAPPER = new ObjectMapper();
-    private static final ThreadLocal<Map<String, String>> requestHeaders = new ThreadLocal<>();
-    private static final ThreadLocal<Object> requestBody = new ThreadLocal<>();
-    private static final ThreadLocal<Map<String, String[]>> requestParams = new ThreadLocal<>();
 
     /**
      * url匹配
@@ -134,127 +131,64 @@ public class ServletUtil {
      * 获取headers
      */
     public static Map<String, String> getRequestHeader() {
-        Map<String, String> headerMap = requestHeaders.get();
-        if (StringUtil.isEmpty(headerMap)) {
-            ServletRequestAttributes servletRequestAttributes =
-                    (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
-            if (servletRequestAttributes == null) {
-                headerMap = new HashMap<>();
-                headerMap.put("noHeaderRequest", null);
-                requestHeaders.set(headerMap);
-                return headerMap;
-            }
-            HttpServletRequest request = servletRequestAttributes.getRequest();
-            ContentCachingRequestWrapper wrapperRequest = new ContentCachingRequestWrapper(request);
-            return getRequestHeader(wrapperRequest);
+        RequestContext context = RequestContext.current();
+        if (context == null) {
+            Map<String, String> headerMap = new HashMap<>();
+            headerMap.put("noHeaderRequest", null);
+            return headerMap;
         }
-        return headerMap;
+        return context.getHeaders();
     }
 
     public static Map<String, String> getRequestHeader(ContentCachingRequestWrapper request) {
-        Map<String, String> header = requestHeaders.get();
-        if (StringUtil.isEmpty(header) && request != null) {
-            Enumeration<String> headerNames = request.getHeaderNames();
-            header = new HashMap<>();
-            while (headerNames.hasMoreElements()) {
-                String key = headerNames.nextElement();
-                String value = request.getHeader(key);
-                header.put(key, value);
-            }
-            if (StringUtil.isEmpty(header)) {
-                header.put("noHeaderParam", null);
-            }
-            requestHeaders.set(header);
-        }
-        return header;
+        return request == null ? getRequestHeader() : RequestContext.of(request).getHeaders();
     }
 
     public static String getRequestHeader(String headerName) {
-        Map<String, String> kv = getRequestHeader();
-        assert kv != null;
-        return kv.getOrDefault(headerName.toLowerCase(), "");
+        RequestContext context = RequestContext.current();
+        return context == null ? "" : context.getHeader(headerName);
     }
 
     public static String getRequestHeaderDecode(String headerName) {
-        Map<String, String> kv = getRequestHeader();
-        assert kv != null;
-        return StringUtil.decodeFromString(kv.getOrDefault(headerName.toLowerCase(), ""));
+        return StringUtil.decodeFromString(getRequestHeader(headerName));
     }
 
     public static String getRequestHeaderString() throws JsonProcessingException {
-        Map<String, String> headerMap = requestHeaders.get();
-        if (StringUtil.isEmpty(headerMap)) {
-            ServletRequestAttributes servletRequestAttributes =
-                    (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
-            if (servletRequestAttributes == null) {
-                headerMap = new HashMap<>();
-                headerMap.put("noHeaderRequest", null);
-                requestHeaders.set(headerMap);
-                return "";
-            }
-            HttpServletRequest request = servletRequestAttributes.getRequest();
-            ContentCachingRequestWrapper wrapperRequest = new ContentCachingRequestWrapper(request);
-            return getRequestHeaderString(wrapperRequest);
-        }
-        return MAPPER.writeValueAsString(headerMap);
+        RequestContext context = RequestContext.current();
+        return context == null ? "" : MAPPER.writeValueAsString(context.getHeaders());
     }
 
     public static String getRequestHeaderString(ContentCachingRequestWrapper request) throws JsonProcessingException {
-        return MAPPER.writeValueAsString(getRequestHeader());
+        return request == null ? getRequestHeaderString()
+                : MAPPER.writeValueAsString(RequestContext.of(request).getHeaders());
     }
 
     /**
      * 获取 param 请求参数
      */
     public static Map<String, String[]> getRequestParam() {
-        Map<String, String[]> paramMap = requestParams.get();
-        if (StringUtil.isEmpty(paramMap)) {
-            ServletRequestAttributes servletRequestAttributes =
-                    (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
-            if (servletRequestAttributes == null) {
-                paramMap = new HashMap<>();
-                paramMap.put("noParamRequest", null);
-                requestParams.set(paramMap);
-                return paramMap;
-            }
-            HttpServletRequest request = servletRequestAttributes.getRequest();
-            ContentCachingRequestWrapper wrapperRequest = new ContentCachingRequestWrapper(request);
-            return getRequestParam(wrapperRequest);
+        RequestContext context = RequestContext.current();
+        if (context == null) {
+            Map<String, String[]> paramMap = new HashMap<>();
+            paramMap.put("noParamRequest", null);
+            return paramMap;
         }
-        return paramMap;
+        return context.getParams();
     }
 
     public static Map<String, String[]> getRequestParam(ContentCachingRequestWrapper request) {
-        Map<String, String[]> paramMap = requestParams.get();
-        if (StringUtil.isEmpty(paramMap) && request != null) {
-            paramMap = request.getParameterMap();
-            if (StringUtil.isEmpty(paramMap)) {
-                paramMap = new HashMap<>();
-                paramMap.put("noParam", null);
-            }
-            requestParams.set(paramMap);
-        }
-        return paramMap;
+        return request == null ? getRequestParam() : RequestContext.of(request).getParams();
     }
 
     public static String getRequestParam(String paramName) {
-        Map<String, String[]> kv = getRequestParam();
-        assert kv != null;
-        String[] strings = kv.getOrDefault(paramName, new String[]{});
-        StringBuilder builder = new StringBuilder();
-        for (int i = 1; i <= strings.length; i++) {
-            builder.append(builder);
-            if (i != strings.length) {
-                builder.append(",");
-            }
-        }
-        return builder.toString();
+        RequestContext context = RequestContext.current();
+        return context == null ? "" : context.getParam(paramName);
     }
 
     public static String getRequestParamDecode(String paramName) {
-        Map<String, String[]> kv = getRequestParam();
-        assert kv != null;
-        return StringUtil.decodeFromString(Arrays.toString(kv.getOrDefault(paramName, new String[]{""})));
+        RequestContext context = RequestContext.current();
+        String[] values = context == null ? new String[]{} : context.getParamValues(paramName);
+        return StringUtil.decodeFromString(Arrays.toString(values.length == 0 ? new String[]{""} : values));
     }
 
     public static Object getRequestObject(String name) throws IOException {
@@ -283,21 +217,8 @@ public class ServletUtil {
     }
 
     public static String getRequestParamString() throws JsonProcessingException {
-        Map<String, String[]> paramMap = requestParams.get();
-        if (StringUtil.isEmpty(paramMap)) {
-            ServletRequestAttributes servletRequestAttributes =
-                    (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
-            if (servletRequestAttributes == null) {
-                paramMap = new HashMap<>();
-                paramMap.put("noParamRequest", null);
-                requestParams.set(paramMap);
-                return "";
-            }
-            HttpServletRequest request = servletRequestAttributes.getRequest();
-            ContentCachingRequestWrapper wrapperRequest = new ContentCachingRequestWrapper(request);
-            return getRequestParamString(wrapperRequest);
-        }
-        return MAPPER.writeValueAsString(paramMap);
+        RequestContext context = RequestContext.current();
+        return context == null ? "" : MAPPER.writeValueAsString(context.getParams());
     }
 
     public static String getRequestParamString(ContentCachingRequestWrapper request) throws JsonProcessingException {
@@ -308,38 +229,23 @@ public class ServletUtil {
      * 获取 body 请求参数
      */
     public static Object getRequestBody() throws IOException {
-        Object body = requestBody.get();
-        if (StringUtil.isEmpty(body)) {
-            ServletRequestAttributes servletRequestAttributes =
-                    (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
-            if (servletRequestAttributes == null) {
-                body = Collections.singleton(new HashMap<String, Object>() {{
-                    put("noBodyRequest", null);
-                }});
-                requestBody.set(body);
-                return body;
-            }
-            HttpServletRequest request = servletRequestAttributes.getRequest();
-            ContentCachingRequestWrapper wrapperRequest = new ContentCachingRequestWrapper(request);
-            return getRequestBody(wrapperRequest);
+        RequestContext context = RequestContext.current();
+        if (context == null) {
+            return Collections.singleton(new HashMap<String, Object>() {{
+                put("noBodyRequest", null);
+            }});
         }
-        return body;
+        return context.getBody();
     }
 
     public static Object getRequestBody(HttpServletRequest request) throws IOException {
-        Object body = requestBody.get();
-        if (StringUtil.isEmpty(body)) {
-            getRequestBodyString(request);
-            return requestBody.get();
-        }
-        return body;
+        return request == null ? getRequestBody() : RequestContext.of(request).getBody();
     }
 
     public static Object getRequestBody(String bodyName) throws IOException {
         Object body = getRequestBody();
         if (body instanceof Map) {
-            Map<String, Object> kv = (Map<String, Object>) getRequestBody();
-            assert kv != null;
+            Map<String, Object> kv = (Map<String, Object>) body;
             return kv.getOrDefault(bodyName, "");
         } else {
             return "";
@@ -349,8 +255,7 @@ public class ServletUtil {
     public static Object getRequestBodyDecode(String bodyName) throws IOException {
         Object body = getRequestBody();
         if (body instanceof Map) {
-            Map<String, Object> kv = (Map<String, Object>) getRequestBody();
-            assert kv != null;
+            Map<String, Object> kv = (Map<String, Object>) body;
             return StringUtil.decodeFromString(JsonUtil.writeJsonStr(kv.getOrDefault(bodyName, "")));
         } else {
             return "";
@@ -358,60 +263,45 @@ public class ServletUtil {
     }
 
     public static String getRequestBodyString() throws IOException {
-        Object body = requestBody.get();
+        RequestContext context = RequestContext.current();
+        return context == null ? "" : context.getBodyString();
+    }
+
+    public static String getRequestBodyString(HttpServletRequest request) throws IOException {
+        return request == null ? getRequestBodyString() : RequestContext.of(request).getBodyString();
+    }
+
+    /**
+     * 解析请求体:优先按json数组,其次按json对象,都不是时按&分割
+     */
+    public static Object parseBody(String body) {
         if (StringUtil.isEmpty(body)) {
-            ServletRequestAttributes servletRequestAttributes =
-                    (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
-            if (servletRequestAttributes == null) {
-                body = Collections.singleton(new HashMap<String, Object>() {{
-                    put("noBodyRequest", null);
-                }});
-                requestBody.set(body);
-                return "";
+            return Collections.singleton(new HashMap<String, Object>() {{
+                put("noBodyParam", null);
+            }});
+        }
+        char first = firstNonWhitespace(body);
+        try {
+            if (first == '[') {
+                return MAPPER.readValue(body, Collection.class);
             }
-            HttpServletRequest request = servletRequestAttributes.getRequest();
-            ContentCachingRequestWrapper wrapperRequest = new ContentCachingRequestWrapper(request);
-            return getRequestBodyString(wrapperRequest);
+            if (first == '{') {
+                return MAPPER.readValue(body, Map.class);
+            }
+        } catch (Exception e) {
+            log.debug("request body is not valid json: {}", e.getMessage());
         }
-        return MAPPER.writeValueAsString(body);
+        return body.split("&");
     }
 
-    public static String getRequestBodyString(HttpServletRequest request) throws IOException {
-        Object body = requestBody.get();
-        if (StringUtil.isEmpty(body) && request != null) {
-            StringBuilder sb = new StringBuilder();
-            BufferedReader reader = null;
-            try {
-                reader = request.getReader();
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    sb.append(line);
-                }
-            } finally {
-                if (reader != null) {
-                    reader.close();
-                }
+    private static char firstNonWhitespace(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (!Character.isWhitespace(c)) {
+                return c;
             }
-            String toString = sb.toString();
-            if (StringUtil.isEmpty(toString)) {
-                body = Collections.singleton(new HashMap<String, Object>() {{
-                    put("noBodyParam", null);
-                }});
-            } else {
-                try {
-                    body = MAPPER.readValue(toString, Collection.class);
-                } catch (Exception e) {
-                    try {
-                        body = MAPPER.readValue(toString, Map.class);
-                    } catch (Exception c) {
-                        body = toString.split("&");
-                    }
-                }
-            }
-            requestBody.set(body);
-            return toString;
         }
-        return MAPPER.writeValueAsString(body);
+        return 0;
     }
 
     /**
@@ -467,10 +357,15 @@ public class ServletUtil {
         return count;
     }
 
+    /**
+     * 请求上下文已改为保存在request属性中,随请求结束自动回收,无需再调用
+     */
+    @Deprecated
     public static void remove() {
-        requestHeaders.remove();
-        requestParams.remove();
-        requestBody.remove();
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes) {
+            RequestContext.clear(((ServletRequestAttributes) attributes).getRequest());
+        }
     }
 
 
@@ -1,9 +1,15 @@
 package com.ilsmp.base.util;
 
 import java.sql.Timestamp;
-import java.text.DateFormat;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
+import java.text.ParsePosition;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAccessor;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.Iterator;
@@ -118,6 +124,17 @@ public class TimeUtil {
         super();
     }
 
+    private static final ZoneId GMT0 = ZoneId.of("GMT");
+    private static final ZoneId GMT8 = ZoneId.of("GMT+8");
+    private static final int TIME_NUM_LENGTH = "yyyyMMddHHmmss.SSS".length();
+    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final DateTimeFormatter COMPACT_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+    private static final DateTimeFormatter DATE_TIME_PARSER = DateTimeFormatter.ofPattern("yyyy-M-d H:m:s");
+    private static final DateTimeFormatter DATE_PARSER = DateTimeFormatter.ofPattern("yyyy-M-d");
+    private static final DateTimeFormatter GMT0_PARSER = DateTimeFormatter.ofPattern("ddMMyy-HHmmss");
+    private static volatile CurrentSecond cachedSecond = new CurrentSecond(Long.MIN_VALUE, ZoneId.systemDefault(),
+            LocalDateTime.ofInstant(Instant.EPOCH, ZoneId.systemDefault()));
+
     //-----------------------------------------------------------------------
 
     /**
@@ -1833,7 +1850,7 @@ public class TimeUtil {
      * return:
      **/
     public static String timestamp2str(Timestamp ts) {
-        return new SimpleDateFormat("yyyyMMdd-HHmmss").format(ts);
+        return COMPACT_FORMATTER.format(ts.toInstant().atZone(ZoneId.systemDefault()));
     }
 
     /*
@@ -1842,25 +1859,40 @@ public class TimeUtil {
      * Date: 2022/11/11 20:23
      **/
     public static Timestamp obtainTimestampPassDay(int passDay) {
-        long timestamp = System.currentTimeMillis() - 24L * 60 * 60 * 1000 * passDay;
+        long timestamp = CachedClock.millis() - 24L * 60 * 60 * 1000 * passDay;
         return new Timestamp(timestamp);
     }
 
     public static Timestamp obtainCurrentTimestamp() {
-        return new Timestamp(System.currentTimeMillis());
+        return new Timestamp(CachedClock.millis());
     }
 
     /**
      * 获取当前时间 设置日期格式
      */
     public static String obtainCurrentTime() {
-        DateFormat format = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
-        return format.format(new Date());
+        return currentSecond(CachedClock.millis()).dateTime;
     }
 
     public static String obtainCurrentTimeNum() {
-        DateFormat format = new SimpleDateFormat("yyyyMMddHHmmss.SSS");
-        return format.format(new Date());
+        char[] chars = new char[TIME_NUM_LENGTH];
+        writeTimeNum(CachedClock.millis(), chars, 0);
+        return new String(chars);
+    }
+
+    /*
+     * Author: zhangjiahao04
+     * Description: 把当前时间按yyyyMMddHHmmss.SSS追加到builder,不产生中间对象,适合拼接日志、文件名等
+     * Date: 2026/10/18 20:45
+     * Param: [builder]
+     * return: java.lang.StringBuilder
+     **/
+    public static StringBuilder appendCurrentTimeNum(StringBuilder builder) {
+        long millis = CachedClock.millis();
+        builder.append(currentSecond(millis).timeNum);
+        int milli = (int) Math.floorMod(millis, MILLIS_PER_SECOND);
+        return builder.append('.').append((char) ('0' + milli / 100)).append((char) ('0' + milli / 10 % 10))
+                .append((char) ('0' + milli % 10));
     }
 
     public static String obtainCurrentDateNum() {
@@ -1868,50 +1900,27 @@ public class TimeUtil {
     }
 
     public static String[] obtainCurrentTimeArray() {
-        DateFormat format = new SimpleDateFormat("yyyyMMdd-HHmmss");
-        return format.format(new Date()).split("-");
+        return currentSecond(CachedClock.millis()).compact.split("-");
     }
 
     public static Date string0To8DateTime(String string) {
-        Date date = new Date();
-        SimpleDateFormat sdf8 = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
-        try {
-            date = sdf8.parse(string0To8(string));
-        } catch (ParseException e) {
-            e.printStackTrace();
-        }
-        return date;
+        return parseDate(string0To8(string), DATE_TIME_PARSER, true);
     }
 
     public static String string0To8(String string) {
-        Date date = new Date();
-        SimpleDateFormat sdf0 = new SimpleDateFormat("ddMMyy-HHmmss");
-        //设置时区为格林尼治
-        sdf0.setTimeZone(TimeZone.getTimeZone("GMT+0:00"));
+        ZonedDateTime dateTime;
         try {
-            date = sdf0.parse(string);
-        } catch (ParseException e) {
+            dateTime = LocalDateTime.from(GMT0_PARSER.parse(string, new ParsePosition(0))).atZone(GMT0);
+        } catch (DateTimeException e) {
             e.printStackTrace();
+            dateTime = ZonedDateTime.now(GMT0);
         }
-        SimpleDateFormat sdf8 = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
         //设置时区为东八区
-        sdf8.setTimeZone(TimeZone.getTimeZone("GMT+8:00"));
-        return sdf8.format(date);
+        return DATE_TIME_FORMATTER.format(dateTime.withZoneSameInstant(GMT8));
     }
 
     public static Date stringToDateTime(String string) {
-        if (string != null) {
-            DateFormat format = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
-            Date date = new Date();
-            try {
-                date = format.parse(string);
-            } catch (ParseException e) {
-                e.printStackTrace();
-            }
-            return date;
-        } else {
-            return null;
-        }
+        return string == null ? null : parseDate(string, DATE_TIME_PARSER, true);
     }
 
     /**
@@ -1920,17 +1929,107 @@ public class TimeUtil {
      * @return Date
      */
     public static Date stringToDate(String string) {
-        if (string != null) {
-            DateFormat format = new SimpleDateFormat("yyyy-MM-dd");
-            Date date = new Date();
-            try {
-                date = format.parse(string);
-            } catch (ParseException e) {
-                e.printStackTrace();
-            }
-            return date;
-        } else {
-            return null;
+        return string == null ? null : parseDate(string, DATE_PARSER, false);
+    }
+
+    /*
+     * Author: zhangjiahao04
+     * Description: 与SimpleDateFormat.parse一致只解析开头匹配的部分,允许后面有多余内容(如.0毫秒),
+     * 月日时分秒允许1位数字;解析失败时返回当前时间
+     * Date: 2026/10/18 20:45
+     **/
+    private static Date parseDate(String string, DateTimeFormatter parser, boolean withTime) {
+        try {
+            TemporalAccessor parsed = parser.parse(string, new ParsePosition(0));
+            LocalDateTime dateTime = withTime ? LocalDateTime.from(parsed) : LocalDate.from(parsed).atStartOfDay();
+            return Date.from(dateTime.atZone(ZoneId.systemDefault()).toInstant());
+        } catch (DateTimeException e) {
+            e.printStackTrace();
+            return new Date();
+        }
+    }
+
+    /*
+     * Description: 当前秒的格式化结果,同一秒内直接复用,跨秒或时区变化时重新计算
+     **/
+    private static CurrentSecond currentSecond(long millis) {
+        long second = Math.floorDiv(millis, MILLIS_PER_SECOND);
+        CurrentSecond cached = cachedSecond;
+        ZoneId zone = ZoneId.systemDefault();
+        if (cached.second == second && cached.zone.equals(zone)) {
+            return cached;
+        }
+        CurrentSecond updated = new CurrentSecond(second, zone,
+                LocalDateTime.ofInstant(Instant.ofEpochSecond(second), zone));
+        cachedSecond = updated;
+        return updated;
+    }
+
+    /*
+     * Description: 按yyyyMMddHHmmss.SSS写入chars,秒以上部分来自当前秒缓存
+     **/
+    private static void writeTimeNum(long millis, char[] chars, int offset) {
+        String prefix = currentSecond(millis).timeNum;
+        prefix.getChars(0, prefix.length(), chars, offset);
+        int milli = (int) Math.floorMod(millis, MILLIS_PER_SECOND);
+        int index = offset + prefix.length();
+        chars[index] = '.';
+        chars[index + 1] = (char) ('0' + milli / 100);
+        chars[index + 2] = (char) ('0' + milli / 10 % 10);
+        chars[index + 3] = (char) ('0' + milli % 10);
+    }
+
+    private static void writeDigits(char[] chars, int offset, int value, int width) {
+        for (int i = offset + width - 1; i >= offset; i--) {
+            chars[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+
+    private static final class CurrentSecond {
+        private final long second;
+        /**
+         * 计算时使用的时区,默认时区变化后缓存失效
+         */
+        private final ZoneId zone;
+        /**
+         * yyyy-MM-dd HH:mm:ss
+         */
+        private final String dateTime;
+        /**
+         * yyyyMMddHHmmss
+         */
+        private final String timeNum;
+        /**
+         * yyyyMMdd-HHmmss
+         */
+        private final String compact;
+
+        private CurrentSecond(long second, ZoneId zone, LocalDateTime time) {
+            this.second = second;
+            this.zone = zone;
+            char[] chars = new char[19];
+            writeDigits(chars, 0, time.getYear(), 4);
+            chars[4] = '-';
+            writeDigits(chars, 5, time.getMonthValue(), 2);
+            chars[7] = '-';
+            writeDigits(chars, 8, time.getDayOfMonth(), 2);
+            chars[10] = ' ';
+            writeDigits(chars, 11, time.getHour(), 2);
+            chars[13] = ':';
+            writeDigits(chars, 14, time.getMinute(), 2);
+            chars[16] = ':';
+            writeDigits(chars, 17, time.getSecond(), 2);
+            this.dateTime = new String(chars);
+            char[] num = new char[14];
+            writeDigits(num, 0, time.getYear(), 4);
+            writeDigits(num, 4, time.getMonthValue(), 2);
+            writeDigits(num, 6, time.getDayOfMonth(), 2);
+            writeDigits(num, 8, time.getHour(), 2);
+            writeDigits(num, 10, time.getMinute(), 2);
+            writeDigits(num, 12, time.getSecond(), 2);
+            this.timeNum = new String(num);
+            this.compact = timeNum.substring(0, 8) + "-" + timeNum.substring(8);
         }
     }
 
@@ -0,0 +1,265 @@
+package com.ilsmp.base.util;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/*
+ * Author: zhangjiahao04
+ * Description: 虚拟线程执行器,每个任务一个虚拟线程,通过信号量限制同时执行的任务数以保护下游,
+ * 适合RestTemplate、JDBC等阻塞IO任务。虚拟线程需JDK21+,通过反射获取以兼容低版本编译
+ * Date: 2026/10/18 11:30
+ **/
+@Slf4j
+public class VirtualThreadExecutor extends AbstractExecutorService {
+
+    private static final ThreadFactoryProvider PROVIDER = ThreadFactoryProvider.load();
+
+    private final String name;
+    private final int concurrency;
+    private final Semaphore permits;
+    private final ExecutorService delegate;
+    /**
+     * 已提交但尚未获得许可的任务,shutdownNow时返回给调用方
+     */
+    private final Set<Pending> pending = ConcurrentHashMap.newKeySet();
+    private final LongAdder submittedCount = new LongAdder();
+    private final LongAdder completedCount = new LongAdder();
+    private final Timer waitTimer;
+    private final Timer runTimer;
+
+    public VirtualThreadExecutor(String name, int concurrency) {
+        if (!isSupported()) {
+            throw new UnsupportedOperationException("virtual threads are not supported by current jvm");
+        }
+        this.name = name;
+        this.concurrency = Math.max(1, concurrency);
+        this.permits = new Semaphore(this.concurrency);
+        this.delegate = PROVIDER.newExecutor(name + "-virtual-");
+        MeterRegistry registry = Metrics.globalRegistry;
+        Tags tags = Tags.of("name", name, MonitoredThreadPoolExecutor.TYPE_TAG,
+                MonitoredThreadPoolExecutor.TYPE_VIRTUAL);
+        String prefix = MonitoredThreadPoolExecutor.METRIC_PREFIX;
+        Gauge.builder(prefix + ".concurrency", this, VirtualThreadExecutor::getConcurrency)
+                .description("允许同时执行的任务数")
+                .tags(tags)
+                .register(registry);
+        Gauge.builder(prefix + ".active", this, VirtualThreadExecutor::getActiveCount)
+                .description("正在执行的任务数")
+                .tags(tags)
+                .register(registry);
+        Gauge.builder(prefix + ".waiting", this, VirtualThreadExecutor::getWaitingCount)
+                .description("等待执行许可的任务数")
+                .tags(tags)
+                .register(registry);
+        FunctionCounter.builder(prefix + ".completed", completedCount, LongAdder::sum)
+                .description("已完成的任务数")
+                .tags(tags)
+                .register(registry);
+        this.waitTimer = Timer.builder(prefix + ".task.wait")
+                .description("任务提交到开始执行的排队耗时")
+                .tags(tags)
+                .publishPercentileHistogram()
+                .register(registry);
+        this.runTimer = Timer.builder(prefix + ".task.run")
+                .description("任务执行耗时")
+                .tags(tags)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    /*
+     * Description: 当前JVM是否支持虚拟线程
+     **/
+    public static boolean isSupported() {
+        return PROVIDER != null;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        if (command == null) {
+            throw new NullPointerException();
+        }
+        if (delegate.isShutdown()) {
+            throw new RejectedExecutionException("executor " + name + " has been shutdown");
+        }
+        submittedCount.increment();
+        long submitNanos = System.nanoTime();
+        Runnable task = ExecutorUtil.decorate(command);
+        Pending entry = new Pending(command);
+        pending.add(entry);
+        try {
+            delegate.execute(() -> runWithPermit(entry, task, submitNanos));
+        } catch (RejectedExecutionException e) {
+            pending.remove(entry);
+            throw e;
+        }
+    }
+
+    private void runWithPermit(Pending entry, Runnable task, long submitNanos) {
+        // 在虚拟线程内阻塞等待许可,阻塞代价很低,提交方不会被卡住
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (pending.remove(entry) && entry.command instanceof Future) {
+                // 未被shutdownNow取走的任务取消掉,避免Future.get()一直阻塞
+                ((Future<?>) entry.command).cancel(false);
+            }
+            return;
+        }
+        if (!pending.remove(entry)) {
+            // 已被shutdownNow取走
+            permits.release();
+            return;
+        }
+        long start = System.nanoTime();
+        waitTimer.record(start - submitNanos, TimeUnit.NANOSECONDS);
+        try {
+            task.run();
+        } finally {
+            permits.release();
+            runTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            completedCount.increment();
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        delegate.shutdown();
+        MonitoredThreadPoolExecutor.unbindMeters(name, MonitoredThreadPoolExecutor.TYPE_VIRTUAL);
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        delegate.shutdown();
+        // 先取走等待许可的任务再中断线程,被中断的线程发现任务已被取走后直接退出
+        List<Runnable> tasks = new ArrayList<>();
+        for (Pending entry : pending) {
+            if (pending.remove(entry)) {
+                tasks.add(entry.command);
+            }
+        }
+        delegate.shutdownNow();
+        MonitoredThreadPoolExecutor.unbindMeters(name, MonitoredThreadPoolExecutor.TYPE_VIRTUAL);
+        return tasks;
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return delegate.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return delegate.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return delegate.awaitTermination(timeout, unit);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    public int getActiveCount() {
+        return concurrency - permits.availablePermits();
+    }
+
+    public int getWaitingCount() {
+        return permits.getQueueLength();
+    }
+
+    public long getSubmittedCount() {
+        return submittedCount.sum();
+    }
+
+    public long getCompletedCount() {
+        return completedCount.sum();
+    }
+
+    public Timer getWaitTimer() {
+        return waitTimer;
+    }
+
+    public Timer getRunTimer() {
+        return runTimer;
+    }
+
+    /*
+     * Description: 一次提交,同一任务可能被提交多次,按提交区分
+     **/
+    private static final class Pending {
+        private final Runnable command;
+
+        private Pending(Runnable command) {
+            this.command = command;
+        }
+    }
+
+    /*
+     * Description: 反射调用Thread.ofVirtual()与Executors.newThreadPerTaskExecutor()
+     **/
+    private static final class ThreadFactoryProvider {
+        private final Method ofVirtual;
+        private final Method name;
+        private final Method factory;
+        private final Method newThreadPerTaskExecutor;
+
+        private ThreadFactoryProvider() throws ReflectiveOperationException {
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            this.ofVirtual = Thread.class.getMethod("ofVirtual");
+            this.name = builderClass.getMethod("name", String.class, long.class);
+            this.factory = builderClass.getMethod("factory");
+            this.newThreadPerTaskExecutor = Executors.class.getMethod("newThreadPerTaskExecutor",
+                    ThreadFactory.class);
+        }
+
+        private static ThreadFactoryProvider load() {
+            try {
+                ThreadFactoryProvider provider = new ThreadFactoryProvider();
+                // JDK19/20需开启预览特性才可用,这里实际创建一次以确认
+                provider.newExecutor("probe-").shutdown();
+                return provider;
+            } catch (Throwable e) {
+                log.info("Virtual threads are not available, fallback to platform threads: {}", e.toString());
+                return null;
+            }
+        }
+
+        private ExecutorService newExecutor(String prefix) {
+            try {
+                Object builder = name.invoke(ofVirtual.invoke(null), prefix, 0L);
+                ThreadFactory threadFactory = (ThreadFactory) factory.invoke(builder);
+                return (ExecutorService) newThreadPerTaskExecutor.invoke(null, threadFactory);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("create virtual thread executor failed", e);
+            }
+        }
+    }
+}